@@ -34,7 +34,11 @@ public class AerospikeRepository implements SchemaRepository {
 
 	@SneakyThrows
 	private SchemaDetails toSchemaDetails(AerospikeRecord aerospikeRecord) {
-		return MapperUtils.mapper().readValue(aerospikeRecord.getData(), SchemaDetails.class);
+		final var schemaDetails = MapperUtils.mapper().readValue(aerospikeRecord.getData(), SchemaDetails.class);
+		if (null != schemaDetails.getSchemaKey()) {
+			schemaDetails.setSchemaKey(schemaDetails.getSchemaKey().intern());
+		}
+		return schemaDetails;
 	}
 
 	@Override
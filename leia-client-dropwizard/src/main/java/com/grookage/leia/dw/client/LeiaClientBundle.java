@@ -23,6 +23,8 @@ import com.grookage.leia.client.LeiaMessageProduceClient;
 import com.grookage.leia.client.datasource.LeiaClientRequest;
 import com.grookage.leia.client.refresher.LeiaClientRefresher;
 import com.grookage.leia.client.refresher.LeiaClientSupplier;
+import com.grookage.leia.client.validation.ValidationListener;
+import com.grookage.leia.client.validation.ValidationPolicy;
 import com.grookage.leia.common.validation.DefaultLeiaMessageValidator;
 import com.grookage.leia.common.validation.LeiaMessageValidator;
 import com.grookage.leia.mux.MessageProcessor;
@@ -86,6 +88,14 @@ public abstract class LeiaClientBundle<T extends Configuration> implements Confi
 		return new DefaultLeiaMessageValidator();
 	}
 
+	protected ValidationPolicy getValidationPolicy(T configuration) {
+		return ValidationPolicy.builder().build();
+	}
+
+	protected ValidationListener getValidationListener(T configuration) {
+		return null;
+	}
+
 	@Override
 	public void run(T configuration, Environment environment) {
 		final var clientRequestSupplier = getClientRequestSupplier(configuration);
@@ -130,6 +140,8 @@ public abstract class LeiaClientBundle<T extends Configuration> implements Confi
 					.processorSupplier(getMessageProcessor(configuration))
 					.targetValidator(getTargetRetriever(configuration))
 					.leiaMessageValidator(getMessageValidator(configuration))
+					.validationPolicy(getValidationPolicy(configuration))
+					.validationListener(getValidationListener(configuration))
 					.build();
 			environment.lifecycle().manage(new Managed() {
 				@Override
@@ -139,7 +151,7 @@ public abstract class LeiaClientBundle<T extends Configuration> implements Confi
 
 				@Override
 				public void stop() {
-					// No op
+					producerClient.stop();
 				}
 			});
 		}
@@ -19,10 +19,14 @@ package com.grookage.leia.client;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.grookage.leia.client.refresher.LeiaClientRefresher;
 import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaIndex;
+import com.grookage.leia.models.schema.SchemaIndexSupplier;
 import com.grookage.leia.models.schema.SchemaKey;
 import com.grookage.leia.validator.LeiaSchemaValidator;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.experimental.SuperBuilder;
 
 import java.util.List;
@@ -36,18 +40,26 @@ public abstract class AbstractSchemaClient implements LeiaSchemaClient {
 	private final ObjectMapper mapper;
 	private final LeiaClientRefresher refresher;
 	private final LeiaSchemaValidator schemaValidator;
+	@Getter(AccessLevel.NONE)
+	private final SchemaIndexSupplier schemaIndexSupplier = new SchemaIndexSupplier(this::getSchemaDetails);
 
 	public List<SchemaDetails> getSchemaDetails() {
 		return refresher.getData();
 	}
 
+	/*
+		Indexed view of the current refresher data, rebuilt only when the refresher data changes
+	 */
+	public SchemaIndex getSchemaIndex() {
+		return schemaIndexSupplier.get();
+	}
+
 	public List<SchemaDetails> getSchemaDetails(final Set<SchemaKey> schemas) {
-		if (null == refresher.getData()) {
+		final var schemaIndex = getSchemaIndex();
+		if (null == schemaIndex.getSchemaDetails()) {
 			throw new IllegalStateException("The configuration object has returned null data. Something gone wrong with refresher");
 		}
-		final var schemaKeys = schemas.stream().map(SchemaKey::getReferenceId).toList();
-		return refresher.getData().stream()
-				.filter(each -> schemaKeys.contains(each.getReferenceId())).toList();
+		return schemaIndex.getSchemaDetails(schemas);
 	}
 
 	public boolean valid(SchemaKey schemaKey) {
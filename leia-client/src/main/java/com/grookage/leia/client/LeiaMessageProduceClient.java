@@ -16,34 +16,41 @@
 
 package com.grookage.leia.client;
 
+import com.grookage.leia.client.snapshot.ClientSnapshot;
+import com.grookage.leia.client.snapshot.ClientSnapshotManager;
+import com.grookage.leia.client.transformer.PathMultiplexer;
+import com.grookage.leia.client.transformer.TransformationPlan;
+import com.grookage.leia.client.validation.MessageValidationStage;
+import com.grookage.leia.client.validation.ValidationListener;
+import com.grookage.leia.client.validation.ValidationPolicy;
+import com.grookage.leia.client.validation.ValidationStats;
 import com.grookage.leia.common.validation.LeiaMessageValidator;
 import com.grookage.leia.common.validation.NoOpLeiaMessageValidator;
+import com.grookage.leia.common.violation.LeiaMessageViolation;
 import com.grookage.leia.models.mux.LeiaMessage;
 import com.grookage.leia.models.mux.MessageRequest;
 import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaIndex;
 import com.grookage.leia.models.schema.SchemaKey;
 import com.grookage.leia.models.schema.transformer.TransformationTarget;
-import com.grookage.leia.models.utils.SchemaUtils;
 import com.grookage.leia.mux.MessageProcessor;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
 import com.grookage.leia.mux.filter.BackendFilter;
 import com.grookage.leia.mux.filter.NoOpBackendFilter;
+import com.grookage.leia.mux.targetvalidator.CompilableTargetValidator;
 import com.grookage.leia.mux.targetvalidator.DefaultTargetValidator;
 import com.grookage.leia.mux.targetvalidator.TargetValidator;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
-import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.SneakyThrows;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 
 @EqualsAndHashCode(callSuper = true)
@@ -52,75 +59,99 @@ import java.util.stream.Stream;
 @Slf4j
 public class LeiaMessageProduceClient extends AbstractSchemaClient {
 
-	private static final Configuration configuration = Configuration.builder()
-			.jsonProvider(new JacksonJsonNodeJsonProvider())
-			.mappingProvider(new JacksonMappingProvider())
-			.build();
 	private static final TargetValidator DEFAULT_VALIDATOR = new DefaultTargetValidator();
 	private static final LeiaMessageValidator DEFAULT_MESSAGE_VALIDATOR = new NoOpLeiaMessageValidator();
-	private final Map<SchemaKey, Map<String, JsonPath>> compiledPaths = new HashMap<>();
+	/*
+		Runtime state bound to this instance, left out so that clients built alike stay equal
+	 */
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private final ClientSnapshotManager snapshotManager = new ClientSnapshotManager(this::getSchemaIndex, this::buildSnapshot);
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private final MessageValidationStage validationStage = new MessageValidationStage(this::getValidationPolicy, this::getValidationListener);
 	private final Supplier<MessageProcessor> processorSupplier;
 	private final Supplier<TargetValidator> targetValidator;
 	private final LeiaMessageValidator leiaMessageValidator;
+	@Builder.Default
+	private final long snapshotRefreshIntervalMs = 1_000L;
+	/*
+		Validates every transformed message synchronously unless configured otherwise, see ValidationMode
+	 */
+	@Builder.Default
+	private final ValidationPolicy validationPolicy = ValidationPolicy.builder().build();
+	private final ValidationListener validationListener;
+	/*
+		Skips the validation of the transformed messages of the targets proven type safe against their source, see
+		TransformationTypeChecker. Only sound when the source messages are themselves valid, hence opt-in.
+	 */
+	private final boolean skipTypeSafeTargetValidation;
+
+	/*
+		The routes of the processor are memoised per snapshot, hence are invalidated along with every rebuild
+	 */
+	private ClientSnapshot buildSnapshot(SchemaIndex schemaIndex) {
+		final var snapshot = ClientSnapshot.build(schemaIndex, this::valid, getMapper(),
+				Objects.nonNull(this.leiaMessageValidator) ? this.leiaMessageValidator : DEFAULT_MESSAGE_VALIDATOR);
+		final var processor = null != processorSupplier ? processorSupplier.get() : null;
+		if (null != processor) {
+			processor.invalidateRoutes();
+		}
+		return snapshot;
+	}
+
+	public ClientSnapshot getSnapshot() {
+		return snapshotManager.get();
+	}
 
 	/*
 		Multiplexes from source and generates the list of messages as applicable
-		a) Fetches the schemaDetails from schemaKey of source
+		a) Fetches the compiled sourcePlan for the source schemaKey
 		b) Checks if there is a transformationTarget, if none, returns source as is.
+		c) All the targets read from the same evaluation, so that a path shared across targets is read only once.
 	 */
 	@SneakyThrows
-	private Optional<LeiaMessage> createMessage(MessageRequest messageRequest,
+	private Optional<LeiaMessage> createMessage(ClientSnapshot snapshot,
+	                                            MessageRequest messageRequest,
 	                                            SchemaDetails sourceSchema,
-	                                            TransformationTarget transformationTarget,
-	                                            TargetValidator tValidator) {
-		if (!validTarget(messageRequest, sourceSchema, transformationTarget, tValidator)) {
+	                                            TransformationPlan transformationPlan,
+	                                            PathMultiplexer.Evaluation evaluation,
+	                                            boolean validTarget) {
+		final var transformationTarget = transformationPlan.getTransformationTarget();
+		if (!validTarget) {
 			log.debug("Transformation target {} is not valid for source schemaKey {}",
 					transformationTarget.getSchemaKey().getReferenceId(), messageRequest.getSchemaKey().getReferenceId());
 			return Optional.empty();
 		}
-		final var targetSchema = SchemaUtils.getMatchingSchema(super.getSchemaDetails(), transformationTarget.getSchemaKey())
-				.orElse(null);
+		final var targetSchema = transformationPlan.getTargetSchema();
 		if (null == targetSchema) {
 			log.error("No schema found for target schemaKey {}", transformationTarget.getSchemaKey());
 			throw new UnsupportedOperationException("No valid schema found for target schemaKey " + transformationTarget.getSchemaKey().getReferenceId());
 		}
-		final var sourceContext = JsonPath.using(configuration).parse(messageRequest.getMessage());
-		final var responseObject = MessageTransformerUtils.transformMessage(sourceContext, transformationTarget,
-				getJsonPaths(transformationTarget.getSchemaKey()), getMapper());
-		final var messageValidator = Objects.nonNull(this.leiaMessageValidator) ? this.leiaMessageValidator :
-				DEFAULT_MESSAGE_VALIDATOR;
-		final var validationErrors = messageValidator.validate(targetSchema, responseObject);
+		final var responseObject = transformationPlan.transform(evaluation);
+		final var validationErrors = skipTypeSafeTargetValidation && transformationPlan.isTypeSafe()
+				? List.<LeiaMessageViolation>of()
+				: validationStage.validate(snapshot.getMessageValidator(), targetSchema, responseObject);
 		if (!validationErrors.isEmpty()) {
 			log.error("Transformed message validation failed for target schemaKey {} with errors {}",
 					transformationTarget.getSchemaKey(), validationErrors);
 			throw new IllegalStateException("Transformed message validation failed for target schemaKey "
 					+ transformationTarget.getSchemaKey().getReferenceId() + " with errors " + validationErrors);
 		}
-		val tags = Stream.of(targetSchema.getTags(), transformationTarget.getTags())
-				.flatMap(Collection::stream).collect(Collectors.toSet());
 		return Optional.of(
 				LeiaMessage.builder()
 						.schemaKey(transformationTarget.getSchemaKey())
-						.tags(tags)
+						.tags(transformationPlan.getTags())
 						.message(responseObject)
 						.build()
 		);
 	}
 
-	private Map<String, JsonPath> getJsonPaths(SchemaKey schemaKey) {
-		return compiledPaths.containsKey(schemaKey) ? compiledPaths.get(schemaKey) : Map.of();
-	}
-
-	public Map<SchemaKey, LeiaMessage> getMessages(MessageRequest messageRequest,
-	                                               TargetValidator tValidator) {
+	private Map<SchemaKey, LeiaMessage> getMessages(ClientSnapshot snapshot,
+	                                                MessageRequest messageRequest,
+	                                                SchemaDetails sourceSchemaDetails,
+	                                                TargetValidator validator) {
 		final var messages = new HashMap<SchemaKey, LeiaMessage>();
-		final var sourceSchemaDetails = SchemaUtils.getMatchingSchema(super.getSchemaDetails(), messageRequest.getSchemaKey())
-				.orElse(null);
-		if (null == sourceSchemaDetails) {
-			log.error("No schema found for schemaKey {}", messageRequest.getSchemaKey());
-			throw new UnsupportedOperationException("No valid schema found for schemaKey " + messageRequest.getSchemaKey().getReferenceId());
-		}
-
 		if (messageRequest.isIncludeSource()) {
 			messages.put(messageRequest.getSchemaKey(), LeiaMessage.builder()
 					.schemaKey(sourceSchemaDetails.getSchemaKey())
@@ -129,23 +160,95 @@ public class LeiaMessageProduceClient extends AbstractSchemaClient {
 					.build()
 			);
 		}
-		final var transformationTargets = sourceSchemaDetails.getTransformationTargets();
-		if (null == transformationTargets) {
+		final var sourcePlan = snapshot.getSourcePlan(sourceSchemaDetails.getSchemaKey()).orElse(null);
+		if (null == sourcePlan || !sourcePlan.hasTargets()) {
 			return messages;
 		}
-		transformationTargets.forEach(transformationTarget ->
-				createMessage(messageRequest, sourceSchemaDetails, transformationTarget, tValidator)
-						.ifPresent(message -> messages.put(message.getSchemaKey(), message)));
+		final var evaluation = sourcePlan.evaluate(messageRequest.getMessage());
+		/*
+			A compilable validator checks all the targets in a single evaluation, the rest are asked target by target
+		 */
+		final var matches = validator instanceof CompilableTargetValidator compilableValidator
+				? sourcePlan.matchTargets(compilableValidator, messageRequest, sourceSchemaDetails)
+				: null;
+		final var transformationPlans = sourcePlan.getTransformationPlans();
+		for (var i = 0; i < transformationPlans.size(); i++) {
+			final var transformationPlan = transformationPlans.get(i);
+			final var validTarget = null != matches
+					? matches[i]
+					: validator.validate(transformationPlan.getTransformationTarget(), messageRequest, sourceSchemaDetails);
+			createMessage(snapshot, messageRequest, sourceSchemaDetails, transformationPlan, evaluation, validTarget)
+					.ifPresent(message -> messages.put(message.getSchemaKey(), message));
+		}
 		return messages;
 	}
 
+	/*
+		Returns a snapshot that holds the source schema. The schema could have arrived after the last rebuild, hence
+		checks for a fresher snapshot before giving up
+	 */
+	private ClientSnapshot getSnapshot(SchemaKey schemaKey) {
+		final var snapshot = getSnapshot();
+		if (snapshot.getSchema(schemaKey).isPresent()) {
+			return snapshot;
+		}
+		final var refreshed = snapshotManager.refresh();
+		if (refreshed.getSchema(schemaKey).isEmpty()) {
+			log.error("No schema found for schemaKey {}", schemaKey);
+			throw new UnsupportedOperationException("No valid schema found for schemaKey " + schemaKey.getReferenceId());
+		}
+		return refreshed;
+	}
+
+	public Map<SchemaKey, LeiaMessage> getMessages(MessageRequest messageRequest,
+	                                               TargetValidator tValidator) {
+		final var snapshot = getSnapshot(messageRequest.getSchemaKey());
+		final var sourceSchemaDetails = snapshot.getSchema(messageRequest.getSchemaKey()).orElseThrow();
+		return getMessages(snapshot, messageRequest, sourceSchemaDetails, resolveTargetValidator(tValidator));
+	}
+
+	/*
+		Batch variant of getMessages. The requests are grouped by their source schemaKey, so that the schema, the
+		source plan and the target validator are resolved once per group rather than once per request. All the
+		requests of a batch are transformed against the same snapshot.
+	 */
+	public List<LeiaMessage> getMessages(List<MessageRequest> messageRequests,
+	                                     TargetValidator tValidator) {
+		if (null == messageRequests || messageRequests.isEmpty()) {
+			return List.of();
+		}
+		final var groupedRequests = new LinkedHashMap<SchemaKey, List<MessageRequest>>();
+		messageRequests.forEach(messageRequest -> groupedRequests
+				.computeIfAbsent(messageRequest.getSchemaKey(), key -> new ArrayList<>())
+				.add(messageRequest));
+		final var current = getSnapshot();
+		final var snapshot = groupedRequests.keySet().stream().allMatch(schemaKey -> current.getSchema(schemaKey).isPresent())
+				? current : snapshotManager.refresh();
+		final var validator = resolveTargetValidator(tValidator);
+		final var messages = new ArrayList<LeiaMessage>();
+		for (final var entry : groupedRequests.entrySet()) {
+			final var sourceSchemaDetails = snapshot.getSchema(entry.getKey()).orElse(null);
+			if (null == sourceSchemaDetails) {
+				log.error("No schema found for schemaKey {}", entry.getKey());
+				throw new UnsupportedOperationException("No valid schema found for schemaKey " + entry.getKey().getReferenceId());
+			}
+			for (final var messageRequest : entry.getValue()) {
+				messages.addAll(getMessages(snapshot, messageRequest, sourceSchemaDetails, validator).values());
+			}
+		}
+		return messages;
+	}
+
+	private TargetValidator resolveTargetValidator(TargetValidator tValidator) {
+		final var initiatedValidator = null != tValidator || null == targetValidator ? null : targetValidator.get();
+		return Objects.requireNonNullElseGet(tValidator, () -> Objects.requireNonNullElse(initiatedValidator, DEFAULT_VALIDATOR));
+	}
+
 	public boolean validTarget(MessageRequest messageRequest,
 	                           SchemaDetails schemaDetails,
 	                           TransformationTarget transformationTarget,
 	                           TargetValidator tValidator) {
-		final var initiatedValidator = null != targetValidator ? targetValidator.get() : null;
-		final var validator = Objects.requireNonNullElseGet(tValidator, () -> Objects.requireNonNullElse(initiatedValidator, DEFAULT_VALIDATOR));
-		return validator.validate(transformationTarget, messageRequest, schemaDetails);
+		return resolveTargetValidator(tValidator).validate(transformationTarget, messageRequest, schemaDetails);
 	}
 
 	@Deprecated(forRemoval = true, since = "1.1.0")
@@ -168,10 +271,76 @@ public class LeiaMessageProduceClient extends AbstractSchemaClient {
 		processor.processMessages(messages, null != backendFilter ? backendFilter : new NoOpBackendFilter());
 	}
 
+	/*
+		Transforms the whole batch and hands the merged set of messages to the processor in a single call, the
+		processor then groups them by executor so that each executor gets one send for the entire batch.
+	 */
+	public void processMessages(List<MessageRequest> messageRequests,
+	                            MessageProcessor messageProcessor,
+	                            TargetValidator targetValidator,
+	                            BackendFilter backendFilter) {
+		final var processor = null != messageProcessor ? messageProcessor : processorSupplier.get();
+		if (null == processor) {
+			log.error("No message processor hub supplied to process messages, call getMessages instead");
+			throw new UnsupportedOperationException("No message processor hub found");
+		}
+		final var messages = getMessages(messageRequests, targetValidator);
+		if (messages.isEmpty()) {
+			return;
+		}
+		processor.processMessages(messages, null != backendFilter ? backendFilter : new NoOpBackendFilter());
+	}
+
+	/*
+		Non-blocking variant of processMessages, for callers that can't block, say on an event loop. The messages are
+		transformed on the calling thread, which is CPU only, the sends are then left to the processor. Any failure,
+		including the transformation ones, completes the future exceptionally rather than being thrown.
+	 */
+	public CompletableFuture<List<ExecutionOutcome>> processMessagesAsync(MessageRequest messageRequest,
+	                                                                      MessageProcessor messageProcessor,
+	                                                                      TargetValidator targetValidator,
+	                                                                      BackendFilter backendFilter) {
+		return processMessagesAsync(() -> getMessages(messageRequest, targetValidator).values().stream().toList(),
+				messageProcessor, backendFilter);
+	}
+
+	public CompletableFuture<List<ExecutionOutcome>> processMessagesAsync(List<MessageRequest> messageRequests,
+	                                                                      MessageProcessor messageProcessor,
+	                                                                      TargetValidator targetValidator,
+	                                                                      BackendFilter backendFilter) {
+		return processMessagesAsync(() -> getMessages(messageRequests, targetValidator), messageProcessor, backendFilter);
+	}
+
+	private CompletableFuture<List<ExecutionOutcome>> processMessagesAsync(Supplier<List<LeiaMessage>> messageSupplier,
+	                                                                       MessageProcessor messageProcessor,
+	                                                                       BackendFilter backendFilter) {
+		try {
+			final var processor = null != messageProcessor ? messageProcessor : processorSupplier.get();
+			if (null == processor) {
+				log.error("No message processor hub supplied to process messages, call getMessages instead");
+				throw new UnsupportedOperationException("No message processor hub found");
+			}
+			final var messages = messageSupplier.get();
+			if (messages.isEmpty()) {
+				return CompletableFuture.completedFuture(List.of());
+			}
+			return processor.processMessagesAsync(messages, null != backendFilter ? backendFilter : new NoOpBackendFilter());
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 	@Override
 	public void start() {
-		compiledPaths.putAll(
-				MessageTransformerUtils.getCompiledPaths(super.getSchemaDetails(), this::valid)
-		);
+		snapshotManager.start(snapshotRefreshIntervalMs);
+	}
+
+	public ValidationStats getValidationStats() {
+		return validationStage.getStats();
+	}
+
+	public void stop() {
+		snapshotManager.stop();
+		validationStage.stop();
 	}
 }
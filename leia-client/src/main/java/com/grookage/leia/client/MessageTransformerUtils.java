@@ -20,7 +20,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.TextNode;
+import com.grookage.leia.client.transformer.PathMultiplexer;
+import com.grookage.leia.client.transformer.SourcePlan;
+import com.grookage.leia.client.transformer.TransformationPlan;
 import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaIndex;
 import com.grookage.leia.models.schema.SchemaKey;
 import com.grookage.leia.models.schema.transformer.AttributeTransformer;
 import com.grookage.leia.models.schema.transformer.TransformationTarget;
@@ -30,6 +34,7 @@ import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +46,11 @@ public class MessageTransformerUtils {
 
 	private static final String LITERAL = "~";
 
+	/*
+		Superseded by the TransformationPlans of getSourcePlan, which the client uses. Kept for the existing callers
+		and as the jayway baseline of PathEvaluationBenchmark.
+	 */
+	@Deprecated
 	public static Map<SchemaKey, Map<String, JsonPath>> getCompiledPaths(List<SchemaDetails> schemas,
 	                                                                     Predicate<SchemaKey> schemaPredicate) {
 		final var compiledPaths = new HashMap<SchemaKey, Map<String, JsonPath>>();
@@ -70,6 +80,29 @@ public class MessageTransformerUtils {
 		return compiledPaths;
 	}
 
+	public static SourcePlan getSourcePlan(SchemaDetails sourceSchema,
+	                                       SchemaIndex schemaIndex,
+	                                       Predicate<SchemaKey> schemaPredicate,
+	                                       ObjectMapper mapper) {
+		final var paths = PathMultiplexer.builder();
+		final var transformationTargets = sourceSchema.getTransformationTargets();
+		if (null == transformationTargets || transformationTargets.isEmpty()) {
+			return new SourcePlan(sourceSchema.getSchemaKey(), List.of(), paths.build());
+		}
+		final var validSource = schemaPredicate.test(sourceSchema.getSchemaKey());
+		final var plans = new ArrayList<TransformationPlan>();
+		transformationTargets.forEach(transformationTarget -> {
+			if (validSource && !schemaPredicate.test(transformationTarget.getSchemaKey())) {
+				log.error("The transformationSchema schema doesn't seem to be valid for schemaKey {}. Please check the schema bindings provided",
+						transformationTarget.getSchemaKey());
+				throw new IllegalStateException("Invalid transformation schema");
+			}
+			final var targetSchema = schemaIndex.getSchemaDetails(transformationTarget.getSchemaKey()).orElse(null);
+			plans.add(TransformationPlan.compile(sourceSchema, transformationTarget, targetSchema, mapper, paths, validSource));
+		});
+		return new SourcePlan(sourceSchema.getSchemaKey(), List.copyOf(plans), paths.build());
+	}
+
 	public static boolean text(String transformationPath) {
 		return transformationPath.startsWith(LITERAL);
 	}
@@ -78,6 +111,10 @@ public class MessageTransformerUtils {
 		return new TextNode(attributeValue.substring(attributeValue.lastIndexOf(LITERAL) + 1));
 	}
 
+	/*
+		Superseded by TransformationPlan.transform, see getCompiledPaths
+	 */
+	@Deprecated
 	public static JsonNode transformMessage(DocumentContext sourceContext,
 	                                        TransformationTarget transformationTarget,
 	                                        Map<String, JsonPath> compiledPaths,
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.client.MessageTransformerUtils;
+import com.grookage.leia.client.transformer.SourcePlan;
+import com.grookage.leia.common.validation.LeiaMessageValidator;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaIndex;
+import com.grookage.leia.models.schema.SchemaKey;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/*
+	An immutable view of everything the producer needs on the hot path, built off the schema index of the refresher data
+	at a point in time. A new snapshot is built whenever the refresher data changes and is published as a whole, so a
+	reader always sees the schemas, plans and validators of the same generation.
+ */
+@Getter
+public class ClientSnapshot {
+
+	private final SchemaIndex schemaIndex;
+	private final Map<SchemaKey, SourcePlan> sourcePlans;
+	private final LeiaMessageValidator messageValidator;
+
+	private ClientSnapshot(SchemaIndex schemaIndex,
+	                       Map<SchemaKey, SourcePlan> sourcePlans,
+	                       LeiaMessageValidator messageValidator) {
+		this.schemaIndex = schemaIndex;
+		this.sourcePlans = sourcePlans;
+		this.messageValidator = messageValidator;
+	}
+
+	public static ClientSnapshot build(SchemaIndex schemaIndex,
+	                                   Predicate<SchemaKey> schemaPredicate,
+	                                   ObjectMapper mapper,
+	                                   LeiaMessageValidator messageValidator) {
+		final var sourcePlans = new HashMap<SchemaKey, SourcePlan>();
+		schemaIndex.getAllSchemaDetails().forEach(each -> sourcePlans.put(each.getSchemaKey(),
+				MessageTransformerUtils.getSourcePlan(each, schemaIndex, schemaPredicate, mapper)));
+		return new ClientSnapshot(schemaIndex, Map.copyOf(sourcePlans), messageValidator);
+	}
+
+	public boolean isBuiltFrom(SchemaIndex index) {
+		return this.schemaIndex == index;
+	}
+
+	public Optional<SchemaDetails> getSchema(SchemaKey schemaKey) {
+		return schemaIndex.getSchemaDetails(schemaKey);
+	}
+
+	public Optional<SourcePlan> getSourcePlan(SchemaKey schemaKey) {
+		return Optional.ofNullable(sourcePlans.get(schemaKey));
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.snapshot;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.grookage.leia.models.schema.SchemaIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+	Keeps the current ClientSnapshot. Readers only ever do a volatile read, the snapshot is rebuilt on a background
+	thread whenever the supplied schema index changes and swapped in as a whole.
+ */
+@Slf4j
+public class ClientSnapshotManager {
+
+	private final AtomicReference<ClientSnapshot> snapshot = new AtomicReference<>();
+	private final Supplier<SchemaIndex> indexSupplier;
+	private final Function<SchemaIndex, ClientSnapshot> snapshotBuilder;
+	private ScheduledExecutorService scheduler;
+
+	public ClientSnapshotManager(Supplier<SchemaIndex> indexSupplier,
+	                             Function<SchemaIndex, ClientSnapshot> snapshotBuilder) {
+		this.indexSupplier = indexSupplier;
+		this.snapshotBuilder = snapshotBuilder;
+	}
+
+	public ClientSnapshot get() {
+		final var current = snapshot.get();
+		return null != current ? current : refresh();
+	}
+
+	/*
+		Rebuilds the snapshot if the data has changed since the current one was built, returns the latest snapshot
+	 */
+	public synchronized ClientSnapshot refresh() {
+		final var schemaIndex = indexSupplier.get();
+		final var current = snapshot.get();
+		if (null != current && current.isBuiltFrom(schemaIndex)) {
+			return current;
+		}
+		final var latest = snapshotBuilder.apply(schemaIndex);
+		snapshot.set(latest);
+		return latest;
+	}
+
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (Exception e) {
+			log.error("Couldn't rebuild the client snapshot, continuing with the existing one", e);
+		}
+	}
+
+	public synchronized void start(long refreshIntervalMs) {
+		refresh();
+		if (null != scheduler) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("leia-client-snapshot-%d")
+				.setDaemon(true)
+				.build());
+		scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void stop() {
+		if (null != scheduler) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+}
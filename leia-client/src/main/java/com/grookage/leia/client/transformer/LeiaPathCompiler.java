@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/*
+	Compiles the simple, definite subset of jsonPaths into a chain of JsonNode lookups. The subset is a root followed
+	by any number of property and index segments, $.a.b, $.a[0].b or $['a'][1]. Anything else, wildcards, deep
+	scans, filters, slices or negative indexes, doesn't compile and is left to jayway.
+ */
+@UtilityClass
+public class LeiaPathCompiler {
+
+	private static final char ROOT = '$';
+
+	public static Optional<LeiaPath> compile(String path) {
+		if (null == path || path.length() < 2 || path.charAt(0) != ROOT) {
+			return Optional.empty();
+		}
+		final var names = new ArrayList<String>();
+		final var indexes = new ArrayList<Integer>();
+		var position = 1;
+		while (position < path.length()) {
+			final var current = path.charAt(position);
+			if (current == '.') {
+				final var end = identifierEnd(path, position + 1);
+				if (end == position + 1) {
+					return Optional.empty();
+				}
+				names.add(path.substring(position + 1, end));
+				indexes.add(-1);
+				position = end;
+			} else if (current == '[') {
+				final var close = path.indexOf(']', position);
+				if (close < 0) {
+					return Optional.empty();
+				}
+				final var content = path.substring(position + 1, close);
+				if (isQuoted(content)) {
+					names.add(content.substring(1, content.length() - 1));
+					indexes.add(-1);
+				} else if (isIndex(content)) {
+					names.add(null);
+					indexes.add(Integer.parseInt(content));
+				} else {
+					return Optional.empty();
+				}
+				position = close + 1;
+			} else {
+				return Optional.empty();
+			}
+		}
+		return Optional.of(new LeiaPath(names.toArray(String[]::new),
+				indexes.stream().mapToInt(Integer::intValue).toArray()));
+	}
+
+	private static int identifierEnd(String path, int start) {
+		var position = start;
+		while (position < path.length()) {
+			final var current = path.charAt(position);
+			final var valid = position == start
+					? Character.isLetter(current) || current == '_'
+					: Character.isLetterOrDigit(current) || current == '_';
+			if (!valid) {
+				break;
+			}
+			position++;
+		}
+		return position;
+	}
+
+	private static boolean isQuoted(String content) {
+		if (content.length() < 2) {
+			return false;
+		}
+		final var quote = content.charAt(0);
+		if ((quote != '\'' && quote != '"') || content.charAt(content.length() - 1) != quote) {
+			return false;
+		}
+		final var name = content.substring(1, content.length() - 1);
+		return !name.isEmpty() && name.indexOf('\'') < 0 && name.indexOf('"') < 0 && name.indexOf('\\') < 0;
+	}
+
+	private static boolean isIndex(String content) {
+		if (content.isEmpty() || content.length() > 9) {
+			return false;
+		}
+		for (var position = 0; position < content.length(); position++) {
+			if (!Character.isDigit(content.charAt(position))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+		A compiled path, segment i is a property lookup when name(i) is not null, an index lookup otherwise
+	 */
+	public static class LeiaPath {
+		private final String[] names;
+		private final int[] indexes;
+
+		private LeiaPath(String[] names, int[] indexes) {
+			this.names = names;
+			this.indexes = indexes;
+		}
+
+		public int size() {
+			return names.length;
+		}
+
+		public String name(int segment) {
+			return names[segment];
+		}
+
+		public int index(int segment) {
+			return indexes[segment];
+		}
+
+		/*
+			A canonical form of the first n segments, the same for all the spellings of a path
+		 */
+		public String prefix(int segments) {
+			final var prefix = new StringBuilder().append(ROOT);
+			for (var segment = 0; segment < segments; segment++) {
+				if (null != names[segment]) {
+					prefix.append("['").append(names[segment]).append("']");
+				} else {
+					prefix.append('[').append(indexes[segment]).append(']');
+				}
+			}
+			return prefix.toString();
+		}
+
+		/*
+			The value at the path, a MissingNode when any of the segments is absent
+		 */
+		public JsonNode read(JsonNode source) {
+			var current = source;
+			for (var segment = 0; segment < names.length && null != current; segment++) {
+				current = null != names[segment] ? current.get(names[segment]) : current.get(indexes[segment]);
+			}
+			return null == current ? MissingNode.getInstance() : current;
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+	Holds the distinct paths of all the transformationTargets of a source schema. The paths LeiaPathCompiler
+	understands ($.a.b.c, $.a[0].b) are laid out as a prefix tree, so that a shared prefix is walked only once per
+	message, the rest are compiled into jsonPaths, evaluated against a single documentContext per message.
+ */
+public class PathMultiplexer {
+
+	private static final Configuration configuration = Configuration.builder()
+			.jsonProvider(new JacksonJsonNodeJsonProvider())
+			.mappingProvider(new JacksonMappingProvider())
+			.build();
+
+	private final String[] paths;
+	private final int[] pathSegments;
+	private final JsonPath[] jsonPaths;
+	private final String[] segmentNames;
+	private final int[] segmentIndexes;
+	private final int[] segmentParents;
+
+	private PathMultiplexer(Builder builder) {
+		this.paths = builder.paths.toArray(String[]::new);
+		this.pathSegments = builder.pathSegments.stream().mapToInt(Integer::intValue).toArray();
+		this.jsonPaths = builder.jsonPaths.toArray(JsonPath[]::new);
+		this.segmentNames = builder.segmentNames.toArray(String[]::new);
+		this.segmentIndexes = builder.segmentIndexes.stream().mapToInt(Integer::intValue).toArray();
+		this.segmentParents = builder.segmentParents.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int size() {
+		return paths.length;
+	}
+
+	public Evaluation evaluate(JsonNode message) {
+		return new Evaluation(message);
+	}
+
+	public static class Builder {
+		private final Map<String, Integer> pathIndex = new HashMap<>();
+		private final Map<String, Integer> segmentIndex = new HashMap<>();
+		private final List<String> paths = new ArrayList<>();
+		private final List<Integer> pathSegments = new ArrayList<>();
+		private final List<JsonPath> jsonPaths = new ArrayList<>();
+		private final List<String> segmentNames = new ArrayList<>();
+		private final List<Integer> segmentIndexes = new ArrayList<>();
+		private final List<Integer> segmentParents = new ArrayList<>();
+
+		/*
+			Returns the slot of the path, registering it if this is the first time it has been seen
+		 */
+		public int register(String path) {
+			final var existing = pathIndex.get(path);
+			if (null != existing) {
+				return existing;
+			}
+			final var index = paths.size();
+			paths.add(path);
+			final var leiaPath = LeiaPathCompiler.compile(path).orElse(null);
+			if (null != leiaPath) {
+				pathSegments.add(registerSegments(leiaPath));
+				jsonPaths.add(null);
+			} else {
+				pathSegments.add(-1);
+				jsonPaths.add(JsonPath.compile(path));
+			}
+			pathIndex.put(path, index);
+			return index;
+		}
+
+		private int registerSegments(LeiaPathCompiler.LeiaPath leiaPath) {
+			var parent = -1;
+			for (var i = 0; i < leiaPath.size(); i++) {
+				final var prefix = leiaPath.prefix(i + 1);
+				final var existing = segmentIndex.get(prefix);
+				if (null != existing) {
+					parent = existing;
+					continue;
+				}
+				final var segment = segmentNames.size();
+				segmentNames.add(leiaPath.name(i));
+				segmentIndexes.add(leiaPath.index(i));
+				segmentParents.add(parent);
+				segmentIndex.put(prefix, segment);
+				parent = segment;
+			}
+			return parent;
+		}
+
+		public PathMultiplexer build() {
+			return new PathMultiplexer(this);
+		}
+	}
+
+	/*
+		The evaluation state of a single message. Every segment and every path is resolved at most once, and only
+		when a transformationTarget asks for it.
+	 */
+	public class Evaluation {
+		private final JsonNode source;
+		private JsonNode[] segmentValues;
+		private JsonNode[] pathValues;
+		private DocumentContext documentContext;
+
+		private Evaluation(JsonNode source) {
+			this.source = source;
+		}
+
+		public JsonNode getSource() {
+			return source;
+		}
+
+		public JsonNode read(int path) {
+			if (null == pathValues) {
+				pathValues = new JsonNode[paths.length];
+			}
+			final var existing = pathValues[path];
+			if (null != existing) {
+				return existing;
+			}
+			final var segment = pathSegments[path];
+			final JsonNode value;
+			if (segment >= 0) {
+				value = segment(segment);
+				if (value.isMissingNode()) {
+					throw new PathNotFoundException("No results for path: " + paths[path]);
+				}
+			} else {
+				value = documentContext().read(jsonPaths[path]);
+			}
+			if (null != value) {
+				pathValues[path] = value;
+			}
+			return value;
+		}
+
+		private JsonNode segment(int segment) {
+			if (null == segmentValues) {
+				segmentValues = new JsonNode[segmentNames.length];
+			}
+			final var existing = segmentValues[segment];
+			if (null != existing) {
+				return existing;
+			}
+			final var parent = segmentParents[segment];
+			final var parentValue = parent < 0 ? source : segment(parent);
+			final var name = segmentNames[segment];
+			final var value = null != name ? parentValue.get(name) : parentValue.get(segmentIndexes[segment]);
+			final var resolved = null == value ? MissingNode.getInstance() : value;
+			segmentValues[segment] = resolved;
+			return resolved;
+		}
+
+		private DocumentContext documentContext() {
+			if (null == documentContext) {
+				documentContext = JsonPath.using(configuration).parse(source);
+			}
+			return documentContext;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.grookage.leia.models.mux.MessageRequest;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import com.grookage.leia.mux.targetvalidator.CompilableTargetValidator;
+import com.grookage.leia.mux.targetvalidator.TargetMatcher;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+	The transformationPlans of all the targets of a source schema, sharing a single PathMultiplexer
+ */
+@Getter
+public class SourcePlan {
+
+	private final SchemaKey schemaKey;
+	private final List<TransformationPlan> transformationPlans;
+	private final PathMultiplexer pathMultiplexer;
+	private final List<TransformationTarget> transformationTargets;
+	@Getter(AccessLevel.NONE)
+	private final AtomicReference<CompiledMatcher> targetMatcher = new AtomicReference<>();
+
+	public SourcePlan(SchemaKey schemaKey,
+	                  List<TransformationPlan> transformationPlans,
+	                  PathMultiplexer pathMultiplexer) {
+		this.schemaKey = schemaKey;
+		this.transformationPlans = transformationPlans;
+		this.pathMultiplexer = pathMultiplexer;
+		this.transformationTargets = transformationPlans.stream()
+				.map(TransformationPlan::getTransformationTarget)
+				.toList();
+	}
+
+	public boolean hasTargets() {
+		return !transformationPlans.isEmpty();
+	}
+
+	public PathMultiplexer.Evaluation evaluate(JsonNode message) {
+		return pathMultiplexer.evaluate(message);
+	}
+
+	/*
+		Validates all the targets in one go, in the order of the transformationPlans. The matcher is compiled once per
+		validator type and is recompiled if the criteria of a target has been replaced since.
+	 */
+	public boolean[] matchTargets(CompilableTargetValidator validator,
+	                              MessageRequest messageRequest,
+	                              SchemaDetails sourceSchema) {
+		var compiled = targetMatcher.get();
+		if (null == compiled || compiled.validatorType != validator.getClass()
+				|| !compiled.matcher.isCompiledFrom(transformationTargets)) {
+			compiled = new CompiledMatcher(validator.getClass(), validator.compile(transformationTargets));
+			targetMatcher.set(compiled);
+		}
+		return compiled.matcher.matches(messageRequest, sourceSchema);
+	}
+
+	@AllArgsConstructor
+	private static class CompiledMatcher {
+		private final Class<?> validatorType;
+		private final TargetMatcher matcher;
+	}
+}
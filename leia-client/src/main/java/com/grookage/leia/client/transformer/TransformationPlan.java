@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.grookage.leia.client.MessageTransformerUtils;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import com.grookage.leia.models.utils.MapperUtils;
+import lombok.Getter;
+
+import java.util.*;
+
+/*
+	Everything about a transformationTarget that doesn't depend on the incoming message, resolved once when the
+	schemas are loaded. The per-message work is reduced to the path reads and the node assembly.
+ */
+@Getter
+public class TransformationPlan {
+
+	private final TransformationTarget transformationTarget;
+	private final SchemaDetails targetSchema;
+	private final Set<String> tags;
+	private final TransformationSlot[] slots;
+	/*
+		True when a message valid against the source schema always transforms into one valid against the target
+		schema, see TransformationTypeChecker
+	 */
+	private final boolean typeSafe;
+
+	private TransformationPlan(TransformationTarget transformationTarget,
+	                           SchemaDetails targetSchema,
+	                           Set<String> tags,
+	                           TransformationSlot[] slots,
+	                           boolean typeSafe) {
+		this.transformationTarget = transformationTarget;
+		this.targetSchema = targetSchema;
+		this.tags = tags;
+		this.slots = slots;
+		this.typeSafe = typeSafe;
+	}
+
+	/*
+		compilePaths is false for the sources that haven't passed the schema validator, for those only the
+		literals are carried onto the transformed message.
+	 */
+	public static TransformationPlan compile(SchemaDetails sourceSchema,
+	                                         TransformationTarget transformationTarget,
+	                                         SchemaDetails targetSchema,
+	                                         ObjectMapper mapper,
+	                                         PathMultiplexer.Builder paths,
+	                                         boolean compilePaths) {
+		final var writer = (null != mapper ? mapper : MapperUtils.mapper()).writerFor(JsonNode.class);
+		final var slots = new ArrayList<TransformationSlot>();
+		transformationTarget.getTransformers().forEach(transformer -> {
+			final var transformationPath = transformer.getTransformationPath();
+			if (MessageTransformerUtils.text(transformationPath)) {
+				slots.add(TransformationSlot.literal(transformer.getAttributeName(),
+						MessageTransformerUtils.toTextNode(transformationPath)));
+			} else if (compilePaths) {
+				slots.add(TransformationSlot.path(transformer.getAttributeName(),
+						paths.register(transformationPath),
+						transformer.isSerialize() ? writer : null));
+			}
+		});
+		final var typeSafe = compilePaths
+				&& TransformationTypeChecker.isTypeSafe(sourceSchema, transformationTarget, targetSchema);
+		return new TransformationPlan(transformationTarget, targetSchema, mergeTags(targetSchema, transformationTarget),
+				slots.toArray(TransformationSlot[]::new), typeSafe);
+	}
+
+	private static Set<String> mergeTags(SchemaDetails targetSchema,
+	                                     TransformationTarget transformationTarget) {
+		if (null == targetSchema) {
+			return Set.of();
+		}
+		final var tags = new HashSet<String>();
+		if (null != targetSchema.getTags()) {
+			tags.addAll(targetSchema.getTags());
+		}
+		if (null != transformationTarget.getTags()) {
+			tags.addAll(transformationTarget.getTags());
+		}
+		return Collections.unmodifiableSet(tags);
+	}
+
+	public SchemaKey getSchemaKey() {
+		return transformationTarget.getSchemaKey();
+	}
+
+	public JsonNode transform(PathMultiplexer.Evaluation evaluation) {
+		final var responseObject = JsonNodeFactory.instance.objectNode();
+		for (final var slot : slots) {
+			responseObject.set(slot.getAttributeName(), slot.evaluate(evaluation));
+		}
+		return responseObject;
+	}
+}
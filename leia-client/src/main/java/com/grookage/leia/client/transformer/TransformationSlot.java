@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+/*
+	A single attribute of a transformed message. Either holds a pre-resolved literal node, or the slot of the path
+	in the source's PathMultiplexer along with the writer to be used when the transformer asks for the value to be
+	serialized.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransformationSlot {
+
+	private final String attributeName;
+	private final JsonNode literal;
+	private final int path;
+	private final ObjectWriter writer;
+
+	public static TransformationSlot literal(String attributeName, JsonNode literal) {
+		return new TransformationSlot(attributeName, literal, -1, null);
+	}
+
+	public static TransformationSlot path(String attributeName, int path, ObjectWriter writer) {
+		return new TransformationSlot(attributeName, null, path, writer);
+	}
+
+	@SneakyThrows
+	public JsonNode evaluate(PathMultiplexer.Evaluation evaluation) {
+		if (null != literal) {
+			return literal;
+		}
+		final var value = evaluation.read(path);
+		return null == writer ? value : new TextNode(writer.writeValueAsString(value));
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.grookage.leia.client.MessageTransformerUtils;
+import com.grookage.leia.models.attributes.*;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaValidationType;
+import com.grookage.leia.models.schema.transformer.AttributeTransformer;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import lombok.AllArgsConstructor;
+import lombok.experimental.UtilityClass;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+	Statically checks a transformationTarget against the source and the target schemas. A target is type safe when
+	every message that is valid against the source schema transforms into a message that is valid against the target
+	schema, as per the rules of the DefaultLeiaMessageValidator. The check is conservative, anything it can't reason
+	about (paths LeiaPathCompiler doesn't compile, raw attributes in the source, duplicate names) is treated as unsafe.
+ */
+@UtilityClass
+public class TransformationTypeChecker {
+
+	public static boolean isTypeSafe(SchemaDetails sourceSchema,
+	                                 TransformationTarget transformationTarget,
+	                                 SchemaDetails targetSchema) {
+		if (null == sourceSchema || null == targetSchema || null == transformationTarget.getTransformers()) {
+			return false;
+		}
+		final var sourceAttributes = byName(sourceSchema.getAttributes()).orElse(null);
+		final var targetAttributes = byName(targetSchema.getAttributes()).orElse(null);
+		if (null == sourceAttributes || null == targetAttributes) {
+			return false;
+		}
+		/*
+			The last transformer of an attribute wins, the same as the transformed message
+		 */
+		final var transformers = new LinkedHashMap<String, AttributeTransformer>();
+		transformationTarget.getTransformers().forEach(transformer -> transformers.put(transformer.getAttributeName(), transformer));
+		final var targetStrict = targetSchema.getValidationType() == SchemaValidationType.STRICT;
+		if (targetStrict && !targetAttributes.keySet().containsAll(transformers.keySet())) {
+			return false;
+		}
+		for (final var targetAttribute : targetAttributes.values()) {
+			final var transformer = transformers.get(targetAttribute.getName());
+			if (null == transformer) {
+				if (!targetAttribute.isOptional()) {
+					return false;
+				}
+				continue;
+			}
+			if (!isTypeSafe(transformer, sourceAttributes, sourceSchema.getValidationType(), targetAttribute,
+					targetSchema.getValidationType())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isTypeSafe(AttributeTransformer transformer,
+	                                  Map<String, SchemaAttribute> sourceAttributes,
+	                                  SchemaValidationType sourceValidationType,
+	                                  SchemaAttribute targetAttribute,
+	                                  SchemaValidationType targetValidationType) {
+		final var transformationPath = transformer.getTransformationPath();
+		if (MessageTransformerUtils.text(transformationPath)) {
+			return acceptsText(targetAttribute, MessageTransformerUtils.toTextNode(transformationPath).asText());
+		}
+		if (transformer.isSerialize()) {
+			return acceptsAnyText(targetAttribute);
+		}
+		final var resolved = resolve(transformationPath, sourceAttributes).orElse(null);
+		return null != resolved && compatible(resolved.attribute, resolved.nullable, sourceValidationType,
+				targetAttribute, targetValidationType);
+	}
+
+	/*
+		Resolves a path compiled by LeiaPathCompiler through the attributes of the source schema, properties through
+		the nested attributes and indexes through the array elements. Any optional attribute on the way makes the
+		resolved value nullable.
+	 */
+	private static Optional<ResolvedAttribute> resolve(String transformationPath,
+	                                                   Map<String, SchemaAttribute> sourceAttributes) {
+		final var leiaPath = LeiaPathCompiler.compile(transformationPath).orElse(null);
+		if (null == leiaPath) {
+			return Optional.empty();
+		}
+		var nullable = false;
+		SchemaAttribute resolved = null;
+		for (var segment = 0; segment < leiaPath.size(); segment++) {
+			final var name = leiaPath.name(segment);
+			if (null != name) {
+				final var attributes = null == resolved ? sourceAttributes
+						: resolved instanceof ObjectAttribute objectAttribute && null != objectAttribute.getNestedAttributes()
+						? byName(objectAttribute.getNestedAttributes()).orElse(null)
+						: null;
+				resolved = null == attributes ? null : attributes.get(name);
+			} else {
+				resolved = resolved instanceof ArrayAttribute arrayAttribute ? arrayAttribute.getElementAttribute() : null;
+			}
+			if (null == resolved) {
+				return Optional.empty();
+			}
+			nullable = nullable || resolved.isOptional();
+		}
+		return Optional.of(new ResolvedAttribute(resolved, nullable));
+	}
+
+	private static boolean compatible(SchemaAttribute source,
+	                                  SchemaValidationType sourceValidationType,
+	                                  SchemaAttribute target,
+	                                  SchemaValidationType targetValidationType) {
+		return compatible(source, source.isOptional(), sourceValidationType, target, targetValidationType);
+	}
+
+	private static boolean compatible(SchemaAttribute source,
+	                                  boolean sourceNullable,
+	                                  SchemaValidationType sourceValidationType,
+	                                  SchemaAttribute target,
+	                                  SchemaValidationType targetValidationType) {
+		if (sourceNullable && !target.isOptional()) {
+			return false;
+		}
+		if (isRawObject(target)) {
+			return true;
+		}
+		final var sourceType = source.getType();
+		return switch (target.getType()) {
+			case BOOLEAN -> sourceType == DataType.BOOLEAN;
+			case FLOAT -> sourceType == DataType.FLOAT;
+			case INTEGER -> sourceType == DataType.INTEGER;
+			case LONG -> sourceType == DataType.INTEGER || sourceType == DataType.LONG;
+			case SHORT -> sourceType == DataType.INTEGER || sourceType == DataType.SHORT;
+			case DOUBLE -> sourceType == DataType.INTEGER || sourceType == DataType.FLOAT || sourceType == DataType.DOUBLE;
+			case BYTES -> sourceType == DataType.BYTES || sourceType == DataType.ARRAY;
+			case STRING -> isText(source);
+			case DATE -> isText(source) || sourceType == DataType.INTEGER || sourceType == DataType.LONG
+					|| sourceType == DataType.DATE;
+			case CHARACTER -> sourceType == DataType.CHARACTER || (source instanceof EnumAttribute enumAttribute
+					&& null != enumAttribute.getValues() && enumAttribute.getValues().stream().allMatch(value -> value.length() == 1));
+			case ENUM -> source instanceof EnumAttribute enumAttribute && null != enumAttribute.getValues()
+					&& null != ((EnumAttribute) target).getValues()
+					&& ((EnumAttribute) target).getValues().containsAll(enumAttribute.getValues());
+			case ARRAY -> compatibleArray(source, sourceValidationType, (ArrayAttribute) target, targetValidationType);
+			case MAP -> compatibleMap(source, sourceValidationType, (MapAttribute) target, targetValidationType);
+			case OBJECT -> source instanceof ObjectAttribute objectAttribute && compatibleObject(objectAttribute,
+					sourceValidationType, (ObjectAttribute) target, targetValidationType);
+		};
+	}
+
+	private static boolean compatibleArray(SchemaAttribute source,
+	                                       SchemaValidationType sourceValidationType,
+	                                       ArrayAttribute target,
+	                                       SchemaValidationType targetValidationType) {
+		if (!(source instanceof ArrayAttribute || source.getType() == DataType.BYTES)) {
+			return false;
+		}
+		if (null == target.getElementAttribute()) {
+			return true;
+		}
+		return source instanceof ArrayAttribute arrayAttribute && null != arrayAttribute.getElementAttribute()
+				&& compatible(arrayAttribute.getElementAttribute(), sourceValidationType,
+				target.getElementAttribute(), targetValidationType);
+	}
+
+	private static boolean compatibleMap(SchemaAttribute source,
+	                                     SchemaValidationType sourceValidationType,
+	                                     MapAttribute target,
+	                                     SchemaValidationType targetValidationType) {
+		if (!(source instanceof MapAttribute mapAttribute)) {
+			return false;
+		}
+		final var keyCompatible = null == target.getKeyAttribute()
+				|| (null == mapAttribute.getKeyAttribute() ? acceptsAnyText(target.getKeyAttribute())
+				: compatible(mapAttribute.getKeyAttribute(), sourceValidationType, target.getKeyAttribute(), targetValidationType));
+		final var valueCompatible = null == target.getValueAttribute()
+				|| (null != mapAttribute.getValueAttribute() && compatible(mapAttribute.getValueAttribute(),
+				sourceValidationType, target.getValueAttribute(), targetValidationType));
+		return keyCompatible && valueCompatible;
+	}
+
+	/*
+		A nested object is safe when every field that can appear in the source is accepted by the target. In a
+		MATCHING source unknown fields can appear with any value, hence it can't feed a STRICT target.
+	 */
+	private static boolean compatibleObject(ObjectAttribute source,
+	                                        SchemaValidationType sourceValidationType,
+	                                        ObjectAttribute target,
+	                                        SchemaValidationType targetValidationType) {
+		if (null == source.getNestedAttributes()) {
+			return false;
+		}
+		final var sourceAttributes = byName(source.getNestedAttributes()).orElse(null);
+		final var targetAttributes = byName(target.getNestedAttributes()).orElse(null);
+		if (null == sourceAttributes || null == targetAttributes) {
+			return false;
+		}
+		final var sourceStrict = sourceValidationType == SchemaValidationType.STRICT;
+		if (targetValidationType == SchemaValidationType.STRICT
+				&& (!sourceStrict || !targetAttributes.keySet().containsAll(sourceAttributes.keySet()))) {
+			return false;
+		}
+		for (final var targetAttribute : targetAttributes.values()) {
+			final var sourceAttribute = sourceAttributes.get(targetAttribute.getName());
+			if (null == sourceAttribute) {
+				if (!targetAttribute.isOptional() || !(sourceStrict || isRawObject(targetAttribute))) {
+					return false;
+				}
+				continue;
+			}
+			if (!compatible(sourceAttribute, sourceValidationType, targetAttribute, targetValidationType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isRawObject(SchemaAttribute attribute) {
+		return attribute instanceof ObjectAttribute objectAttribute && null == objectAttribute.getNestedAttributes();
+	}
+
+	private static boolean isText(SchemaAttribute attribute) {
+		return attribute.getType() == DataType.STRING || attribute.getType() == DataType.CHARACTER
+				|| attribute.getType() == DataType.ENUM;
+	}
+
+	private static boolean acceptsAnyText(SchemaAttribute attribute) {
+		return attribute.getType() == DataType.STRING || attribute.getType() == DataType.DATE || isRawObject(attribute);
+	}
+
+	private static boolean acceptsText(SchemaAttribute attribute, String text) {
+		if (acceptsAnyText(attribute)) {
+			return true;
+		}
+		if (attribute instanceof EnumAttribute enumAttribute) {
+			return null != enumAttribute.getValues() && enumAttribute.getValues().contains(text);
+		}
+		return attribute.getType() == DataType.CHARACTER && text.length() == 1;
+	}
+
+	/*
+		Attributes keyed by their name, empty if a name repeats, in which case the validator's behaviour depends on
+		the iteration order of the attributes
+	 */
+	private static Optional<Map<String, SchemaAttribute>> byName(Set<SchemaAttribute> attributes) {
+		final var byName = new HashMap<String, SchemaAttribute>();
+		if (null == attributes) {
+			return Optional.of(byName);
+		}
+		for (final var attribute : attributes) {
+			if (null != byName.put(attribute.getName(), attribute)) {
+				return Optional.empty();
+			}
+		}
+		return Optional.of(byName);
+	}
+
+	@AllArgsConstructor
+	private static class ResolvedAttribute {
+		private final SchemaAttribute attribute;
+		private final boolean nullable;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.grookage.leia.common.validation.LeiaMessageValidator;
+import com.grookage.leia.common.violation.LeiaMessageViolation;
+import com.grookage.leia.models.schema.SchemaDetails;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+	Applies the ValidationPolicy of a producer to the transformed messages. Returns the violations that have to fail
+	the send, which are none in the SHADOW mode, where the validation is handed to a bounded executor instead. Once the
+	executor queue is full the messages are dropped from validation, never blocking the send. The same goes for the
+	shadow validations after stop, the executor isn't brought back up.
+ */
+@Slf4j
+public class MessageValidationStage {
+
+	private static final ValidationPolicy DEFAULT_POLICY = ValidationPolicy.builder().build();
+	private static final ValidationListener NO_OP_LISTENER = (schemaKey, message, violations) -> {
+	};
+
+	private final Supplier<ValidationPolicy> policySupplier;
+	private final Supplier<ValidationListener> listenerSupplier;
+	private final LongAdder validated = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+	private final LongAdder violated = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private volatile ThreadPoolExecutor shadowExecutor;
+	private boolean stopped;
+
+	public MessageValidationStage(Supplier<ValidationPolicy> policySupplier,
+	                              Supplier<ValidationListener> listenerSupplier) {
+		this.policySupplier = policySupplier;
+		this.listenerSupplier = listenerSupplier;
+	}
+
+	private ValidationPolicy getPolicy() {
+		return Objects.requireNonNullElse(policySupplier.get(), DEFAULT_POLICY);
+	}
+
+	private ValidationListener getListener() {
+		return Objects.requireNonNullElse(listenerSupplier.get(), NO_OP_LISTENER);
+	}
+
+	private static boolean sampled(double samplingRate) {
+		return samplingRate >= 1.0 || (samplingRate > 0.0 && ThreadLocalRandom.current().nextDouble() < samplingRate);
+	}
+
+	public List<LeiaMessageViolation> validate(LeiaMessageValidator validator,
+	                                           SchemaDetails targetSchema,
+	                                           JsonNode message) {
+		final var policy = getPolicy();
+		final var schemaKey = targetSchema.getSchemaKey();
+		if (!sampled(policy.getSamplingRate(schemaKey))) {
+			skipped.increment();
+			return List.of();
+		}
+		if (policy.getMode() != ValidationMode.SHADOW) {
+			final var violations = validator.validate(targetSchema, message);
+			validated.increment();
+			if (!violations.isEmpty()) {
+				violated.increment();
+				getListener().onViolations(schemaKey, message, violations);
+			}
+			return violations;
+		}
+		try {
+			getShadowExecutor(policy).execute(() -> validateQuietly(validator, targetSchema, message));
+		} catch (RejectedExecutionException e) {
+			dropped.increment();
+			getListener().onDropped(schemaKey, message);
+		}
+		return List.of();
+	}
+
+	private void validateQuietly(LeiaMessageValidator validator,
+	                             SchemaDetails targetSchema,
+	                             JsonNode message) {
+		final var schemaKey = targetSchema.getSchemaKey();
+		try {
+			final var violations = validator.validate(targetSchema, message);
+			validated.increment();
+			if (!violations.isEmpty()) {
+				violated.increment();
+				log.warn("Shadow validation failed for target schemaKey {} with errors {}", schemaKey, violations);
+				getListener().onViolations(schemaKey, message, violations);
+			}
+		} catch (Exception e) {
+			failed.increment();
+			log.error("Shadow validation errored for target schemaKey {}", schemaKey, e);
+			getListener().onFailure(schemaKey, message, e);
+		}
+	}
+
+	/*
+		The executor is created on the first shadow validation, sized off the policy at that point. Only the creation
+		takes the lock, the validations after it read the volatile field.
+	 */
+	private ThreadPoolExecutor getShadowExecutor(ValidationPolicy policy) {
+		final var executor = shadowExecutor;
+		if (null != executor) {
+			return executor;
+		}
+		synchronized (this) {
+			if (stopped) {
+				throw new RejectedExecutionException("The validation stage has been stopped");
+			}
+			if (null == shadowExecutor) {
+				shadowExecutor = newShadowExecutor(policy);
+			}
+			return shadowExecutor;
+		}
+	}
+
+	private static ThreadPoolExecutor newShadowExecutor(ValidationPolicy policy) {
+		final var threads = Math.max(1, policy.getShadowThreads());
+		final var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, policy.getShadowQueueSize())),
+				new ThreadFactoryBuilder()
+						.setNameFormat("leia-shadow-validation-%d")
+						.setDaemon(true)
+						.build(),
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public ValidationStats getStats() {
+		return ValidationStats.builder()
+				.validated(validated.sum())
+				.skipped(skipped.sum())
+				.violated(violated.sum())
+				.dropped(dropped.sum())
+				.failed(failed.sum())
+				.build();
+	}
+
+	public synchronized void stop() {
+		stopped = true;
+		if (null != shadowExecutor) {
+			shadowExecutor.shutdownNow();
+			shadowExecutor = null;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.validation;
+
+/*
+	How the producer validates a transformed message against its target schema
+	SYNC - every message is validated before it is sent, a violation fails the send
+	SAMPLED - a fraction of the messages are validated before they are sent, a violation fails the send
+	SHADOW - a fraction of the messages are validated off the send path, violations are only reported
+ */
+public enum ValidationMode {
+	SYNC,
+	SAMPLED,
+	SHADOW
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.validation;
+
+import com.grookage.leia.models.schema.SchemaKey;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValidationPolicy {
+
+	@Builder.Default
+	private ValidationMode mode = ValidationMode.SYNC;
+	/*
+		The fraction of messages validated in the SAMPLED and SHADOW modes, overridden per target schemaKey
+	 */
+	@Builder.Default
+	private double samplingRate = 1.0;
+	@Builder.Default
+	private Map<SchemaKey, Double> samplingRates = Map.of();
+	@Builder.Default
+	private int shadowThreads = 1;
+	@Builder.Default
+	private int shadowQueueSize = 1024;
+
+	public double getSamplingRate(SchemaKey schemaKey) {
+		if (mode == ValidationMode.SYNC) {
+			return 1.0;
+		}
+		final var rate = null == samplingRates || null == schemaKey ? null : samplingRates.get(schemaKey);
+		return null != rate ? rate : samplingRate;
+	}
+}
@@ -28,6 +28,8 @@ import com.grookage.leia.models.schema.SchemaDetails;
 import com.grookage.leia.models.schema.SchemaKey;
 import com.grookage.leia.models.schema.transformer.TransformationTarget;
 import com.grookage.leia.mux.DefaultMessageProcessor;
+import com.grookage.leia.mux.MessageProcessor;
+import com.grookage.leia.mux.executor.Deadline;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.grookage.leia.mux.executor.MessageExecutorFactory;
 import com.grookage.leia.mux.filter.BackendFilter;
@@ -47,6 +49,7 @@ import org.mockito.Mockito;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class LeiaMessageProduceClientTest {
 
@@ -196,6 +199,69 @@ class LeiaMessageProduceClientTest {
 		Assertions.assertEquals(1, messages.size());
 	}
 
+	@Test
+	void testBatchMessages() {
+		final var messageRequests = List.of("testUser", "otherUser").stream()
+				.map(userName -> MessageRequest.builder()
+						.schemaKey(sourceSchema)
+						.message(mapper.valueToTree(TestSchema.builder()
+								.userName(userName)
+								.schemaUnits(List.of(TestSchemaUnit.builder()
+										.registeredName("testRegisteredName").build()))
+								.build()))
+						.includeSource(true)
+						.build())
+				.toList();
+		final var messages = schemaClient.getMessages(messageRequests, null);
+		Assertions.assertEquals(4, messages.size());
+		Assertions.assertTrue(schemaClient.getMessages(List.of(), null).isEmpty());
+
+		final var invocations = new AtomicInteger();
+		schemaClient.processMessages(messageRequests, new DefaultMessageProcessor("Test", 10_000L, nameResolver, executorFactory) {
+			@Override
+			public void processMessages(List<LeiaMessage> messages, BackendFilter backendFilter) {
+				invocations.incrementAndGet();
+				Assertions.assertEquals(4, messages.size());
+				Assertions.assertEquals(2, messages.stream()
+						.filter(each -> each.getSchemaKey().equals(sourceSchema)).count());
+			}
+		}, null, null);
+		Assertions.assertEquals(1, invocations.get());
+
+		final var unknownRequest = MessageRequest.builder()
+				.schemaKey(SchemaKey.builder()
+						.namespace("testNamespace")
+						.schemaName("unknownSchema")
+						.version("v")
+						.orgId("testOrg")
+						.tenantId("tenantId")
+						.type("default")
+						.build())
+				.message(mapper.createObjectNode())
+				.build();
+		Assertions.assertThrows(UnsupportedOperationException.class,
+				() -> schemaClient.getMessages(List.of(unknownRequest), null));
+	}
+
+	@Test
+	void testRoutesInvalidatedOnRefresh() {
+		final var messageProcessor = Mockito.mock(MessageProcessor.class);
+		final var otherClient = LeiaMessageProduceClient.builder()
+				.mapper(new ObjectMapper())
+				.refresher(schemaClient.getRefresher())
+				.schemaValidator(schemaClient.getSchemaValidator())
+				.processorSupplier(() -> messageProcessor)
+				.build();
+		otherClient.start();
+		Mockito.verify(messageProcessor, Mockito.times(1)).invalidateRoutes();
+		/*
+			The refresher hands out a new list on every read, each refresh is a change
+		 */
+		otherClient.getSnapshotManager().refresh();
+		Mockito.verify(messageProcessor, Mockito.times(2)).invalidateRoutes();
+		otherClient.stop();
+	}
+
 	@Test
 	void testTargetCriteria() {
 		final var otherClient = LeiaMessageProduceClient.builder()
@@ -283,6 +349,6 @@ class LeiaMessageProduceClientTest {
 		schemaClient.processMessages(messageRequest,
 				new DefaultMessageProcessor("test", 10_000L, new TagBasedNameResolver(), executorFactory) {
 				}, null, backendName -> backendName.equals("TRANSFORMATION_BACKEND"));
-		Mockito.verify(httpExecutor, Mockito.times(1)).send(leiaMessages);
+		Mockito.verify(httpExecutor, Mockito.times(1)).execute(Mockito.eq(leiaMessages), Mockito.any(Deadline.class));
 	}
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.common.validation.NoOpLeiaMessageValidator;
+import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaIndexSupplier;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+class ClientSnapshotManagerTest {
+
+	@Test
+	@SneakyThrows
+	void testSnapshotRefresh() {
+		final var schemaDetails = ResourceHelper.getResource("schema/schemaDetails.json", SchemaDetails.class);
+		final var targetSchemaDetails = ResourceHelper.getResource("schema/targetSchemaDetails.json", SchemaDetails.class);
+		final var data = new AtomicReference<List<SchemaDetails>>(List.of(targetSchemaDetails));
+		final var snapshotManager = new ClientSnapshotManager(new SchemaIndexSupplier(data::get), schemaIndex -> ClientSnapshot.build(schemaIndex,
+				schemaKey -> true, new ObjectMapper(), new NoOpLeiaMessageValidator()));
+
+		final var snapshot = snapshotManager.get();
+		Assertions.assertTrue(snapshot.getSchema(targetSchemaDetails.getSchemaKey()).isPresent());
+		Assertions.assertTrue(snapshot.getSchema(schemaDetails.getSchemaKey()).isEmpty());
+		Assertions.assertSame(snapshot, snapshotManager.refresh());
+
+		data.set(List.of(schemaDetails, targetSchemaDetails));
+		final var refreshed = snapshotManager.refresh();
+		Assertions.assertNotSame(snapshot, refreshed);
+		Assertions.assertSame(refreshed, snapshotManager.get());
+		final var sourcePlan = refreshed.getSourcePlan(schemaDetails.getSchemaKey()).orElse(null);
+		Assertions.assertNotNull(sourcePlan);
+		Assertions.assertEquals(1, sourcePlan.getTransformationPlans().size());
+		Assertions.assertSame(targetSchemaDetails, sourcePlan.getTransformationPlans().get(0).getTargetSchema());
+	}
+}
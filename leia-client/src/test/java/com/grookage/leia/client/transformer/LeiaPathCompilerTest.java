@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class LeiaPathCompilerTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final Configuration configuration = Configuration.builder()
+			.jsonProvider(new JacksonJsonNodeJsonProvider())
+			.mappingProvider(new JacksonMappingProvider())
+			.build();
+
+	@Test
+	@SneakyThrows
+	void testEquivalenceWithJsonPath() {
+		final var message = mapper.readTree("""
+				{
+				    "userName": "testUser",
+				    "address": {"city": "Bangalore", "pin": 560001},
+				    "units": [{"name": "first", "tags": ["a", "b"]}, {"name": "second"}]
+				}
+				""");
+		final var documentContext = JsonPath.using(configuration).parse(message);
+		final var paths = List.of("$.userName", "$.address", "$.address.city", "$['address']['pin']",
+				"$[\"userName\"]", "$.units[0].name", "$.units[1]", "$.units[0].tags[1]", "$.units[0]['name']");
+		for (final var path : paths) {
+			final var leiaPath = LeiaPathCompiler.compile(path).orElse(null);
+			Assertions.assertNotNull(leiaPath, path);
+			final JsonNode expected = documentContext.read(path);
+			Assertions.assertEquals(expected, leiaPath.read(message), path);
+		}
+		for (final var path : List.of("$.missing", "$.address.street", "$.units[5].name", "$.userName.first")) {
+			final var leiaPath = LeiaPathCompiler.compile(path).orElse(null);
+			Assertions.assertNotNull(leiaPath, path);
+			Assertions.assertTrue(leiaPath.read(message).isMissingNode(), path);
+		}
+		Assertions.assertThrows(PathNotFoundException.class, () -> documentContext.read("$.address.street"));
+	}
+
+	@Test
+	void testUnsupportedPaths() {
+		for (final var path : List.of("userName", "$", "$..name", "$.units[*].name", "$.units[-1]", "$.units[0:1]",
+				"$.units[?(@.name)]", "$.user-name", "$.units.length()", "$['a\\'b']", "$.")) {
+			Assertions.assertTrue(LeiaPathCompiler.compile(path).isEmpty(), path);
+		}
+	}
+
+	@Test
+	void testCanonicalPrefix() {
+		final var dotted = LeiaPathCompiler.compile("$.units[0].name").orElseThrow();
+		final var bracketed = LeiaPathCompiler.compile("$['units'][0]['name']").orElseThrow();
+		Assertions.assertEquals(3, dotted.size());
+		Assertions.assertEquals(dotted.prefix(3), bracketed.prefix(3));
+		Assertions.assertEquals("$['units'][0]", dotted.prefix(2));
+		Assertions.assertNull(dotted.name(1));
+		Assertions.assertEquals(0, dotted.index(1));
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.client.MessageTransformerUtils;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.transformer.AttributeTransformer;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.SneakyThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+	A rough comparison of the jayway evaluation in MessageTransformerUtils against the compiled LeiaPathCompiler
+	chains of a TransformationPlan. Not a test, run the main method off the test classpath.
+ */
+public class PathEvaluationBenchmark {
+
+	private static final int WARMUP = 200_000;
+	private static final int ITERATIONS = 1_000_000;
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final Configuration configuration = Configuration.builder()
+			.jsonProvider(new JacksonJsonNodeJsonProvider())
+			.mappingProvider(new JacksonMappingProvider())
+			.build();
+
+	@SneakyThrows
+	public static void main(String[] args) {
+		final var message = mapper.readTree("""
+				{
+				    "userName": "testUser",
+				    "address": {"city": "Bangalore", "pin": 560001},
+				    "units": [{"name": "first"}, {"name": "second"}]
+				}
+				""");
+		final var transformationTarget = TransformationTarget.builder()
+				.schemaKey(SchemaKey.builder()
+						.namespace("testNamespace")
+						.schemaName("testSchema")
+						.version("v")
+						.orgId("testOrg")
+						.type("default")
+						.tenantId("tenantId")
+						.build())
+				.transformers(List.of(
+						new AttributeTransformer("name", "$.userName", false),
+						new AttributeTransformer("city", "$.address.city", false),
+						new AttributeTransformer("pin", "$.address.pin", false),
+						new AttributeTransformer("unit", "$.units[0].name", false)
+				))
+				.build();
+
+		final var compiledPaths = new HashMap<String, JsonPath>();
+		transformationTarget.getTransformers().forEach(transformer -> compiledPaths.put(transformer.getAttributeName(),
+				JsonPath.compile(transformer.getTransformationPath())));
+		final Function<JsonNode, JsonNode> jayway = source -> MessageTransformerUtils.transformMessage(
+				JsonPath.using(configuration).parse(source), transformationTarget, compiledPaths, mapper);
+
+		final var paths = PathMultiplexer.builder();
+		final var plan = TransformationPlan.compile(null, transformationTarget, null, mapper, paths, true);
+		final var multiplexer = paths.build();
+		final Function<JsonNode, JsonNode> compiled = source -> plan.transform(multiplexer.evaluate(source));
+
+		if (!jayway.apply(message).equals(compiled.apply(message))) {
+			throw new IllegalStateException("The evaluators disagree");
+		}
+		run("jayway", jayway, message);
+		run("compiled", compiled, message);
+	}
+
+	private static void run(String name, Function<JsonNode, JsonNode> evaluator, JsonNode message) {
+		var sink = 0;
+		for (var i = 0; i < WARMUP; i++) {
+			sink += evaluator.apply(message).size();
+		}
+		final var start = System.nanoTime();
+		for (var i = 0; i < ITERATIONS; i++) {
+			sink += evaluator.apply(message).size();
+		}
+		final var elapsed = System.nanoTime() - start;
+		System.out.printf("%-10s %8.1f ns/op (sink %d)%n", name, (double) elapsed / ITERATIONS, sink);
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.PathNotFoundException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PathMultiplexerTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	@SneakyThrows
+	void testPathMultiplexer() {
+		final var builder = PathMultiplexer.builder();
+		final var city = builder.register("$.user.address.city");
+		final var pin = builder.register("$.user.address.pin");
+		final var firstUnit = builder.register("$.units[0].name");
+		final var missing = builder.register("$.user.phone");
+		Assertions.assertEquals(city, builder.register("$.user.address.city"));
+		final var multiplexer = builder.build();
+		Assertions.assertEquals(4, multiplexer.size());
+
+		final var message = mapper.readTree("""
+				{"user": {"address": {"city": "Bangalore", "pin": 560001}}, "units": [{"name": "first"}]}
+				""");
+		final var evaluation = multiplexer.evaluate(message);
+		Assertions.assertEquals("Bangalore", evaluation.read(city).asText());
+		Assertions.assertEquals(560001, evaluation.read(pin).asInt());
+		Assertions.assertEquals("first", evaluation.read(firstUnit).asText());
+		Assertions.assertSame(evaluation.read(city), evaluation.read(city));
+		Assertions.assertThrows(PathNotFoundException.class, () -> evaluation.read(missing));
+	}
+}
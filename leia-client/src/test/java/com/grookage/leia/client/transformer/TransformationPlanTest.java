@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.transformer.AttributeTransformer;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class TransformationPlanTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	@SneakyThrows
+	void testTransformationPlan() {
+		final var targetSchema = ResourceHelper.getResource("schema/targetSchemaDetails.json", SchemaDetails.class);
+		final var transformationTarget = TransformationTarget.builder()
+				.schemaKey(targetSchema.getSchemaKey())
+				.transformers(List.of(
+						new AttributeTransformer("name", "$.userName", false),
+						new AttributeTransformer("officialName", "~TestName", false),
+						new AttributeTransformer("units", "$.units", true)
+				))
+				.tags(List.of("backend-TRANSFORMATION_BACKEND"))
+				.build();
+		final var paths = PathMultiplexer.builder();
+		final var plan = TransformationPlan.compile(null, transformationTarget, targetSchema, mapper, paths, true);
+		Assertions.assertEquals(3, plan.getSlots().length);
+		Assertions.assertEquals(Set.of("backend-TRANSFORMATION_BACKEND", "backend-BACKEND"), plan.getTags());
+
+		final var message = mapper.valueToTree(Map.of("userName", "testUser", "units", List.of(1, 2)));
+		final var transformed = plan.transform(paths.build().evaluate(message));
+		Assertions.assertEquals("testUser", transformed.get("name").asText());
+		Assertions.assertEquals("TestName", transformed.get("officialName").asText());
+		Assertions.assertEquals("[1,2]", transformed.get("units").asText());
+
+		final var literalPlan = TransformationPlan.compile(null, transformationTarget, targetSchema, mapper,
+				PathMultiplexer.builder(), false);
+		Assertions.assertEquals(1, literalPlan.getSlots().length);
+		Assertions.assertEquals("officialName", literalPlan.getSlots()[0].getAttributeName());
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.transformer;
+
+import com.grookage.leia.models.attributes.*;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.SchemaValidationType;
+import com.grookage.leia.models.schema.transformer.AttributeTransformer;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+class TransformationTypeCheckerTest {
+
+	private static final SchemaKey TARGET_KEY = SchemaKey.builder()
+			.namespace("testNamespace")
+			.schemaName("targetSchema")
+			.version("v")
+			.orgId("testOrg")
+			.type("default")
+			.tenantId("tenantId")
+			.build();
+	private static final SchemaDetails SOURCE_SCHEMA = SchemaDetails.builder()
+			.schemaKey(SchemaKey.builder()
+					.namespace("testNamespace")
+					.schemaName("sourceSchema")
+					.version("v")
+					.orgId("testOrg")
+					.type("default")
+					.tenantId("tenantId")
+					.build())
+			.validationType(SchemaValidationType.STRICT)
+			.attributes(Set.of(
+					new StringAttribute("userName", false, null),
+					new IntegerAttribute("age", false, null),
+					new DoubleAttribute("score", false, null),
+					new StringAttribute("nickName", true, null),
+					new ObjectAttribute("address", false, null, Set.of(
+							new StringAttribute("city", false, null),
+							new IntegerAttribute("pin", true, null)
+					))
+			))
+			.build();
+
+	private static SchemaDetails targetSchema(Set<SchemaAttribute> attributes) {
+		return SchemaDetails.builder()
+				.schemaKey(TARGET_KEY)
+				.validationType(SchemaValidationType.STRICT)
+				.attributes(attributes)
+				.build();
+	}
+
+	private static TransformationTarget target(AttributeTransformer... transformers) {
+		return TransformationTarget.builder()
+				.schemaKey(TARGET_KEY)
+				.transformers(List.of(transformers))
+				.build();
+	}
+
+	@Test
+	void testTypeSafeTarget() {
+		final var targetSchema = targetSchema(Set.of(
+				new StringAttribute("name", false, null),
+				new LongAttribute("age", false, null),
+				new EnumAttribute("kind", false, null, Set.of("USER", "ADMIN")),
+				new StringAttribute("nickName", true, null),
+				new StringAttribute("city", false, null),
+				new ObjectAttribute("address", false, null, Set.of(
+						new StringAttribute("city", false, null),
+						new LongAttribute("pin", true, null)
+				))
+		));
+		final var target = target(
+				new AttributeTransformer("name", "$.userName", false),
+				new AttributeTransformer("age", "$.age", false),
+				new AttributeTransformer("kind", "~USER", false),
+				new AttributeTransformer("nickName", "$.nickName", false),
+				new AttributeTransformer("city", "$.address.city", false),
+				new AttributeTransformer("address", "$.address", false)
+		);
+		Assertions.assertTrue(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target, targetSchema));
+	}
+
+	@Test
+	void testUnsafeTargets() {
+		final var targetSchema = targetSchema(Set.of(
+				new StringAttribute("name", false, null),
+				new IntegerAttribute("score", true, null)
+		));
+		/*
+			A double doesn't fit into an integer
+		 */
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+				new AttributeTransformer("name", "$.userName", false),
+				new AttributeTransformer("score", "$.score", false)), targetSchema));
+		/*
+			An optional source can be null, the target is required
+		 */
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+				new AttributeTransformer("name", "$.nickName", false)), targetSchema));
+		/*
+			A required target attribute without a transformer, and an unknown attribute for a strict target
+		 */
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+				new AttributeTransformer("score", "$.age", false)), targetSchema));
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+				new AttributeTransformer("name", "$.userName", false),
+				new AttributeTransformer("extra", "$.userName", false)), targetSchema));
+		/*
+			Paths LeiaPathCompiler doesn't compile, and literals not in an enum, are not proven
+		 */
+		Assertions.assertTrue(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+				new AttributeTransformer("name", "$['userName']", false)), targetSchema));
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+				new AttributeTransformer("name", "$..userName", false)), targetSchema));
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+						new AttributeTransformer("kind", "~GUEST", false)),
+				targetSchema(Set.of(new EnumAttribute("kind", false, null, Set.of("USER", "ADMIN"))))));
+		/*
+			An optional nested attribute makes the path nullable
+		 */
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+						new AttributeTransformer("pin", "$.address.pin", false)),
+				targetSchema(Set.of(new IntegerAttribute("pin", false, null)))));
+	}
+
+	@Test
+	void testNullableSourceIntoRequiredRawObject() {
+		/*
+			The nested object is copied as is, an optional pin is then missing from a required raw object
+		 */
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+						new AttributeTransformer("address", "$.address", false)),
+				targetSchema(Set.of(new ObjectAttribute("address", false, null, Set.of(
+						new StringAttribute("city", false, null),
+						new ObjectAttribute("pin", false, null, null)
+				))))));
+		Assertions.assertFalse(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+						new AttributeTransformer("nickName", "$.nickName", false)),
+				targetSchema(Set.of(new ObjectAttribute("nickName", false, null, null)))));
+		/*
+			An optional raw object still accepts anything
+		 */
+		Assertions.assertTrue(TransformationTypeChecker.isTypeSafe(SOURCE_SCHEMA, target(
+						new AttributeTransformer("address", "$.address", false)),
+				targetSchema(Set.of(new ObjectAttribute("address", false, null, Set.of(
+						new StringAttribute("city", false, null),
+						new ObjectAttribute("pin", true, null, null)
+				))))));
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.common.validation.LeiaMessageValidator;
+import com.grookage.leia.common.violation.LeiaMessageViolation;
+import com.grookage.leia.common.violation.LeiaMessageViolationImpl;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaKey;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class MessageValidationStageTest {
+
+	private static final SchemaKey SCHEMA_KEY = SchemaKey.builder()
+			.namespace("testNamespace")
+			.schemaName("testSchema")
+			.version("v")
+			.orgId("testOrg")
+			.type("default")
+			.tenantId("tenantId")
+			.build();
+	private static final SchemaDetails SCHEMA_DETAILS = SchemaDetails.builder()
+			.schemaKey(SCHEMA_KEY)
+			.build();
+	private static final JsonNode MESSAGE = new ObjectMapper().createObjectNode().put("name", "leia");
+	private static final List<LeiaMessageViolation> VIOLATIONS = List.of(LeiaMessageViolationImpl.builder()
+			.message("Missing required field: age")
+			.fieldPath("age")
+			.schemaKey(SCHEMA_KEY)
+			.build());
+	private static final LeiaMessageValidator FAILING_VALIDATOR = (schemaDetails, message) -> VIOLATIONS;
+
+	@Test
+	void testSyncValidation() {
+		final var listened = new AtomicInteger();
+		final var stage = new MessageValidationStage(() -> null,
+				() -> (schemaKey, message, violations) -> listened.incrementAndGet());
+		Assertions.assertEquals(VIOLATIONS, stage.validate(FAILING_VALIDATOR, SCHEMA_DETAILS, MESSAGE));
+		Assertions.assertEquals(1, listened.get());
+		Assertions.assertEquals(1, stage.getStats().getValidated());
+		Assertions.assertEquals(1, stage.getStats().getViolated());
+	}
+
+	@Test
+	void testSampledValidation() {
+		final var policy = ValidationPolicy.builder()
+				.mode(ValidationMode.SAMPLED)
+				.samplingRate(1.0)
+				.samplingRates(Map.of(SCHEMA_KEY, 0.0))
+				.build();
+		final var stage = new MessageValidationStage(() -> policy, () -> null);
+		for (var i = 0; i < 10; i++) {
+			Assertions.assertTrue(stage.validate(FAILING_VALIDATOR, SCHEMA_DETAILS, MESSAGE).isEmpty());
+		}
+		Assertions.assertEquals(10, stage.getStats().getSkipped());
+		Assertions.assertEquals(0, stage.getStats().getValidated());
+		policy.setSamplingRates(Map.of());
+		Assertions.assertEquals(VIOLATIONS, stage.validate(FAILING_VALIDATOR, SCHEMA_DETAILS, MESSAGE));
+	}
+
+	@Test
+	@SneakyThrows
+	void testShadowValidation() {
+		final var policy = ValidationPolicy.builder()
+				.mode(ValidationMode.SHADOW)
+				.shadowThreads(1)
+				.shadowQueueSize(1)
+				.build();
+		final var violated = new CountDownLatch(1);
+		final var dropped = new AtomicInteger();
+		final var stage = new MessageValidationStage(() -> policy, () -> new ValidationListener() {
+			@Override
+			public void onViolations(SchemaKey schemaKey, JsonNode message, List<LeiaMessageViolation> violations) {
+				violated.countDown();
+			}
+
+			@Override
+			public void onDropped(SchemaKey schemaKey, JsonNode message) {
+				dropped.incrementAndGet();
+			}
+		});
+		Assertions.assertTrue(stage.validate(FAILING_VALIDATOR, SCHEMA_DETAILS, MESSAGE).isEmpty());
+		Assertions.assertTrue(violated.await(5, TimeUnit.SECONDS));
+
+		/*
+			Holds the only validation thread, with the queue of one filled up the next message is dropped
+		 */
+		final var release = new CountDownLatch(1);
+		final var started = new CountDownLatch(1);
+		final LeiaMessageValidator blockingValidator = (schemaDetails, message) -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return List.of();
+		};
+		stage.validate(blockingValidator, SCHEMA_DETAILS, MESSAGE);
+		Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+		stage.validate(blockingValidator, SCHEMA_DETAILS, MESSAGE);
+		stage.validate(blockingValidator, SCHEMA_DETAILS, MESSAGE);
+		Assertions.assertEquals(1, dropped.get());
+		Assertions.assertEquals(1, stage.getStats().getDropped());
+		release.countDown();
+		stage.stop();
+
+		/*
+			A stopped stage doesn't bring its executor back, the shadow validations are dropped
+		 */
+		Assertions.assertTrue(stage.validate(FAILING_VALIDATOR, SCHEMA_DETAILS, MESSAGE).isEmpty());
+		Assertions.assertEquals(2, dropped.get());
+		Assertions.assertEquals(2, stage.getStats().getDropped());
+	}
+}
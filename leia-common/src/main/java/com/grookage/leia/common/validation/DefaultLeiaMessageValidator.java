@@ -16,276 +16,105 @@
 
 package com.grookage.leia.common.validation;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.grookage.leia.common.violation.LeiaMessageViolation;
 import com.grookage.leia.common.violation.LeiaMessageViolationImpl;
-import com.grookage.leia.models.attributes.*;
 import com.grookage.leia.models.schema.SchemaDetails;
-import com.grookage.leia.models.schema.SchemaValidationType;
+import com.grookage.leia.models.schema.SchemaKey;
 import com.grookage.leia.models.utils.MapperUtils;
+import lombok.SneakyThrows;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultLeiaMessageValidator implements LeiaMessageValidator {
 
-	@Override
-	public List<LeiaMessageViolation> validate(final SchemaDetails schemaDetails, final JsonNode message) {
-		return validateInternal(message, schemaDetails.getValidationType(),
-				schemaDetails.getAttributes(), "")
-				.stream()
-				.map(error -> LeiaMessageViolationImpl.builder()
-						.message(error.getMessage())
-						.fieldPath(error.getFieldPath())
-						.schemaKey(schemaDetails.getSchemaKey())
-						.build())
-				.collect(Collectors.toList());
-	}
-
-	private List<ValidationError> validateInternal(final JsonNode jsonNode,
-	                                               final SchemaValidationType validationType,
-	                                               final Set<SchemaAttribute> schemaAttributes,
-	                                               final String currentPath) {
-		final List<ValidationError> validationErrors = new ArrayList<>();
-		final var schemaMap = schemaAttributes.stream()
-				.collect(Collectors.toMap(SchemaAttribute::getName, attribute -> attribute, (a, b) -> b));
-
-		// Validate extra fields in case of Strict Validation
-		if (validationType == SchemaValidationType.STRICT) {
-			jsonNode.fieldNames().forEachRemaining(fieldName -> {
-				if (!schemaMap.containsKey(fieldName)) {
-					validationErrors.add(new ValidationError(
-							"Unexpected field: " + fieldName,
-							buildPath(currentPath, fieldName)));
-				}
-			});
-		}
-
-		// Validate missing and type mismatched fields
-		schemaAttributes.forEach(attribute -> {
-			final var fieldName = attribute.getName();
-			final var fieldPath = buildPath(currentPath, fieldName);
+	private final ConcurrentHashMap<SchemaKey, ValidationProgram> programs = new ConcurrentHashMap<>();
+	private final int maxViolations;
 
-			if (jsonNode.isObject() && !jsonNode.has(fieldName)) {
-				if (!attribute.isOptional()) {
-					validationErrors.add(new ValidationError(
-							"Missing required field: " + fieldName,
-							fieldPath));
-				}
-				return;
-			}
-
-			if (jsonNode.isValueNode()) {
-				validationErrors.addAll(validateField(jsonNode, attribute, validationType, currentPath));
-				return;
-			}
-
-			final var fieldNode = jsonNode.get(fieldName);
-			validationErrors.addAll(validateField(fieldNode, attribute, validationType, fieldPath));
-		});
-
-		return validationErrors;
+	public DefaultLeiaMessageValidator() {
+		this(ValidationProgram.UNLIMITED);
 	}
 
-	private List<ValidationError> validateField(final JsonNode fieldNode,
-	                                            final SchemaAttribute attribute,
-	                                            final SchemaValidationType validationType,
-	                                            final String fieldPath) {
-		if(attribute.isOptional() && fieldNode.isNull()) {
-			return List.of();
-		}
-
-		final List<ValidationError> validationErrors = new ArrayList<>();
-		final var fieldName = attribute.getName();
-		if (!isMatchingType(fieldNode, attribute)) {
-			validationErrors.add(new ValidationError(
-					"Type mismatch for field: " + fieldName +
-							". Expected: " + attribute.getType() +
-							", Found: " + fieldNode.getNodeType(),
-					fieldPath));
-			return validationErrors;
-		}
-
-		// Recursively validate nested objects
-		if (attribute instanceof ObjectAttribute objectAttribute) {
-			if (objectAttribute.getNestedAttributes() != null) {
-				validationErrors.addAll(validateInternal(fieldNode, validationType,
-						objectAttribute.getNestedAttributes(), fieldPath));
-			}
-		} else if (attribute instanceof ArrayAttribute arrayAttribute) {
-			validationErrors.addAll(validateCollectionAttribute(fieldNode, arrayAttribute,
-					validationType, fieldPath));
-		} else if (attribute instanceof MapAttribute mapAttribute) {
-			validationErrors.addAll(validateMapAttribute(fieldNode, mapAttribute,
-					validationType, fieldPath));
-		}
-
-		return validationErrors;
+	/*
+		Fails fast, the validation of a message stops once maxViolations violations are found
+	 */
+	public DefaultLeiaMessageValidator(final int maxViolations) {
+		this.maxViolations = maxViolations;
 	}
 
-	private List<ValidationError> validateCollectionAttribute(final JsonNode fieldNode,
-	                                                          final ArrayAttribute arrayAttribute,
-	                                                          final SchemaValidationType schemaValidationType,
-	                                                          final String fieldPath) {
-		final List<ValidationError> validationErrors = new ArrayList<>();
-
-		// Handling Non-Parameterized Collections
-		if (arrayAttribute.getElementAttribute() == null) {
-			return validationErrors;
-		}
+	@Override
+	public List<LeiaMessageViolation> validate(final SchemaDetails schemaDetails, final JsonNode message) {
+		return getProgram(schemaDetails).validate(message, maxViolations);
+	}
 
-		int index = 0;
-		for (JsonNode arrayElement : fieldNode) {
-			final var elementPath = fieldPath + "[" + index + "]";
-			validationErrors.addAll(validateField(arrayElement, arrayAttribute.getElementAttribute(),
-					schemaValidationType, elementPath));
-			index++;
-		}
+	/*
+		Validates the raw payload bytes token by token, without building a JsonNode tree for it. A malformed
+		payload is reported as a single violation.
+	 */
+	public List<LeiaMessageViolation> validate(final SchemaDetails schemaDetails, final byte[] payload) {
+		return validate(schemaDetails, () -> MapperUtils.mapper().getFactory().createParser(payload), maxViolations);
+	}
 
-		return validationErrors;
+	public List<LeiaMessageViolation> validate(final SchemaDetails schemaDetails, final InputStream payload) {
+		return validate(schemaDetails, () -> MapperUtils.mapper().getFactory().createParser(payload), maxViolations);
 	}
 
-	private List<ValidationError> validateMapAttribute(final JsonNode fieldNode,
-	                                                   final MapAttribute mapAttribute,
-	                                                   final SchemaValidationType schemaValidationType,
-	                                                   final String fieldPath) {
-		final List<ValidationError> validationErrors = new ArrayList<>();
+	/*
+		A pass or fail answer, the validation stops at the first violation found
+	 */
+	public boolean isValid(final SchemaDetails schemaDetails, final byte[] payload) {
+		return validate(schemaDetails, () -> MapperUtils.mapper().getFactory().createParser(payload), 1).isEmpty();
+	}
 
-		// Handling Raw Map.class
-		if (Objects.isNull(mapAttribute.getKeyAttribute()) && Objects.isNull(mapAttribute.getValueAttribute())) {
-			return validationErrors;
+	@SneakyThrows
+	private List<LeiaMessageViolation> validate(final SchemaDetails schemaDetails,
+	                                            final ParserSupplier parserSupplier,
+	                                            final int limit) {
+		final var program = getProgram(schemaDetails);
+		try (final var parser = parserSupplier.get()) {
+			return program.validate(parser, limit);
+		} catch (JsonProcessingException e) {
+			return List.of(LeiaMessageViolationImpl.builder()
+					.message("Malformed payload: " + e.getOriginalMessage())
+					.fieldPath("")
+					.schemaKey(schemaDetails.getSchemaKey())
+					.build());
 		}
-
-		fieldNode.fields().forEachRemaining(entry -> {
-			final var keyNode = entry.getKey() != null
-					? MapperUtils.mapper().convertValue(entry.getKey(), JsonNode.class)
-					: null;
-			if (Objects.nonNull(keyNode)) {
-				final var entryPath = fieldPath + "['" + entry.getKey() + "']";
-				// validate Key
-				validationErrors.addAll(validateField(keyNode, mapAttribute.getKeyAttribute(),
-						schemaValidationType, entryPath + ".key"));
-				// Validate value
-				validationErrors.addAll(validateField(entry.getValue(), mapAttribute.getValueAttribute(),
-						schemaValidationType, entryPath + ".value"));
-			} else {
-				validationErrors.add(new ValidationError(
-						"Key not present for map attribute field: " + mapAttribute.getName(),
-						fieldPath));
-			}
-		});
-
-		return validationErrors;
 	}
 
-	private String buildPath(String currentPath, String fieldName) {
-		if (currentPath == null || currentPath.isEmpty()) {
-			return fieldName;
+	/*
+		Programs are cached against the schemaKey. A refresh hands out new SchemaDetails instances, so a program is
+		recompiled whenever the details it was compiled from are not the ones being validated against.
+	 */
+	public ValidationProgram getProgram(final SchemaDetails schemaDetails) {
+		final var schemaKey = schemaDetails.getSchemaKey();
+		if (null == schemaKey) {
+			return ValidationProgram.compile(schemaDetails);
 		}
-		return currentPath + "." + fieldName;
+		final var program = programs.get(schemaKey);
+		if (null != program && program.isCompiledFrom(schemaDetails)) {
+			return program;
+		}
+		final var compiled = ValidationProgram.compile(schemaDetails);
+		programs.put(schemaKey, compiled);
+		return compiled;
 	}
 
-	private boolean isMatchingType(final JsonNode fieldNode,
-	                               final SchemaAttribute attribute) {
-		return attribute.accept(new SchemaAttributeAcceptor<>() {
-			@Override
-			public Boolean accept(BooleanAttribute attribute) {
-				return fieldNode.isBoolean();
-			}
-
-			@Override
-			public Boolean accept(ByteAttribute attribute) {
-				return fieldNode.isArray();
-			}
-
-			@Override
-			public Boolean accept(CharacterAttribute attribute) {
-				// A CharacterAttribute must be a single character, not a full string
-				return fieldNode.isTextual() && fieldNode.asText().length() == 1;
-			}
-
-			@Override
-			public Boolean accept(DoubleAttribute attribute) {
-				return fieldNode.isDouble() || fieldNode.isFloat() || fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(EnumAttribute attribute) {
-				return fieldNode.isTextual() && attribute.getValues().contains(fieldNode.asText());
-			}
-
-			@Override
-			public Boolean accept(FloatAttribute attribute) {
-				return fieldNode.isFloat();
-			}
-
-			@Override
-			public Boolean accept(IntegerAttribute attribute) {
-				return fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(LongAttribute attribute) {
-				return fieldNode.isLong() || fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(ShortAttribute attribute) {
-				return fieldNode.isShort() || fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(StringAttribute attribute) {
-				return fieldNode.isTextual();
-			}
-
-			@Override
-			public Boolean accept(DateAttribute attribute) {
-				return fieldNode.isTextual() || fieldNode.isLong() || fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(ArrayAttribute attribute) {
-				return fieldNode.isArray();
-			}
-
-			@Override
-			public Boolean accept(MapAttribute attribute) {
-				return fieldNode.isObject();
-			}
-
-			@Override
-			public Boolean accept(ObjectAttribute attribute) {
-				// Handling Object.class
-				if (attribute.getNestedAttributes() == null) {
-					return true;
-				}
-				return fieldNode.isObject();
-			}
-		});
+	public void invalidate(final SchemaKey schemaKey) {
+		programs.remove(schemaKey);
 	}
 
-	/**
-	 * Internal class to track validation errors with field paths
-	 */
-	private static class ValidationError {
-		private final String message;
-		private final String fieldPath;
-
-		public ValidationError(String message, String fieldPath) {
-			this.message = message;
-			this.fieldPath = fieldPath;
-		}
-
-		public String getMessage() {
-			return message;
-		}
+	public void invalidateAll() {
+		programs.clear();
+	}
 
-		public String getFieldPath() {
-			return fieldPath;
-		}
+	@FunctionalInterface
+	private interface ParserSupplier {
+		JsonParser get() throws IOException;
 	}
 }
@@ -17,196 +17,276 @@
 package com.grookage.leia.common.validation;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.grookage.leia.models.attributes.*;
 import com.grookage.leia.models.schema.SchemaValidationType;
-import com.grookage.leia.models.utils.MapperUtils;
 import lombok.experimental.UtilityClass;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+/*
+	The error list is threaded through the recursion and is allocated only when the first error is found, so that a
+	valid payload doesn't allocate any intermediate lists.
+ */
 @UtilityClass
 public class SchemaPayloadValidator {
+
+	public static final int UNLIMITED = 0;
+
 	public static List<String> validate(final JsonNode jsonNode,
 	                                    final SchemaValidationType validationType,
 	                                    final Set<SchemaAttribute> schemaAttributes) {
-		final List<String> validationErrors = new ArrayList<>();
-		final var schemaMap = schemaAttributes.stream()
-				.collect(Collectors.toMap(SchemaAttribute::getName, attribute -> attribute, (a, b) -> b));
+		return validate(jsonNode, validationType, schemaAttributes, UNLIMITED);
+	}
 
+	/*
+		Stops at the first maxErrors errors, zero or less validates the whole payload
+	 */
+	public static List<String> validate(final JsonNode jsonNode,
+	                                    final SchemaValidationType validationType,
+	                                    final Set<SchemaAttribute> schemaAttributes,
+	                                    final int maxErrors) {
+		final var validationErrors = validateObject(jsonNode, validationType, schemaAttributes, null, maxErrors);
+		return null == validationErrors ? List.of() : validationErrors;
+	}
+
+	private List<String> validateObject(final JsonNode jsonNode,
+	                                    final SchemaValidationType validationType,
+	                                    final Set<SchemaAttribute> schemaAttributes,
+	                                    final List<String> errors,
+	                                    final int maxErrors) {
+		var validationErrors = errors;
 		// Validate extra fields in case of Strict Validation
-		if (validationType == SchemaValidationType.STRICT) {
-			jsonNode.fieldNames().forEachRemaining(fieldName -> {
-				if (!schemaMap.containsKey(fieldName)) {
-					validationErrors.add("Unexpected field: " + fieldName);
+		if (validationType == SchemaValidationType.STRICT && hasUnknownFields(jsonNode, schemaAttributes)) {
+			final var fieldNames = jsonNode.fieldNames();
+			while (fieldNames.hasNext() && !isDone(validationErrors, maxErrors)) {
+				final var fieldName = fieldNames.next();
+				if (!isKnownField(fieldName, schemaAttributes)) {
+					validationErrors = addError(validationErrors, "Unexpected field: " + fieldName);
 				}
-			});
+			}
 		}
 
 		// Validate missing and type mismatched fields
 		// Check the attribute only if the jsonNode is an object
-		schemaAttributes.forEach(attribute -> {
+		for (final var attribute : schemaAttributes) {
+			if (isDone(validationErrors, maxErrors)) {
+				return validationErrors;
+			}
 			final var fieldName = attribute.getName();
 			if (jsonNode.isObject() && !jsonNode.has(fieldName)) {
 				if (!attribute.isOptional()) {
-					validationErrors.add("Missing required field: " + fieldName);
+					validationErrors = addError(validationErrors, "Missing required field: " + fieldName);
 				}
-				return;
+				continue;
 			}
-			if (jsonNode.isValueNode()) {
-				validateField(jsonNode, attribute, validationType, validationErrors);
-				return;
+			final var fieldNode = jsonNode.isValueNode() ? jsonNode : jsonNode.get(fieldName);
+			validationErrors = validateField(fieldNode, attribute, validationType, validationErrors, maxErrors);
+		}
+		return validationErrors;
+	}
+
+	/*
+		A cheap pre-check, an object can only have an unknown field if it has more fields than the schema knows of.
+		Attributes can share a name, a present name is counted only for the first attribute carrying it so that the
+		check doesn't allocate.
+	 */
+	private boolean hasUnknownFields(final JsonNode jsonNode,
+	                                 final Set<SchemaAttribute> schemaAttributes) {
+		if (!jsonNode.isObject()) {
+			return false;
+		}
+		var knownFields = 0;
+		for (final var attribute : schemaAttributes) {
+			if (jsonNode.has(attribute.getName()) && isFirstNamed(attribute, schemaAttributes)) {
+				knownFields++;
 			}
-			final var fieldNode = jsonNode.get(fieldName);
-			validateField(fieldNode, attribute, validationType, validationErrors);
-		});
+		}
+		return jsonNode.size() > knownFields;
+	}
 
-		return validationErrors;
+	private boolean isFirstNamed(final SchemaAttribute attribute,
+	                             final Set<SchemaAttribute> schemaAttributes) {
+		for (final var each : schemaAttributes) {
+			if (each == attribute) {
+				return true;
+			}
+			if (Objects.equals(each.getName(), attribute.getName())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isKnownField(final String fieldName,
+	                             final Set<SchemaAttribute> schemaAttributes) {
+		for (final var attribute : schemaAttributes) {
+			if (Objects.equals(fieldName, attribute.getName())) {
+				return true;
+			}
+		}
+		return false;
 	}
 
-	private void validateField(final JsonNode fieldNode,
-	                           final SchemaAttribute attribute,
-	                           final SchemaValidationType validationType,
-	                           final List<String> validationErrors) {
-		final var fieldName = attribute.getName();
+	private List<String> validateField(final JsonNode fieldNode,
+	                                   final SchemaAttribute attribute,
+	                                   final SchemaValidationType validationType,
+	                                   final List<String> errors,
+	                                   final int maxErrors) {
 		if (!isMatchingType(fieldNode, attribute)) {
-			validationErrors.add("Type mismatch for field: " + fieldName +
-					". Expected: " + attribute.getType() +
-					", Found: " + fieldNode.getNodeType());
-			return;
+			return addError(errors, typeMismatch(attribute, fieldNode.getNodeType()));
 		}
 
 		// Recursively validate nested objects
 		if (attribute instanceof ObjectAttribute objectAttribute) {
 			if (objectAttribute.getNestedAttributes() != null) {
-				validationErrors.addAll(validate(fieldNode, validationType, objectAttribute.getNestedAttributes()));
+				return validateObject(fieldNode, validationType, objectAttribute.getNestedAttributes(), errors, maxErrors);
 			}
 		} else if (attribute instanceof ArrayAttribute arrayAttribute) {
-			validateCollectionAttribute(fieldNode, arrayAttribute, validationType, validationErrors);
+			return validateCollectionAttribute(fieldNode, arrayAttribute, validationType, errors, maxErrors);
 		} else if (attribute instanceof MapAttribute mapAttribute) {
-			validateMapAttribute(fieldNode, mapAttribute, validationType, validationErrors);
+			return validateMapAttribute(fieldNode, mapAttribute, validationType, errors, maxErrors);
 		}
+		return errors;
 	}
 
-	private void validateCollectionAttribute(final JsonNode fieldNode,
-	                                         final ArrayAttribute arrayAttribute,
-	                                         final SchemaValidationType schemaValidationType,
-	                                         final List<String> validationErrors) {
+	private List<String> validateCollectionAttribute(final JsonNode fieldNode,
+	                                                 final ArrayAttribute arrayAttribute,
+	                                                 final SchemaValidationType schemaValidationType,
+	                                                 final List<String> errors,
+	                                                 final int maxErrors) {
 		// Handling Non-Parameterized Collections (eg: List.class, Set.class, Map.class etc.)
 		if (arrayAttribute.getElementAttribute() == null) {
-			return;
+			return errors;
 		}
-
-		for (JsonNode arrayElement : fieldNode) {
-			validateField(arrayElement, arrayAttribute.getElementAttribute(), schemaValidationType, validationErrors);
+		var validationErrors = errors;
+		for (var index = 0; index < fieldNode.size() && !isDone(validationErrors, maxErrors); index++) {
+			validationErrors = validateField(fieldNode.get(index), arrayAttribute.getElementAttribute(),
+					schemaValidationType, validationErrors, maxErrors);
 		}
+		return validationErrors;
 	}
 
-	private void validateMapAttribute(final JsonNode fieldNode,
-	                                  final MapAttribute mapAttribute,
-	                                  final SchemaValidationType schemaValidationType,
-	                                  final List<String> validationErrors) {
+	private List<String> validateMapAttribute(final JsonNode fieldNode,
+	                                          final MapAttribute mapAttribute,
+	                                          final SchemaValidationType schemaValidationType,
+	                                          final List<String> errors,
+	                                          final int maxErrors) {
 		// Handling Raw Map.class
 		if (Objects.isNull(mapAttribute.getKeyAttribute()) && Objects.isNull(mapAttribute.getValueAttribute())) {
-			return;
-		}
-		fieldNode.fields().forEachRemaining(entry -> {
-			final var keyNode = entry.getKey() != null
-					? MapperUtils.mapper().convertValue(entry.getKey(), JsonNode.class)
-					: null;
-			if (Objects.nonNull(keyNode)) {
-				// validate Key
-				validateField(keyNode, mapAttribute.getKeyAttribute(), schemaValidationType, validationErrors);
-				// Validate value
-				validateField(entry.getValue(), mapAttribute.getValueAttribute(), schemaValidationType, validationErrors);
-			} else {
-				validationErrors.add("Key Not present for map attribute field:" +
+			return errors;
+		}
+		var validationErrors = errors;
+		final var entries = fieldNode.fields();
+		while (entries.hasNext() && !isDone(validationErrors, maxErrors)) {
+			final var entry = entries.next();
+			if (null == entry.getKey()) {
+				validationErrors = addError(validationErrors, "Key Not present for map attribute field:" +
 						mapAttribute.getName());
+				continue;
 			}
-		});
-
-	}
-
-	private boolean isMatchingType(final JsonNode fieldNode,
-	                               final SchemaAttribute attribute) {
-		return attribute.accept(new SchemaAttributeAcceptor<>() {
-			@Override
-			public Boolean accept(BooleanAttribute attribute) {
-				return fieldNode.isBoolean();
-			}
-
-			@Override
-			public Boolean accept(ByteAttribute attribute) {
-				return fieldNode.isArray();
-			}
-
-			@Override
-			public Boolean accept(CharacterAttribute attribute) {
-				// A CharacterAttribute must be a single character, not a full string
-				return fieldNode.isTextual() && fieldNode.asText().length() == 1;
-			}
-
-			@Override
-			public Boolean accept(DoubleAttribute attribute) {
-				return fieldNode.isDouble() || fieldNode.isFloat() || fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(EnumAttribute attribute) {
-				return fieldNode.isTextual() && attribute.getValues().contains(fieldNode.asText());
-			}
-
-			@Override
-			public Boolean accept(FloatAttribute attribute) {
-				return fieldNode.isFloat();
+			// validate Key, keys are always strings, hence validated as one without wrapping them into a node
+			final var keyAttribute = mapAttribute.getKeyAttribute();
+			if (null != keyAttribute && !isMatchingKey(entry.getKey(), keyAttribute)) {
+				validationErrors = addError(validationErrors, typeMismatch(keyAttribute, JsonNodeType.STRING));
 			}
-
-			@Override
-			public Boolean accept(IntegerAttribute attribute) {
-				return fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(LongAttribute attribute) {
-				return fieldNode.isLong() || fieldNode.isInt();
-			}
-
-			@Override
-			public Boolean accept(ShortAttribute attribute) {
-				return fieldNode.isShort() || fieldNode.isInt();
+			// Validate value
+			if (null != mapAttribute.getValueAttribute() && !isDone(validationErrors, maxErrors)) {
+				validationErrors = validateField(entry.getValue(), mapAttribute.getValueAttribute(),
+						schemaValidationType, validationErrors, maxErrors);
 			}
+		}
+		return validationErrors;
+	}
 
-			@Override
-			public Boolean accept(StringAttribute attribute) {
-				return fieldNode.isTextual();
-			}
+	private List<String> addError(final List<String> errors, final String error) {
+		final var validationErrors = null == errors ? new ArrayList<String>() : errors;
+		validationErrors.add(error);
+		return validationErrors;
+	}
 
-			@Override
-			public Boolean accept(DateAttribute attribute) {
-				return fieldNode.isTextual() || fieldNode.isLong() || fieldNode.isInt();
-			}
+	private boolean isDone(final List<String> errors, final int maxErrors) {
+		return maxErrors > 0 && null != errors && errors.size() >= maxErrors;
+	}
 
-			@Override
-			public Boolean accept(ArrayAttribute attribute) {
-				return fieldNode.isArray();
-			}
+	private String typeMismatch(final SchemaAttribute attribute, final JsonNodeType found) {
+		return "Type mismatch for field: " + attribute.getName() +
+				". Expected: " + attribute.getType() +
+				", Found: " + found;
+	}
 
-			@Override
-			public Boolean accept(MapAttribute attribute) {
-				return fieldNode.isObject();
-			}
+	/*
+		Same as isMatchingType, for a map key which is always a string
+	 */
+	private boolean isMatchingKey(final String key,
+	                              final SchemaAttribute attribute) {
+		if (attribute instanceof CharacterAttribute) {
+			return key.length() == 1;
+		}
+		if (attribute instanceof EnumAttribute enumAttribute) {
+			return enumAttribute.getValues().contains(key);
+		}
+		if (attribute instanceof ObjectAttribute objectAttribute) {
+			return objectAttribute.getNestedAttributes() == null;
+		}
+		return attribute instanceof StringAttribute || attribute instanceof DateAttribute;
+	}
 
-			@Override
-			public Boolean accept(ObjectAttribute attribute) {
-				// Handling Object.class
-				if (attribute.getNestedAttributes() == null) {
-					return true;
-				}
-				return fieldNode.isObject();
+	/*
+		Dispatches on the attribute type without allocating a visitor per field
+	 */
+	private boolean isMatchingType(final JsonNode fieldNode,
+	                               final SchemaAttribute attribute) {
+		if (attribute instanceof BooleanAttribute) {
+			return fieldNode.isBoolean();
+		}
+		if (attribute instanceof ByteAttribute) {
+			return fieldNode.isArray();
+		}
+		if (attribute instanceof CharacterAttribute) {
+			// A CharacterAttribute must be a single character, not a full string
+			return fieldNode.isTextual() && fieldNode.asText().length() == 1;
+		}
+		if (attribute instanceof DoubleAttribute) {
+			return fieldNode.isDouble() || fieldNode.isFloat() || fieldNode.isInt();
+		}
+		if (attribute instanceof EnumAttribute enumAttribute) {
+			return fieldNode.isTextual() && enumAttribute.getValues().contains(fieldNode.asText());
+		}
+		if (attribute instanceof FloatAttribute) {
+			return fieldNode.isFloat();
+		}
+		if (attribute instanceof IntegerAttribute) {
+			return fieldNode.isInt();
+		}
+		if (attribute instanceof LongAttribute) {
+			return fieldNode.isLong() || fieldNode.isInt();
+		}
+		if (attribute instanceof ShortAttribute) {
+			return fieldNode.isShort() || fieldNode.isInt();
+		}
+		if (attribute instanceof StringAttribute) {
+			return fieldNode.isTextual();
+		}
+		if (attribute instanceof DateAttribute) {
+			return fieldNode.isTextual() || fieldNode.isLong() || fieldNode.isInt();
+		}
+		if (attribute instanceof ArrayAttribute) {
+			return fieldNode.isArray();
+		}
+		if (attribute instanceof MapAttribute) {
+			return fieldNode.isObject();
+		}
+		if (attribute instanceof ObjectAttribute objectAttribute) {
+			// Handling Object.class
+			if (objectAttribute.getNestedAttributes() == null) {
+				return true;
 			}
-		});
+			return fieldNode.isObject();
+		}
+		return false;
 	}
 }
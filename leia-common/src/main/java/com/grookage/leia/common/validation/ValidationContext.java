@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.common.validation;
+
+import com.grookage.leia.common.violation.LeiaMessageViolation;
+import com.grookage.leia.common.violation.LeiaMessageViolationImpl;
+import com.grookage.leia.models.schema.SchemaKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+	Per thread scratch space for a validation run. The path of the field being validated is kept as a stack of
+	segments and is turned into a string only when a violation is recorded, and the violation list is allocated only
+	on the first violation, so that a message that passes validation allocates nothing.
+ */
+class ValidationContext {
+
+	private static final int FIELD = 0;
+	private static final int INDEX = 1;
+	private static final int ENTRY = 2;
+	private static final ThreadLocal<ValidationContext> CONTEXTS = ThreadLocal.withInitial(ValidationContext::new);
+
+	private int[] kinds = new int[16];
+	private String[] names = new String[16];
+	private int[] indexes = new int[16];
+	private boolean[][] seenFields = new boolean[16][];
+	private int depth;
+	private int maxViolations;
+	private boolean inUse;
+	private SchemaKey schemaKey;
+	private List<LeiaMessageViolation> violations;
+
+	/*
+		Returns the context of the current thread, or a fresh one if the current thread is already in the middle of a
+		validation
+	 */
+	static ValidationContext acquire(SchemaKey schemaKey, int maxViolations) {
+		var context = CONTEXTS.get();
+		if (context.inUse) {
+			context = new ValidationContext();
+		}
+		context.inUse = true;
+		context.schemaKey = schemaKey;
+		context.maxViolations = maxViolations;
+		context.depth = 0;
+		context.violations = null;
+		return context;
+	}
+
+	List<LeiaMessageViolation> release() {
+		final var result = null == violations ? List.<LeiaMessageViolation>of() : violations;
+		violations = null;
+		schemaKey = null;
+		Arrays.fill(names, 0, depth, null);
+		depth = 0;
+		inUse = false;
+		return result;
+	}
+
+	/*
+		Whether the violation limit has been hit and the validation can stop, a limit of zero or less means no limit
+	 */
+	boolean isDone() {
+		return maxViolations > 0 && null != violations && violations.size() >= maxViolations;
+	}
+
+	/*
+		A cleared flag array to track the fields seen in the object at the current depth. The arrays are pooled per
+		depth, so that a streaming validation needs memory proportional to the nesting and not to the payload.
+	 */
+	boolean[] seenFields(int size) {
+		if (depth >= seenFields.length) {
+			seenFields = Arrays.copyOf(seenFields, Math.max(depth + 1, seenFields.length * 2));
+		}
+		var seen = seenFields[depth];
+		if (null == seen || seen.length < size) {
+			seen = new boolean[Math.max(size, 8)];
+			seenFields[depth] = seen;
+		} else {
+			Arrays.fill(seen, 0, size, false);
+		}
+		return seen;
+	}
+
+	void pushField(String name) {
+		push(FIELD, name, 0);
+	}
+
+	void pushIndex(int index) {
+		push(INDEX, null, index);
+	}
+
+	void pushEntry(String key) {
+		push(ENTRY, key, 0);
+	}
+
+	void pop() {
+		names[--depth] = null;
+	}
+
+	private void push(int kind, String name, int index) {
+		if (depth == kinds.length) {
+			kinds = Arrays.copyOf(kinds, depth * 2);
+			names = Arrays.copyOf(names, depth * 2);
+			indexes = Arrays.copyOf(indexes, depth * 2);
+		}
+		kinds[depth] = kind;
+		names[depth] = name;
+		indexes[depth] = index;
+		depth++;
+	}
+
+	/*
+		Renders the path the same way the validators always have, fields are dot separated, array elements are
+		suffixed with [index] and map entries with ['key']
+	 */
+	String currentPath() {
+		final var path = new StringBuilder();
+		for (var i = 0; i < depth; i++) {
+			switch (kinds[i]) {
+				case INDEX -> path.append('[').append(indexes[i]).append(']');
+				case ENTRY -> path.append("['").append(names[i]).append("']");
+				default -> {
+					if (!path.isEmpty()) {
+						path.append('.');
+					}
+					path.append(names[i]);
+				}
+			}
+		}
+		return path.toString();
+	}
+
+	void violation(String message) {
+		violation(message, currentPath());
+	}
+
+	void violation(String message, String fieldPath) {
+		if (null == violations) {
+			violations = new ArrayList<>();
+		}
+		violations.add(LeiaMessageViolationImpl.builder()
+				.message(message)
+				.fieldPath(fieldPath)
+				.schemaKey(schemaKey)
+				.build());
+	}
+}
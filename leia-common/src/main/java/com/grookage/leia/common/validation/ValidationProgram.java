@@ -0,0 +1,718 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.common.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.grookage.leia.common.violation.LeiaMessageViolation;
+import com.grookage.leia.models.attributes.*;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaValidationType;
+import com.grookage.leia.models.utils.MapperUtils;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Predicate;
+
+/*
+	A SchemaDetails compiled into an immutable validation program. The attribute tables, the type checks and the
+	nested programs are resolved once, at compile time, so that validating a message is a walk over precomputed
+	arrays. A message that passes validation doesn't allocate, see ValidationContext.
+	The same program validates a raw payload off a JsonParser, token by token, without building the tree.
+ */
+public class ValidationProgram {
+
+	public static final int UNLIMITED = 0;
+
+	@Getter
+	private final SchemaDetails schemaDetails;
+	private final ObjectProgram root;
+
+	private ValidationProgram(SchemaDetails schemaDetails, ObjectProgram root) {
+		this.schemaDetails = schemaDetails;
+		this.root = root;
+	}
+
+	public static ValidationProgram compile(SchemaDetails schemaDetails) {
+		return new ValidationProgram(schemaDetails,
+				compileObject(schemaDetails.getAttributes(), schemaDetails.getValidationType()));
+	}
+
+	public boolean isCompiledFrom(SchemaDetails details) {
+		return this.schemaDetails == details;
+	}
+
+	public List<LeiaMessageViolation> validate(JsonNode message) {
+		return validate(message, UNLIMITED);
+	}
+
+	/*
+		Stops at the first maxViolations violations, zero or less validates the whole message
+	 */
+	public List<LeiaMessageViolation> validate(JsonNode message, int maxViolations) {
+		final var context = ValidationContext.acquire(schemaDetails.getSchemaKey(), maxViolations);
+		try {
+			validateObject(message, root, context);
+		} catch (RuntimeException e) {
+			context.release();
+			throw e;
+		}
+		return context.release();
+	}
+
+	/*
+		Validates the payload straight off the parser, in memory proportional to the nesting of the payload. Only the
+		value of a field that more than one attribute is named after is read into a tree. The checks are the same as
+		the tree based validation, the violations are reported in the order the fields appear in the payload.
+	 */
+	public List<LeiaMessageViolation> validate(JsonParser parser, int maxViolations) throws IOException {
+		final var context = ValidationContext.acquire(schemaDetails.getSchemaKey(), maxViolations);
+		try {
+			final var token = parser.nextToken();
+			if (JsonToken.START_OBJECT == token) {
+				streamObject(parser, root, context);
+			} else if (null == token) {
+				context.violation("Empty payload");
+			} else if (JsonToken.START_ARRAY == token) {
+				context.violation("Type mismatch for payload. Expected: OBJECT, Found: " + JsonNodeType.ARRAY);
+			} else {
+				streamValueRoot(parser, token, root, context);
+			}
+		} catch (IOException | RuntimeException e) {
+			context.release();
+			throw e;
+		}
+		return context.release();
+	}
+
+	private static ObjectProgram compileObject(Set<SchemaAttribute> attributes,
+	                                           SchemaValidationType validationType) {
+		final var attributeSet = null == attributes ? Set.<SchemaAttribute>of() : attributes;
+		final var fields = attributeSet.stream()
+				.map(attribute -> compileField(attribute, validationType))
+				.toArray(FieldProgram[]::new);
+		final var fieldNames = new LinkedHashSet<String>();
+		attributeSet.forEach(attribute -> fieldNames.add(attribute.getName()));
+		final var fieldIndexes = new HashMap<String, List<Integer>>();
+		for (var index = 0; index < fields.length; index++) {
+			fieldIndexes.computeIfAbsent(fields[index].name, key -> new ArrayList<>()).add(index);
+		}
+		final var compiledIndexes = new HashMap<String, int[]>();
+		fieldIndexes.forEach((name, indexes) -> compiledIndexes.put(name,
+				indexes.stream().mapToInt(Integer::intValue).toArray()));
+		return new ObjectProgram(validationType == SchemaValidationType.STRICT, fields,
+				fieldNames.toArray(String[]::new), Collections.unmodifiableSet(fieldNames), compiledIndexes);
+	}
+
+	private static FieldProgram compileField(SchemaAttribute attribute,
+	                                         SchemaValidationType validationType) {
+		if (null == attribute) {
+			return null;
+		}
+		ObjectProgram nested = null;
+		FieldProgram element = null;
+		FieldProgram key = null;
+		FieldProgram value = null;
+		var entries = false;
+		if (attribute instanceof ObjectAttribute objectAttribute && null != objectAttribute.getNestedAttributes()) {
+			nested = compileObject(objectAttribute.getNestedAttributes(), validationType);
+		} else if (attribute instanceof ArrayAttribute arrayAttribute) {
+			element = compileField(arrayAttribute.getElementAttribute(), validationType);
+		} else if (attribute instanceof MapAttribute mapAttribute) {
+			entries = null != mapAttribute.getKeyAttribute() || null != mapAttribute.getValueAttribute();
+			key = compileField(mapAttribute.getKeyAttribute(), validationType);
+			value = compileField(mapAttribute.getValueAttribute(), validationType);
+		}
+		return new FieldProgram(attribute.getName(), attribute.isOptional(), attribute.getType(),
+				attribute.accept(new NodeTypeCompiler()), attribute.accept(new KeyTypeCompiler()),
+				attribute.accept(new TokenTypeCompiler()),
+				nested, element, entries, key, value);
+	}
+
+	private static void validateObject(JsonNode node,
+	                                   ObjectProgram program,
+	                                   ValidationContext context) {
+		if (program.strict && node.isObject() && node.size() > presentFields(node, program)) {
+			final var fieldNames = node.fieldNames();
+			while (fieldNames.hasNext() && !context.isDone()) {
+				final var fieldName = fieldNames.next();
+				if (!program.fieldNameSet.contains(fieldName)) {
+					context.pushField(fieldName);
+					context.violation("Unexpected field: " + fieldName);
+					context.pop();
+				}
+			}
+		}
+		for (final var field : program.fields) {
+			if (context.isDone()) {
+				return;
+			}
+			if (node.isObject() && !node.has(field.name)) {
+				if (!field.optional) {
+					context.pushField(field.name);
+					context.violation("Missing required field: " + field.name);
+					context.pop();
+				}
+				continue;
+			}
+			if (node.isValueNode()) {
+				validateField(node, field, context);
+				continue;
+			}
+			context.pushField(field.name);
+			validateField(node.get(field.name), field, context);
+			context.pop();
+		}
+	}
+
+	private static int presentFields(JsonNode node, ObjectProgram program) {
+		var present = 0;
+		for (final var fieldName : program.fieldNames) {
+			if (node.has(fieldName)) {
+				present++;
+			}
+		}
+		return present;
+	}
+
+	private static void validateField(JsonNode node,
+	                                  FieldProgram field,
+	                                  ValidationContext context) {
+		if (field.optional && node.isNull()) {
+			return;
+		}
+		if (!field.nodeCheck.test(node)) {
+			context.violation(typeMismatch(field, node.getNodeType()));
+			return;
+		}
+		if (null != field.nested) {
+			validateObject(node, field.nested, context);
+		} else if (null != field.element) {
+			for (var index = 0; index < node.size() && !context.isDone(); index++) {
+				context.pushIndex(index);
+				validateField(node.get(index), field.element, context);
+				context.pop();
+			}
+		} else if (field.entries) {
+			validateEntries(node, field, context);
+		}
+	}
+
+	private static void validateEntries(JsonNode node,
+	                                    FieldProgram field,
+	                                    ValidationContext context) {
+		final var entries = node.fields();
+		while (entries.hasNext() && !context.isDone()) {
+			final var entry = entries.next();
+			context.pushEntry(entry.getKey());
+			if (null != field.key && !field.key.keyCheck.test(entry.getKey())) {
+				context.pushField("key");
+				context.violation(typeMismatch(field.key, JsonNodeType.STRING));
+				context.pop();
+			}
+			if (null != field.value && !context.isDone()) {
+				context.pushField("value");
+				validateField(entry.getValue(), field.value, context);
+				context.pop();
+			}
+			context.pop();
+		}
+	}
+
+	private static void streamObject(JsonParser parser,
+	                                 ObjectProgram program,
+	                                 ValidationContext context) throws IOException {
+		final var seen = context.seenFields(program.fields.length);
+		while (JsonToken.FIELD_NAME == parser.nextToken()) {
+			if (context.isDone()) {
+				return;
+			}
+			final var fieldName = parser.currentName();
+			final var valueToken = parser.nextToken();
+			final var indexes = program.fieldIndexes.get(fieldName);
+			if (null == indexes) {
+				if (program.strict) {
+					context.pushField(fieldName);
+					context.violation("Unexpected field: " + fieldName);
+					context.pop();
+				}
+				parser.skipChildren();
+				continue;
+			}
+			for (final var index : indexes) {
+				seen[index] = true;
+			}
+			context.pushField(fieldName);
+			if (indexes.length == 1) {
+				streamValue(parser, valueToken, program.fields[indexes[0]], context);
+			} else {
+				streamShared(parser, indexes, program, context);
+			}
+			context.pop();
+		}
+		for (var index = 0; index < program.fields.length && !context.isDone(); index++) {
+			final var field = program.fields[index];
+			if (!seen[index] && !field.optional) {
+				context.pushField(field.name);
+				context.violation("Missing required field: " + field.name);
+				context.pop();
+			}
+		}
+	}
+
+	/*
+		A value that more than one attribute is named after can't be streamed once per attribute, it is read into a
+		tree and validated against each of them, the same as the tree based validation does
+	 */
+	private static void streamShared(JsonParser parser,
+	                                 int[] indexes,
+	                                 ObjectProgram program,
+	                                 ValidationContext context) throws IOException {
+		final JsonNode value = MapperUtils.mapper().readTree(parser);
+		for (final var index : indexes) {
+			if (context.isDone()) {
+				return;
+			}
+			validateField(value, program.fields[index], context);
+		}
+	}
+
+	private static void streamValue(JsonParser parser,
+	                                JsonToken token,
+	                                FieldProgram field,
+	                                ValidationContext context) throws IOException {
+		if (field.optional && JsonToken.VALUE_NULL == token) {
+			return;
+		}
+		if (!field.tokenCheck.test(parser, token)) {
+			context.violation(typeMismatch(field, nodeType(token)));
+			parser.skipChildren();
+			return;
+		}
+		if (null != field.nested) {
+			streamObject(parser, field.nested, context);
+		} else if (null != field.element && JsonToken.START_ARRAY == token) {
+			var index = 0;
+			var elementToken = parser.nextToken();
+			while (null != elementToken && JsonToken.END_ARRAY != elementToken) {
+				if (context.isDone()) {
+					return;
+				}
+				context.pushIndex(index++);
+				streamValue(parser, elementToken, field.element, context);
+				context.pop();
+				elementToken = parser.nextToken();
+			}
+		} else if (field.entries && JsonToken.START_OBJECT == token) {
+			streamEntries(parser, field, context);
+		} else {
+			parser.skipChildren();
+		}
+	}
+
+	private static void streamEntries(JsonParser parser,
+	                                  FieldProgram field,
+	                                  ValidationContext context) throws IOException {
+		while (JsonToken.FIELD_NAME == parser.nextToken()) {
+			if (context.isDone()) {
+				return;
+			}
+			final var key = parser.currentName();
+			final var valueToken = parser.nextToken();
+			context.pushEntry(key);
+			if (null != field.key && !field.key.keyCheck.test(key)) {
+				context.pushField("key");
+				context.violation(typeMismatch(field.key, JsonNodeType.STRING));
+				context.pop();
+			}
+			if (null != field.value && !context.isDone()) {
+				context.pushField("value");
+				streamValue(parser, valueToken, field.value, context);
+				context.pop();
+			} else {
+				parser.skipChildren();
+			}
+			context.pop();
+		}
+	}
+
+	/*
+		A scalar payload is checked against every attribute, the same as the tree based validation does
+	 */
+	private static void streamValueRoot(JsonParser parser,
+	                                    JsonToken token,
+	                                    ObjectProgram program,
+	                                    ValidationContext context) throws IOException {
+		for (final var field : program.fields) {
+			if (context.isDone()) {
+				return;
+			}
+			if (field.optional && JsonToken.VALUE_NULL == token) {
+				continue;
+			}
+			if (!field.tokenCheck.test(parser, token)) {
+				context.violation(typeMismatch(field, nodeType(token)));
+			}
+		}
+	}
+
+	private static JsonNodeType nodeType(JsonToken token) {
+		return switch (token) {
+			case START_OBJECT -> JsonNodeType.OBJECT;
+			case START_ARRAY -> JsonNodeType.ARRAY;
+			case VALUE_STRING -> JsonNodeType.STRING;
+			case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> JsonNodeType.NUMBER;
+			case VALUE_TRUE, VALUE_FALSE -> JsonNodeType.BOOLEAN;
+			case VALUE_NULL -> JsonNodeType.NULL;
+			default -> JsonNodeType.POJO;
+		};
+	}
+
+	private static String typeMismatch(FieldProgram field, JsonNodeType found) {
+		return "Type mismatch for field: " + field.name +
+				". Expected: " + field.type +
+				", Found: " + found;
+	}
+
+	private static class ObjectProgram {
+		private final boolean strict;
+		private final FieldProgram[] fields;
+		private final String[] fieldNames;
+		private final Set<String> fieldNameSet;
+		private final Map<String, int[]> fieldIndexes;
+
+		private ObjectProgram(boolean strict,
+		                      FieldProgram[] fields,
+		                      String[] fieldNames,
+		                      Set<String> fieldNameSet,
+		                      Map<String, int[]> fieldIndexes) {
+			this.strict = strict;
+			this.fields = fields;
+			this.fieldNames = fieldNames;
+			this.fieldNameSet = fieldNameSet;
+			this.fieldIndexes = fieldIndexes;
+		}
+	}
+
+	private static class FieldProgram {
+		private final String name;
+		private final boolean optional;
+		private final DataType type;
+		private final Predicate<JsonNode> nodeCheck;
+		private final Predicate<String> keyCheck;
+		private final TokenCheck tokenCheck;
+		private final ObjectProgram nested;
+		private final FieldProgram element;
+		private final boolean entries;
+		private final FieldProgram key;
+		private final FieldProgram value;
+
+		private FieldProgram(String name,
+		                     boolean optional,
+		                     DataType type,
+		                     Predicate<JsonNode> nodeCheck,
+		                     Predicate<String> keyCheck,
+		                     TokenCheck tokenCheck,
+		                     ObjectProgram nested,
+		                     FieldProgram element,
+		                     boolean entries,
+		                     FieldProgram key,
+		                     FieldProgram value) {
+			this.name = name;
+			this.optional = optional;
+			this.type = type;
+			this.nodeCheck = nodeCheck;
+			this.keyCheck = keyCheck;
+			this.tokenCheck = tokenCheck;
+			this.nested = nested;
+			this.element = element;
+			this.entries = entries;
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/*
+		The type check of an attribute against a json node
+	 */
+	private static class NodeTypeCompiler implements SchemaAttributeAcceptor<Predicate<JsonNode>> {
+
+		@Override
+		public Predicate<JsonNode> accept(BooleanAttribute attribute) {
+			return JsonNode::isBoolean;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(ByteAttribute attribute) {
+			return JsonNode::isArray;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(CharacterAttribute attribute) {
+			// A CharacterAttribute must be a single character, not a full string
+			return node -> node.isTextual() && node.asText().length() == 1;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(DoubleAttribute attribute) {
+			return node -> node.isDouble() || node.isFloat() || node.isInt();
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(EnumAttribute attribute) {
+			final var values = attribute.getValues();
+			return node -> node.isTextual() && values.contains(node.asText());
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(FloatAttribute attribute) {
+			return JsonNode::isFloat;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(IntegerAttribute attribute) {
+			return JsonNode::isInt;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(LongAttribute attribute) {
+			return node -> node.isLong() || node.isInt();
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(ShortAttribute attribute) {
+			return node -> node.isShort() || node.isInt();
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(StringAttribute attribute) {
+			return JsonNode::isTextual;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(DateAttribute attribute) {
+			return node -> node.isTextual() || node.isLong() || node.isInt();
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(ArrayAttribute attribute) {
+			return JsonNode::isArray;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(MapAttribute attribute) {
+			return JsonNode::isObject;
+		}
+
+		@Override
+		public Predicate<JsonNode> accept(ObjectAttribute attribute) {
+			// Handling Object.class
+			if (attribute.getNestedAttributes() == null) {
+				return node -> true;
+			}
+			return JsonNode::isObject;
+		}
+	}
+
+	/*
+		The same type check, against a map key. Keys are always strings, hence this is what the node check would
+		return for a text node, without having to wrap the key into one.
+	 */
+	private static class KeyTypeCompiler implements SchemaAttributeAcceptor<Predicate<String>> {
+
+		private static final Predicate<String> ALWAYS = key -> true;
+		private static final Predicate<String> NEVER = key -> false;
+
+		@Override
+		public Predicate<String> accept(BooleanAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(ByteAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(CharacterAttribute attribute) {
+			return key -> key.length() == 1;
+		}
+
+		@Override
+		public Predicate<String> accept(DoubleAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(EnumAttribute attribute) {
+			final var values = attribute.getValues();
+			return key -> values.contains(key);
+		}
+
+		@Override
+		public Predicate<String> accept(FloatAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(IntegerAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(LongAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(ShortAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(StringAttribute attribute) {
+			return ALWAYS;
+		}
+
+		@Override
+		public Predicate<String> accept(DateAttribute attribute) {
+			return ALWAYS;
+		}
+
+		@Override
+		public Predicate<String> accept(ArrayAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(MapAttribute attribute) {
+			return NEVER;
+		}
+
+		@Override
+		public Predicate<String> accept(ObjectAttribute attribute) {
+			return null == attribute.getNestedAttributes() ? ALWAYS : NEVER;
+		}
+	}
+
+	@FunctionalInterface
+	private interface TokenCheck {
+		boolean test(JsonParser parser, JsonToken token) throws IOException;
+	}
+
+	/*
+		The same type check, against the current token of a parser. Numbers are classified the way jackson would
+		have built the node: an int or a long as per its size, and a float as a double.
+	 */
+	private static class TokenTypeCompiler implements SchemaAttributeAcceptor<TokenCheck> {
+
+		private static boolean isInt(JsonParser parser, JsonToken token) throws IOException {
+			return JsonToken.VALUE_NUMBER_INT == token && JsonParser.NumberType.INT == parser.getNumberType();
+		}
+
+		private static boolean isLong(JsonParser parser, JsonToken token) throws IOException {
+			return JsonToken.VALUE_NUMBER_INT == token && JsonParser.NumberType.LONG == parser.getNumberType();
+		}
+
+		private static boolean isFloat(JsonParser parser, JsonToken token) throws IOException {
+			return JsonToken.VALUE_NUMBER_FLOAT == token && JsonParser.NumberType.FLOAT == parser.getNumberType();
+		}
+
+		private static boolean isDouble(JsonParser parser, JsonToken token) throws IOException {
+			return JsonToken.VALUE_NUMBER_FLOAT == token && JsonParser.NumberType.BIG_DECIMAL != parser.getNumberType()
+					&& JsonParser.NumberType.FLOAT != parser.getNumberType();
+		}
+
+		@Override
+		public TokenCheck accept(BooleanAttribute attribute) {
+			return (parser, token) -> JsonToken.VALUE_TRUE == token || JsonToken.VALUE_FALSE == token;
+		}
+
+		@Override
+		public TokenCheck accept(ByteAttribute attribute) {
+			return (parser, token) -> JsonToken.START_ARRAY == token;
+		}
+
+		@Override
+		public TokenCheck accept(CharacterAttribute attribute) {
+			return (parser, token) -> JsonToken.VALUE_STRING == token && parser.getTextLength() == 1;
+		}
+
+		@Override
+		public TokenCheck accept(DoubleAttribute attribute) {
+			return (parser, token) -> isDouble(parser, token) || isFloat(parser, token) || isInt(parser, token);
+		}
+
+		@Override
+		public TokenCheck accept(EnumAttribute attribute) {
+			final var values = attribute.getValues();
+			return (parser, token) -> JsonToken.VALUE_STRING == token && values.contains(parser.getText());
+		}
+
+		@Override
+		public TokenCheck accept(FloatAttribute attribute) {
+			return TokenTypeCompiler::isFloat;
+		}
+
+		@Override
+		public TokenCheck accept(IntegerAttribute attribute) {
+			return TokenTypeCompiler::isInt;
+		}
+
+		@Override
+		public TokenCheck accept(LongAttribute attribute) {
+			return (parser, token) -> isLong(parser, token) || isInt(parser, token);
+		}
+
+		@Override
+		public TokenCheck accept(ShortAttribute attribute) {
+			return TokenTypeCompiler::isInt;
+		}
+
+		@Override
+		public TokenCheck accept(StringAttribute attribute) {
+			return (parser, token) -> JsonToken.VALUE_STRING == token;
+		}
+
+		@Override
+		public TokenCheck accept(DateAttribute attribute) {
+			return (parser, token) -> JsonToken.VALUE_STRING == token || isLong(parser, token) || isInt(parser, token);
+		}
+
+		@Override
+		public TokenCheck accept(ArrayAttribute attribute) {
+			return (parser, token) -> JsonToken.START_ARRAY == token;
+		}
+
+		@Override
+		public TokenCheck accept(MapAttribute attribute) {
+			return (parser, token) -> JsonToken.START_OBJECT == token;
+		}
+
+		@Override
+		public TokenCheck accept(ObjectAttribute attribute) {
+			// Handling Object.class
+			if (attribute.getNestedAttributes() == null) {
+				return (parser, token) -> true;
+			}
+			return (parser, token) -> JsonToken.START_OBJECT == token;
+		}
+	}
+}
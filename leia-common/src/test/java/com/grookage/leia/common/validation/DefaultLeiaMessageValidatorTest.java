@@ -5,6 +5,7 @@ import com.grookage.leia.common.stubs.NestedStub;
 import com.grookage.leia.common.stubs.TestObjectStub;
 import com.grookage.leia.common.stubs.TestParameterizedStub;
 import com.grookage.leia.common.stubs.TestRawCollectionStub;
+import com.grookage.leia.common.violation.LeiaMessageViolation;
 import com.grookage.leia.models.ResourceHelper;
 import com.grookage.leia.models.attributes.*;
 import com.grookage.leia.models.schema.SchemaDetails;
@@ -15,7 +16,11 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -396,4 +401,165 @@ class DefaultLeiaMessageValidatorTest {
 		assertFalse(errors.isEmpty());
 		assertEquals(1, errors.size(), "1 error for null zipcode");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testViolationPaths() throws Exception {
+		final var jsonNode = ResourceHelper.getObjectMapper().readTree("""
+				{
+				    "numbers": [1, "two", 3],
+				    "attributes": {
+				        "key1": 100
+				    },
+				    "user": {
+				        "id": "one"
+				    }
+				}
+				""");
+		final Set<SchemaAttribute> schemaAttributes = Set.of(
+				new ArrayAttribute("numbers", false, null, new IntegerAttribute("element", false, null)),
+				new MapAttribute("attributes", false, null,
+						new StringAttribute("key", false, null),
+						new StringAttribute("value", false, null)),
+				new ObjectAttribute("user", false, null, Set.of(new IntegerAttribute("id", false, null)))
+		);
+		final var schemaDetails = SchemaDetails.builder()
+				.schemaKey(SCHEMA_KEY)
+				.attributes(schemaAttributes)
+				.validationType(SchemaValidationType.STRICT)
+				.build();
+
+		final var fieldPaths = validator.validate(schemaDetails, jsonNode).stream()
+				.map(LeiaMessageViolation::fieldPath)
+				.collect(Collectors.toSet());
+		assertEquals(Set.of("numbers[1]", "attributes['key1'].value", "user.id"), fieldPaths);
+	}
+
+	@Test
+	void testProgramCache() {
+		final var schemaDetails = SchemaDetails.builder()
+				.schemaKey(SCHEMA_KEY)
+				.attributes(Set.of(new StringAttribute("name", false, null)))
+				.validationType(SchemaValidationType.STRICT)
+				.build();
+		final var program = validator.getProgram(schemaDetails);
+		assertSame(program, validator.getProgram(schemaDetails));
+		final var refreshedDetails = SchemaDetails.builder()
+				.schemaKey(SCHEMA_KEY)
+				.attributes(Set.of(new IntegerAttribute("age", false, null)))
+				.validationType(SchemaValidationType.STRICT)
+				.build();
+		final var refreshedProgram = validator.getProgram(refreshedDetails);
+		assertNotSame(program, refreshedProgram);
+		assertTrue(refreshedProgram.isCompiledFrom(refreshedDetails));
+		validator.invalidate(SCHEMA_KEY);
+		assertNotSame(refreshedProgram, validator.getProgram(refreshedDetails));
+	}
+
+	@Test
+	void testFailFast() throws Exception {
+		final var jsonNode = ResourceHelper.getObjectMapper().readTree("""
+				{
+				    "numbers": ["one", "two", "three", "four"]
+				}
+				""");
+		final var schemaDetails = SchemaDetails.builder()
+				.schemaKey(SCHEMA_KEY)
+				.attributes(Set.of(new ArrayAttribute("numbers", false, null, new IntegerAttribute("element", false, null))))
+				.validationType(SchemaValidationType.STRICT)
+				.build();
+		assertEquals(4, validator.validate(schemaDetails, jsonNode).size());
+		final var failFastValidator = new DefaultLeiaMessageValidator(2);
+		final var errors = failFastValidator.validate(schemaDetails, jsonNode);
+		assertEquals(2, errors.size());
+		assertEquals("numbers[0]", errors.get(0).fieldPath());
+		assertEquals("numbers[1]", errors.get(1).fieldPath());
+	}
+
+	@Test
+	void testStreamingValidation() throws Exception {
+		final Set<SchemaAttribute> schemaAttributes = Set.of(
+				new StringAttribute("name", false, null),
+				new LongAttribute("count", true, null),
+				new ArrayAttribute("numbers", false, null, new IntegerAttribute("element", false, null)),
+				new MapAttribute("attributes", false, null,
+						new StringAttribute("key", false, null),
+						new StringAttribute("value", false, null)),
+				new ObjectAttribute("user", false, null, Set.of(new IntegerAttribute("id", false, null)))
+		);
+		final var schemaDetails = SchemaDetails.builder()
+				.schemaKey(SCHEMA_KEY)
+				.attributes(schemaAttributes)
+				.validationType(SchemaValidationType.STRICT)
+				.build();
+		final var payloads = List.of("""
+				{"name": "leia", "count": null, "numbers": [1, 2], "attributes": {"k": "v"}, "user": {"id": 1}}
+				""", """
+				{"name": "leia", "numbers": [1, "two", 3], "attributes": {"key1": 100}, "user": {"id": "one"}}
+				""", """
+				{"name": 1, "extra": {"nested": [1, 2]}, "numbers": [], "attributes": {}}
+				""", """
+				{"count": 1.5, "numbers": {}, "attributes": [], "user": {"id": 1, "name": "x"}}
+				""");
+		for (final var payload : payloads) {
+			final var expected = validator.validate(schemaDetails,
+							ResourceHelper.getObjectMapper().readTree(payload)).stream()
+					.map(violation -> violation.fieldPath() + ":" + violation.message())
+					.collect(Collectors.toSet());
+			final var bytes = payload.getBytes(StandardCharsets.UTF_8);
+			final var streamed = validator.validate(schemaDetails, bytes).stream()
+					.map(violation -> violation.fieldPath() + ":" + violation.message())
+					.collect(Collectors.toSet());
+			assertEquals(expected, streamed);
+			assertEquals(expected.isEmpty(), validator.isValid(schemaDetails, bytes));
+			assertEquals(expected.size(), validator.validate(schemaDetails, new ByteArrayInputStream(bytes)).size());
+		}
+	}
+
+	@Test
+	void testStreamingSharedFieldNames() throws Exception {
+		final Set<SchemaAttribute> schemaAttributes = Set.of(
+				new StringAttribute("id", false, null),
+				new IntegerAttribute("id", false, null),
+				new ObjectAttribute("user", false, null, Set.of(new IntegerAttribute("age", false, null))),
+				new MapAttribute("user", false, null,
+						new StringAttribute("key", false, null),
+						new StringAttribute("value", false, null))
+		);
+		final var schemaDetails = SchemaDetails.builder()
+				.schemaKey(SCHEMA_KEY)
+				.attributes(schemaAttributes)
+				.validationType(SchemaValidationType.STRICT)
+				.build();
+		final var payloads = List.of("""
+				{"id": "one", "user": {"age": "ten"}}
+				""", """
+				{"id": 1, "user": {"age": 10}}
+				""", """
+				{"id": null, "user": []}
+				""");
+		for (final var payload : payloads) {
+			final var expected = validator.validate(schemaDetails,
+							ResourceHelper.getObjectMapper().readTree(payload)).stream()
+					.map(violation -> violation.fieldPath() + ":" + violation.message())
+					.collect(Collectors.toSet());
+			final var streamed = validator.validate(schemaDetails, payload.getBytes(StandardCharsets.UTF_8)).stream()
+					.map(violation -> violation.fieldPath() + ":" + violation.message())
+					.collect(Collectors.toSet());
+			assertFalse(expected.isEmpty());
+			assertEquals(expected, streamed);
+		}
+	}
+
+	@Test
+	void testStreamingMalformedPayload() {
+		final var schemaDetails = SchemaDetails.builder()
+				.schemaKey(SCHEMA_KEY)
+				.attributes(Set.of(new StringAttribute("name", false, null)))
+				.validationType(SchemaValidationType.STRICT)
+				.build();
+		final var errors = validator.validate(schemaDetails, "{\"name\": ".getBytes(StandardCharsets.UTF_8));
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).message().startsWith("Malformed payload"));
+		assertFalse(validator.isValid(schemaDetails, "[]".getBytes(StandardCharsets.UTF_8)));
+	}
+}
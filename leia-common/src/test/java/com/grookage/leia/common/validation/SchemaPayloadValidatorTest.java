@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.common.validation;
+
+import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.attributes.*;
+import com.grookage.leia.models.schema.SchemaValidationType;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+class SchemaPayloadValidatorTest {
+
+	private static final Set<SchemaAttribute> SCHEMA_ATTRIBUTES = Set.of(
+			new StringAttribute("name", false, null),
+			new ArrayAttribute("numbers", false, null, new IntegerAttribute("element", false, null)),
+			new MapAttribute("attributes", true, null,
+					new CharacterAttribute("key", false, null),
+					new StringAttribute("value", false, null))
+	);
+
+	@Test
+	@SneakyThrows
+	void testValidPayload() {
+		final var jsonNode = ResourceHelper.getObjectMapper().readTree("""
+				{
+				    "name": "John Doe",
+				    "numbers": [1, 2, 3],
+				    "attributes": {
+				        "a": "value1"
+				    }
+				}
+				""");
+		Assertions.assertTrue(SchemaPayloadValidator.validate(jsonNode, SchemaValidationType.STRICT, SCHEMA_ATTRIBUTES).isEmpty());
+	}
+
+	@Test
+	@SneakyThrows
+	void testInvalidPayload() {
+		final var jsonNode = ResourceHelper.getObjectMapper().readTree("""
+				{
+				    "numbers": [1, "two", "three"],
+				    "attributes": {
+				        "longKey": "value1"
+				    },
+				    "unexpectedField": true
+				}
+				""");
+		final var errors = SchemaPayloadValidator.validate(jsonNode, SchemaValidationType.STRICT, SCHEMA_ATTRIBUTES);
+		Assertions.assertEquals(5, errors.size());
+		Assertions.assertTrue(errors.contains("Unexpected field: unexpectedField"));
+		Assertions.assertTrue(errors.contains("Missing required field: name"));
+		Assertions.assertTrue(errors.contains("Type mismatch for field: key. Expected: CHARACTER, Found: STRING"));
+		Assertions.assertEquals(2, errors.stream()
+				.filter("Type mismatch for field: element. Expected: INTEGER, Found: STRING"::equals)
+				.count());
+
+		Assertions.assertEquals(1, SchemaPayloadValidator.validate(jsonNode, SchemaValidationType.STRICT,
+				SCHEMA_ATTRIBUTES, 1).size());
+		Assertions.assertEquals(4, SchemaPayloadValidator.validate(jsonNode, SchemaValidationType.MATCHING,
+				SCHEMA_ATTRIBUTES).size());
+	}
+
+	@Test
+	@SneakyThrows
+	void testUnknownFieldWithDuplicateAttributeNames() {
+		final var schemaAttributes = Set.<SchemaAttribute>of(
+				new StringAttribute("name", false, null),
+				new StringAttribute("name", true, null),
+				new IntegerAttribute("age", true, null)
+		);
+		final var jsonNode = ResourceHelper.getObjectMapper().readTree("""
+				{
+				    "name": "John Doe",
+				    "unexpectedField": true
+				}
+				""");
+		final var errors = SchemaPayloadValidator.validate(jsonNode, SchemaValidationType.STRICT, schemaAttributes);
+		Assertions.assertEquals(1, errors.size());
+		Assertions.assertTrue(errors.contains("Unexpected field: unexpectedField"));
+	}
+}
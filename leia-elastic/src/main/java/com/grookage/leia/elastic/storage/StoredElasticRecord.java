@@ -78,6 +78,7 @@ public class StoredElasticRecord {
 				.schemaName(schemaName)
 				.version(version)
 				.type(type)
-				.build();
+				.build()
+				.intern();
 	}
 }
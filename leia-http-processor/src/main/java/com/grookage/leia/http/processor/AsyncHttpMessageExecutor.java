@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.http.processor.config.BackendType;
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
+import com.grookage.leia.http.processor.request.EncodedBody;
+import com.grookage.leia.http.processor.retry.RetryPolicy;
+import com.grookage.leia.http.processor.utils.HttpClientUtils;
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
+import com.grookage.leia.mux.executor.ExecutionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+	Sends over the non-blocking HttpClient 5 async client. No thread is held while a request is in flight, so the
+	number of concurrent sends is bounded by the connection pool, or by the streams of a connection with HTTP/2, and
+	not by the dispatch threads. The retries (retryCount attempts, on error responses only), the circuit breaker and
+	the exception handling are the same as the blocking send's, the exception handling runs on the executor passed
+	to sendAsync. The blocking send and the queued mode are inherited as is.
+ */
+@Slf4j
+public abstract class AsyncHttpMessageExecutor<T> extends HttpMessageExecutor<T> {
+
+	protected AsyncHttpMessageExecutor(HttpBackendConfig backendConfig,
+	                                   Supplier<String> authSupplier,
+	                                   ObjectMapper mapper) {
+		super(backendConfig, authSupplier, mapper);
+	}
+
+	@Override
+	public CompletableFuture<ExecutionOutcome> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+		if (getBackendConfig().getBackendType() == BackendType.QUEUED) {
+			return super.sendAsync(messages, executor, deadline);
+		}
+		final var breaker = getCircuitBreaker();
+		if (deadline.isExpired() || (null != breaker && !breaker.tryAcquire())) {
+			final var errorCode = deadline.isExpired()
+					? LeiaProcessorErrorCode.DEADLINE_EXCEEDED
+					: LeiaProcessorErrorCode.CIRCUIT_OPEN;
+			return failAsync(messages, executor, LeiaException.error(errorCode));
+		}
+		final EncodedBody body;
+		try {
+			body = EncodedBody.encode(getMapper(), toRequestData(messages), getBackendConfig().getContentEncoding());
+		} catch (Exception e) {
+			record(breaker, e, 0L);
+			return failAsync(messages, executor, e);
+		}
+		final var startNanos = System.nanoTime();
+		return attempt(body, deadline, 1)
+				.whenComplete((ignored, throwable) -> record(breaker, null == throwable ? null : unwrap(throwable),
+						System.nanoTime() - startNanos))
+				.handleAsync((ignored, throwable) -> {
+					if (null == throwable) {
+						return ExecutionOutcome.of(getName(), ExecutionStatus.SUCCESS, messages.size());
+					}
+					final var cause = unwrap(throwable);
+					log.error("Sending message to the backend {} has failed with exception {}", getName(), cause.getMessage(), cause);
+					return onFailure(messages, cause);
+				}, executor)
+				.exceptionally(throwable -> failed(messages, throwable));
+	}
+
+	private CompletableFuture<ExecutionOutcome> failAsync(List<LeiaMessage> messages, Executor executor, Exception e) {
+		try {
+			return CompletableFuture.supplyAsync(() -> onFailure(messages, e), executor)
+					.exceptionally(throwable -> failed(messages, throwable));
+		} catch (RejectedExecutionException rejected) {
+			return CompletableFuture.completedFuture(failed(messages, rejected));
+		}
+	}
+
+	/*
+		The exception handling couldn't be run, either because it threw or because the executor rejected it
+	 */
+	private ExecutionOutcome failed(List<LeiaMessage> messages, Throwable throwable) {
+		final var cause = unwrap(throwable);
+		final var status = cause instanceof RejectedExecutionException ? ExecutionStatus.REJECTED : ExecutionStatus.FAILED;
+		return ExecutionOutcome.of(getName(), status, messages.size(), cause);
+	}
+
+	private CompletableFuture<Void> attempt(EncodedBody body, Deadline deadline, int attempt) {
+		if (deadline.isExpired()) {
+			return CompletableFuture.failedFuture(LeiaException.error(LeiaProcessorErrorCode.DEADLINE_EXCEEDED));
+		}
+		final var response = new CompletableFuture<SimpleHttpResponse>();
+		try {
+			final var template = getRequestTemplate();
+			final var request = SimpleRequestBuilder.post(template.getUri())
+					.setHeaders(template.getHeaders())
+					.build();
+			final var context = HttpClientContext.create();
+			if (deadline.isBounded()) {
+				context.setRequestConfig(RequestConfig.custom()
+						.setResponseTimeout(responseTimeout(deadline))
+						.build());
+			}
+			HttpClientUtils.getAsyncClient().execute(new BasicRequestProducer(request, body.toProducer()),
+					SimpleResponseConsumer.create(), context, new FutureCallback<>() {
+				@Override
+				public void completed(SimpleHttpResponse result) {
+					response.complete(result);
+				}
+
+				@Override
+				public void failed(Exception ex) {
+					response.completeExceptionally(ex);
+				}
+
+				@Override
+				public void cancelled() {
+					response.completeExceptionally(new CancellationException("The request to " + getName() + " was cancelled"));
+				}
+			});
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return response.<Void>thenApply(result -> {
+					final var code = result.getCode();
+					if (code >= HttpStatus.SC_REDIRECTION) {
+						throw new CompletionException(RetryPolicy.toException(result));
+					}
+					log.debug("Call to backend {} was successful and returned response {}", getName(), result.getBodyText());
+					getRetryPolicy().onSuccess();
+					return null;
+				})
+				.exceptionallyCompose(throwable -> {
+					final var cause = unwrap(throwable);
+					final var next = getRetryPolicy().nextBackoffMs(attempt, cause, deadline);
+					if (next.isEmpty()) {
+						return CompletableFuture.failedFuture(cause);
+					}
+					final var backoffMs = next.getAsLong();
+					if (backoffMs <= 0) {
+						return attempt(body, deadline, attempt + 1);
+					}
+					final var delayed = CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS);
+					return CompletableFuture.supplyAsync(() -> null, delayed)
+							.thenCompose(ignored -> attempt(body, deadline, attempt + 1));
+				});
+	}
+
+	private static Exception unwrap(Throwable throwable) {
+		var cause = throwable;
+		while (cause instanceof CompletionException && null != cause.getCause()) {
+			cause = cause.getCause();
+		}
+		return cause instanceof Exception exception ? exception : new CompletionException(cause);
+	}
+}
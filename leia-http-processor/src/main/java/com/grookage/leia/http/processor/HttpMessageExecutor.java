@@ -20,43 +20,61 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.rholder.retry.*;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.grookage.leia.http.processor.config.BackendType;
+import com.grookage.leia.http.processor.config.ContentEncoding;
 import com.grookage.leia.http.processor.config.HttpBackendConfig;
 import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import com.grookage.leia.http.processor.config.RetryConfig;
 import com.grookage.leia.http.processor.exception.LeiaHttpErrorCode;
+import com.grookage.leia.http.processor.request.EncodedBody;
+import com.grookage.leia.http.processor.request.HttpRequestTemplate;
+import com.grookage.leia.http.processor.request.JsonStreamingEntity;
 import com.grookage.leia.http.processor.request.LeiaHttpEntity;
+import com.grookage.leia.http.processor.retry.RetryPolicy;
 import com.grookage.leia.http.processor.utils.HttpClientUtils;
 import com.grookage.leia.http.processor.utils.HttpRequestUtils;
 import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.breaker.CircuitBreaker;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.leansoft.bigqueue.BigQueueImpl;
 import com.leansoft.bigqueue.IBigQueue;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.HttpResponseException;
 import org.apache.hc.client5.http.fluent.Request;
-import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpStatus;
-import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.message.BasicHeader;
-import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.Timeout;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.function.UnaryOperator;
 
-@AllArgsConstructor
 @Slf4j
 @Getter
 public abstract class HttpMessageExecutor<T> extends MessageExecutor {
@@ -65,8 +83,15 @@ public abstract class HttpMessageExecutor<T> extends MessageExecutor {
 	private final HttpBackendConfig backendConfig;
 	private final Supplier<String> authSupplier;
 	private final ObjectMapper mapper;
+	private final RetryPolicy retryPolicy;
+	/*
+		Only set when handed in. Otherwise a retryer is built per send from the retry policy, so that its waits are
+		bound by the deadline of the send.
+	 */
 	private final Retryer<String> retryer;
 	private QueuedSender queuedSender;
+	@Getter(AccessLevel.NONE)
+	private final AtomicReference<HttpRequestTemplate> requestTemplate = new AtomicReference<>();
 
 	protected HttpMessageExecutor(HttpBackendConfig backendConfig,
 	                              Supplier<String> authSupplier,
@@ -76,58 +101,101 @@ public abstract class HttpMessageExecutor<T> extends MessageExecutor {
 		this.backendConfig = backendConfig;
 		this.authSupplier = authSupplier;
 		this.mapper = mapper;
-		this.retryer = RetryerBuilder.<String>newBuilder()
+		this.retryPolicy = newRetryPolicy(backendConfig);
+		this.retryer = null;
+		if (null != backendConfig.getCircuitBreaker()) {
+			setCircuitBreaker(new CircuitBreaker(name, backendConfig.getCircuitBreaker()));
+		}
+		if (backendConfig.getBackendType() == BackendType.QUEUED) {
+			this.queuedSender = new QueuedSender(backendConfig, mapper, getCircuitBreaker(),
+					messages -> execute(messages, Deadline.none(), this::executeRequest, getCircuitBreaker()));
+		}
+	}
+
+	/*
+		The retryer is used as is for every send, in place of the retries of the retry config
+	 */
+	public HttpMessageExecutor(String name,
+	                           HttpBackendConfig backendConfig,
+	                           Supplier<String> authSupplier,
+	                           ObjectMapper mapper,
+	                           Retryer<String> retryer,
+	                           QueuedSender queuedSender) {
+		super();
+		this.name = name;
+		this.backendConfig = backendConfig;
+		this.authSupplier = authSupplier;
+		this.mapper = mapper;
+		this.retryPolicy = newRetryPolicy(backendConfig);
+		this.retryer = retryer;
+		this.queuedSender = queuedSender;
+	}
+
+	private static RetryPolicy newRetryPolicy(HttpBackendConfig backendConfig) {
+		return new RetryPolicy(null == backendConfig.getRetry() ? RetryConfig.builder().build() : backendConfig.getRetry(),
+				backendConfig.getRetryCount());
+	}
+
+	/*
+		The stop strategy draws the wait before the next attempt, as whether to retry depends on it ending before the
+		deadline, and the wait strategy hands it over
+	 */
+	private Retryer<String> newRetryer(Deadline deadline) {
+		final var backoffMs = new AtomicLong();
+		return RetryerBuilder.<String>newBuilder()
 				.retryIfExceptionOfType(HttpResponseException.class)
-				.withWaitStrategy(
-						WaitStrategies.fixedWait(0, TimeUnit.MILLISECONDS))
-				.withStopStrategy(StopStrategies.stopAfterAttempt(backendConfig.getRetryCount()))
+				.withStopStrategy(attempt -> {
+					final var next = retryPolicy.nextBackoffMs((int) attempt.getAttemptNumber(),
+							attempt.hasException() ? attempt.getExceptionCause() : null, deadline);
+					next.ifPresent(backoffMs::set);
+					return next.isEmpty();
+				})
+				.withWaitStrategy(attempt -> backoffMs.get())
 				.withBlockStrategy(BlockStrategies.threadSleepStrategy())
 				.build();
+	}
+
+	/*
+		In the queued mode the circuit breaker guards the flushes, the messages are still enqueued while it is open
+	 */
+	@Override
+	public ExecutionOutcome execute(List<LeiaMessage> messages, Deadline deadline) {
 		if (backendConfig.getBackendType() == BackendType.QUEUED) {
-			this.queuedSender = new QueuedSender(backendConfig, mapper, messages -> {
-				executeRequest(messages);
-				return messages;
-			});
+			return execute(messages, deadline, this::sendEnvelope, null);
 		}
+		return super.execute(messages, deadline);
 	}
 
 	public abstract T getRequestData(LeiaHttpEntity leiaHttpEntity);
 
 	public abstract Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig);
 
+	/*
+		Throws the failure of the last attempt, the exception handling is left to execute so that the circuit breaker
+		sees the failure. Every attempt first checks the deadline, an expired one fails with DEADLINE_EXCEEDED, which
+		the retryer doesn't retry, and the response timeout of an attempt is capped at what is left of the deadline.
+		The waits between attempts and the retry budget come from the RetryPolicy, a wait that would outlast the
+		deadline ends the retries instead.
+	 */
 	@SneakyThrows
-	private void executeRequest(List<LeiaMessage> messages) {
+	private void executeRequest(List<LeiaMessage> messages, Deadline deadline) {
+		final var entity = createEntity(messages);
 		try {
-			retryer.call(() -> {
-				final var leiaHttpEntity = HttpRequestUtils.toHttpEntity(messages, backendConfig);
-				final var requestData = getRequestData(leiaHttpEntity);
-				final var endPoint = getEndPoint(backendConfig).orElse(null);
-				if (null == endPoint) {
-					log.debug("No valid end point found for backendConfig {}", backendConfig);
-					throw LeiaException.error(LeiaHttpErrorCode.INVALID_ENDPOINT);
+			(null != retryer ? retryer : newRetryer(deadline)).call(() -> {
+				if (deadline.isExpired()) {
+					throw LeiaException.error(LeiaProcessorErrorCode.DEADLINE_EXCEEDED);
 				}
-				final var httpUrl = new URIBuilder()
-						.setScheme(endPoint.isSecure()
-								? "https"
-								: "http")
-						.setHost(endPoint.getHost())
-						.setPort(endPoint.getPort() == 0
-								? endPoint.defaultPort()
-								: endPoint.getPort())
-						.setPath(endPoint.getUri())
-						.build();
-				var request = Request.post(httpUrl)
-						.body(new ByteArrayEntity(mapper.writeValueAsBytes(requestData), ContentType.APPLICATION_JSON))
-						.addHeader("Authorization", authSupplier.get());
-				if (backendConfig.headersProvided()) {
-					request = request.setHeaders(backendConfig.getHeaders()
-							.entrySet().stream().map(each -> new BasicHeader(each.getKey(), each.getValue()))
-							.toArray(BasicHeader[]::new));
+				final var template = getRequestTemplate();
+				var request = Request.post(template.getUri())
+						.body(entity)
+						.setHeaders(template.getHeaders());
+				if (deadline.isBounded()) {
+					request = request.responseTimeout(responseTimeout(deadline));
 				}
 				final var response = HttpClientUtils.getExecutor().execute(request).handleResponse(httpResponse -> {
 					final var code = httpResponse.getCode();
 					if (code >= HttpStatus.SC_REDIRECTION) {
-						throw new HttpResponseException(code, httpResponse.getReasonPhrase());
+						throw RetryPolicy.toException(httpResponse);
 					}
 					final var responseEntity = httpResponse.getEntity();
 					return null == responseEntity ? null : EntityUtils.toString(responseEntity);
@@ -135,18 +203,76 @@ public abstract class HttpMessageExecutor<T> extends MessageExecutor {
 				log.debug("Call to backend with backendConfig {} was successful and returned response {}", backendConfig, response);
 				return response;
 			});
+			retryPolicy.onSuccess();
 		} catch (Exception e) {
 			log.error("Sending message to the backend {} has failed with exception {}", backendConfig.getBackendName(), e.getMessage(), e);
-			handleException(messages, e.getCause() != null ? (Exception) e.getCause() : e);
+			throw e.getCause() instanceof Exception cause ? cause : e;
+		}
+	}
+
+	protected Object toRequestData(List<LeiaMessage> messages) {
+		return getRequestData(HttpRequestUtils.toHttpEntity(messages, backendConfig));
+	}
+
+	/*
+		Built once per send and replayed by every attempt. An unencoded body is streamed into the connection, an
+		encoded one is compressed once into chunks.
+	 */
+	protected HttpEntity createEntity(List<LeiaMessage> messages) throws IOException {
+		final var requestData = toRequestData(messages);
+		if (backendConfig.getContentEncoding() == ContentEncoding.NONE) {
+			return new JsonStreamingEntity(mapper, requestData);
+		}
+		return EncodedBody.encode(mapper, requestData, backendConfig.getContentEncoding()).toEntity();
+	}
+
+	/*
+		The end point is still asked for on every request, as it may come from a discovery provider, but the template
+		is only rebuilt when it changes
+	 */
+	protected HttpRequestTemplate getRequestTemplate() throws URISyntaxException {
+		final var endPoint = getEndPoint(backendConfig).orElse(null);
+		if (null == endPoint) {
+			log.debug("No valid end point found for backendConfig {}", backendConfig);
+			throw LeiaException.error(LeiaHttpErrorCode.INVALID_ENDPOINT);
+		}
+		final var current = requestTemplate.get();
+		if (null != current && current.matches(endPoint)) {
+			return current;
+		}
+		final var template = HttpRequestTemplate.of(backendConfig, endPoint, authSupplier);
+		requestTemplate.set(template);
+		return template;
+	}
+
+	protected static Timeout responseTimeout(Deadline deadline) {
+		final var operationTimeoutMs = HttpClientUtils.getOperationTimeoutMs();
+		final var remainingMs = deadline.remaining(TimeUnit.MILLISECONDS);
+		return Timeout.ofMilliseconds(Math.max(1L, operationTimeoutMs > 0
+				? Math.min(operationTimeoutMs, remainingMs)
+				: remainingMs));
+	}
+
+	/*
+		Stops the drainers of the queued mode, a no-op otherwise
+	 */
+	public void stop() {
+		if (null != queuedSender) {
+			queuedSender.stop();
 		}
 	}
 
 	public void sendEnvelope(List<LeiaMessage> messages) {
+		sendEnvelope(messages, Deadline.none());
+	}
+
+	@Override
+	public void sendEnvelope(List<LeiaMessage> messages, Deadline deadline) {
 		final var backendType = backendConfig.getBackendType();
 		backendType.apply(new BackendType.BackendTypeVisitor() {
 			@Override
 			public void sync() {
-				executeRequest(messages);
+				executeRequest(messages, deadline);
 			}
 
 			@Override
@@ -157,65 +283,312 @@ public abstract class HttpMessageExecutor<T> extends MessageExecutor {
 		});
 	}
 
+	/*
+		Messages are enqueued to a BigQueue and drained by queueDrainers FlushRunners. A drainer wakes up every
+		queueFlushIntervalMs, or as soon as queueThreshold messages or queueFlushBytes bytes are pending, and flushes
+		batches until the queue is empty. When queueMaxBatchSize is above queueThreshold, the batch size adapts to the
+		backend: full batches that flush within queueTargetLatencyMs grow it by queueThreshold, slow or failed flushes
+		halve it, never below queueThreshold. While the circuit breaker, if any, is open the messages stay queued.
+	 */
 	public static class QueuedSender {
+		private static final long STOP_TIMEOUT_MS = 5_000;
+
 		private final IBigQueue messageQueue;
 		private final ObjectMapper mapper;
+		private final HttpBackendConfig backendConfig;
+		private final Semaphore wakeUps = new Semaphore(0);
+		/*
+			Only count what was enqueued since the start, entries left over from an earlier run are picked up by the
+			timer
+		 */
+		private final AtomicLong pendingMessages = new AtomicLong();
+		private final AtomicLong pendingBytes = new AtomicLong();
+		private final AtomicLong drainedMessages = new AtomicLong();
+		private final AtomicInteger batchSize;
+		private final int minBatchSize;
+		private final int maxBatchSize;
+		private final ExecutorService drainerPool;
+		private final ScheduledExecutorService scheduler;
+		private final CircuitBreaker circuitBreaker;
+		/*
+			Held for reading around every use of the queue by the drainers and the maintenance tasks, and for writing
+			while closing it, so that a drainer that outlives stop() never touches a closed queue
+		 */
+		private final ReadWriteLock queueLock = new ReentrantReadWriteLock();
+		private volatile boolean stopped;
+		@Getter
+		private volatile long drainRate;
+		private long lastDrainedMessages;
+
+		public QueuedSender(final HttpBackendConfig backendConfig,
+		                    final ObjectMapper mapper,
+		                    final Function<List<LeiaMessage>, ExecutionOutcome> messageOperator) {
+			this(backendConfig, mapper, null, messageOperator);
+		}
 
 		@SneakyThrows
 		public QueuedSender(final HttpBackendConfig backendConfig,
 		                    final ObjectMapper mapper,
-		                    final UnaryOperator<List<LeiaMessage>> messageOperator) {
+		                    final CircuitBreaker circuitBreaker,
+		                    final Function<List<LeiaMessage>, ExecutionOutcome> messageOperator) {
 			final var perms = PosixFilePermissions.fromString("rwxrwxrwx");
 			final var attr = PosixFilePermissions.asFileAttribute(perms);
 			Files.createDirectories(Paths.get(backendConfig.getQueuePath()), attr);
 			this.mapper = mapper;
+			this.backendConfig = backendConfig;
+			this.circuitBreaker = circuitBreaker;
 			this.messageQueue = new BigQueueImpl(backendConfig.getQueuePath(), backendConfig.getBackendName());
-			final var flushRunner = new FlushRunner(mapper, messageQueue, backendConfig, messageOperator);
-			final var scheduler = Executors.newScheduledThreadPool(2);
-			scheduler.scheduleWithFixedDelay(flushRunner, 0, 1, TimeUnit.SECONDS);
-			scheduler.scheduleWithFixedDelay(new GcRunner(messageQueue), 0, 15, TimeUnit.SECONDS);
+			this.minBatchSize = Math.max(1, backendConfig.getQueueThreshold());
+			this.maxBatchSize = Math.max(minBatchSize, backendConfig.getQueueMaxBatchSize());
+			this.batchSize = new AtomicInteger(minBatchSize);
+			final var drainers = Math.max(1, backendConfig.getQueueDrainers());
+			this.drainerPool = Executors.newFixedThreadPool(drainers, new ThreadFactoryBuilder()
+					.setNameFormat("leia-queue-drainer-%d")
+					.setDaemon(true)
+					.build());
+			for (int i = 0; i < drainers; i++) {
+				drainerPool.execute(new FlushRunner(this, messageOperator));
+			}
+			this.scheduler = Executors.newScheduledThreadPool(1, new ThreadFactoryBuilder()
+					.setNameFormat("leia-queue-maintenance-%d")
+					.setDaemon(true)
+					.build());
+			scheduler.scheduleWithFixedDelay(this::updateDrainRate, 1, 1, TimeUnit.SECONDS);
+			final var gcRunner = new GcRunner(messageQueue);
+			scheduler.scheduleWithFixedDelay(() -> whileOpen(gcRunner), 0, 15, TimeUnit.SECONDS);
 		}
 
 		@SneakyThrows
 		public void send(List<LeiaMessage> messages) {
-			this.messageQueue.enqueue(mapper.writeValueAsBytes(messages));
+			final var bytes = mapper.writeValueAsBytes(messages);
+			this.messageQueue.enqueue(bytes);
+			pendingMessages.addAndGet(messages.size());
+			pendingBytes.addAndGet(bytes.length);
+			wakeUpIfDue();
+		}
+
+		/*
+			Stops the drainers and closes the queue, what is left in it is drained on the next start. A drainer that is
+			still flushing finishes its batch but doesn't dequeue another, and the queue is closed only once no drainer
+			is using it.
+		 */
+		@SneakyThrows
+		public void stop() {
+			stopped = true;
+			drainerPool.shutdownNow();
+			scheduler.shutdownNow();
+			if (!drainerPool.awaitTermination(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+				log.warn("The drainers of backend {} didn't stop in {}ms, closing the queue once they are off it",
+						backendConfig.getBackendName(), STOP_TIMEOUT_MS);
+			}
+			queueLock.writeLock().lock();
+			try {
+				messageQueue.close();
+			} finally {
+				queueLock.writeLock().unlock();
+			}
+		}
+
+		private void whileOpen(Runnable queueTask) {
+			queueLock.readLock().lock();
+			try {
+				if (!stopped) {
+					queueTask.run();
+				}
+			} finally {
+				queueLock.readLock().unlock();
+			}
+		}
+
+		private void wakeUpIfDue() {
+			if ((pendingMessages.get() >= batchSize.get() || pendingBytes.get() >= backendConfig.getQueueFlushBytes())
+					&& wakeUps.availablePermits() == 0) {
+				wakeUps.release();
+			}
+		}
+
+		public long getQueueDepth() {
+			return messageQueue.size();
+		}
+
+		public long getPendingMessages() {
+			return pendingMessages.get();
+		}
+
+		public long getPendingBytes() {
+			return pendingBytes.get();
+		}
+
+		public long getDrainedMessages() {
+			return drainedMessages.get();
+		}
+
+		public int getBatchSize() {
+			return batchSize.get();
+		}
+
+		/*
+			Dequeues entries until the batch reaches the batch size or the byte threshold, an entry holds all the
+			messages of one send, so a batch may overshoot either. An entry that can't be read is skipped on its own,
+			and a failed dequeue still hands over the entries dequeued before it.
+		 */
+		private List<LeiaMessage> nextBatch() throws IOException {
+			queueLock.readLock().lock();
+			try {
+				return stopped ? List.of() : dequeueBatch();
+			} finally {
+				queueLock.readLock().unlock();
+			}
+		}
+
+		private List<LeiaMessage> dequeueBatch() throws IOException {
+			final var messages = new ArrayList<LeiaMessage>();
+			final var limit = batchSize.get();
+			var bytes = 0L;
+			while (messages.size() < limit && bytes < backendConfig.getQueueFlushBytes()) {
+				final byte[] entry;
+				try {
+					entry = messageQueue.dequeue();
+				} catch (IOException e) {
+					if (messages.isEmpty()) {
+						throw e;
+					}
+					log.error("Dequeue failed for backend {}, flushing the batch read so far", backendConfig.getBackendName(), e);
+					break;
+				}
+				if (null == entry) {
+					break;
+				}
+				bytes += entry.length;
+				try {
+					messages.addAll(mapper.readValue(entry, new TypeReference<List<LeiaMessage>>() {
+					}));
+				} catch (IOException e) {
+					log.error("Skipping an unreadable entry of {} bytes in the queue of backend {}", entry.length,
+							backendConfig.getBackendName(), e);
+				}
+			}
+			final var messageCount = messages.size();
+			final var byteCount = bytes;
+			pendingMessages.updateAndGet(current -> Math.max(0, current - messageCount));
+			pendingBytes.updateAndGet(current -> Math.max(0, current - byteCount));
+			/*
+				Hands the rest of a backlog to an idle drainer
+			 */
+			wakeUpIfDue();
+			return messages;
+		}
+
+		private boolean isDrained() {
+			queueLock.readLock().lock();
+			try {
+				return stopped || messageQueue.isEmpty();
+			} finally {
+				queueLock.readLock().unlock();
+			}
+		}
+
+		private boolean isFlushPermitted() {
+			return null == circuitBreaker || circuitBreaker.isCallPermitted();
+		}
+
+		void onFlush(int messageCount, int limit, boolean success, long latencyMs) {
+			if (success) {
+				drainedMessages.addAndGet(messageCount);
+			}
+			if (maxBatchSize == minBatchSize) {
+				return;
+			}
+			if (!success || latencyMs > backendConfig.getQueueTargetLatencyMs()) {
+				batchSize.updateAndGet(current -> Math.max(minBatchSize, current / 2));
+			} else if (messageCount >= limit) {
+				batchSize.updateAndGet(current -> Math.min(maxBatchSize, current + minBatchSize));
+			}
+		}
+
+		private synchronized void updateDrainRate() {
+			final var drained = drainedMessages.get();
+			drainRate = drained - lastDrainedMessages;
+			lastDrainedMessages = drained;
 		}
 	}
 
+	/*
+		A drainer. A failed flush, an open circuit, or a failure of the queue itself, ends the pass and the drainer
+		sleeps out the flush interval, so that an unhealthy backend doesn't empty the whole queue into the exception
+		handler and a broken queue isn't spun on.
+	 */
 	public static class FlushRunner implements Runnable {
 
-		private final IBigQueue queue;
-		private final ObjectMapper mapper;
+		private final QueuedSender sender;
 		private final HttpBackendConfig backendConfig;
-		private final UnaryOperator<List<LeiaMessage>> messageOperator;
+		private final Function<List<LeiaMessage>, ExecutionOutcome> messageOperator;
 
-		public FlushRunner(ObjectMapper mapper,
-		                   IBigQueue queue,
-		                   HttpBackendConfig backendConfig,
-		                   UnaryOperator<List<LeiaMessage>> messageOperator) {
-			this.queue = queue;
-			this.mapper = mapper;
-			this.backendConfig = backendConfig;
+		public FlushRunner(QueuedSender sender,
+		                   Function<List<LeiaMessage>, ExecutionOutcome> messageOperator) {
+			this.sender = sender;
+			this.backendConfig = sender.backendConfig;
 			this.messageOperator = messageOperator;
 		}
 
 		@Override
 		public void run() {
-			try {
-				var messages = new ArrayList<LeiaMessage>();
-				while (messages.size() < backendConfig.getQueueThreshold() && !queue.isEmpty()) {
-					final var dqMessages = mapper.readValue(queue.dequeue(), new TypeReference<List<LeiaMessage>>() {
-					});
-					messages.addAll(dqMessages);
+			while (!sender.stopped && !Thread.currentThread().isInterrupted()) {
+				try {
+					if (drain()) {
+						sender.wakeUps.tryAcquire(backendConfig.getQueueFlushIntervalMs(), TimeUnit.MILLISECONDS);
+					} else {
+						Thread.sleep(backendConfig.getQueueFlushIntervalMs());
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (Exception e) {
+					log.error("Queue flush failed for backend config {} with exception", backendConfig, e);
+					pause();
 				}
+			}
+		}
 
-				if (!messages.isEmpty()) {
-					messageOperator.apply(messages);
+		private void pause() {
+			try {
+				Thread.sleep(backendConfig.getQueueFlushIntervalMs());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		/*
+			Returns false when a flush failed, or when the circuit is open, in which case nothing is dequeued. A batch
+			can come back empty with entries still queued, when all the entries it read were unreadable. A stopped
+			sender ends the pass after the batch in flight.
+		 */
+		private boolean drain() throws IOException {
+			while (!sender.stopped) {
+				if (!sender.isFlushPermitted()) {
+					return false;
+				}
+				final var limit = sender.batchSize.get();
+				final var messages = sender.nextBatch();
+				if (messages.isEmpty()) {
+					if (sender.isDrained()) {
+						return true;
+					}
+					continue;
+				}
+				final var startMs = System.currentTimeMillis();
+				var success = false;
+				try {
+					final var outcome = messageOperator.apply(messages);
+					success = null != outcome && outcome.isSuccess();
+				} catch (Exception e) {
+					log.error("Queue flush failed for backend config {} with exception", backendConfig, e);
+				}
+				sender.onFlush(messages.size(), limit, success, System.currentTimeMillis() - startMs);
+				if (!success) {
+					return false;
 				}
-			} catch (Exception e) {
-				log.error("Queue flush failed for backend config {} with exception", backendConfig, e);
-				throw LeiaException.error(LeiaHttpErrorCode.QUEUE_SEND_FAILED);
 			}
+			return true;
 		}
 	}
 
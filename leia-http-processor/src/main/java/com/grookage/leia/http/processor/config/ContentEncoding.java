@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public enum ContentEncoding {
+
+	NONE(null) {
+		public OutputStream wrap(OutputStream outputStream) {
+			return outputStream;
+		}
+	},
+
+	GZIP("gzip") {
+		public OutputStream wrap(OutputStream outputStream) throws IOException {
+			return new GZIPOutputStream(outputStream, BUFFER_SIZE);
+		}
+	},
+
+	DEFLATE("deflate") {
+		public OutputStream wrap(OutputStream outputStream) {
+			return new DeflaterOutputStream(outputStream);
+		}
+	};
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/*
+		The value of the Content-Encoding header, null when the body isn't encoded
+	 */
+	private final String headerValue;
+
+	ContentEncoding(String headerValue) {
+		this.headerValue = headerValue;
+	}
+
+	public String getHeaderValue() {
+		return headerValue;
+	}
+
+	public abstract OutputStream wrap(OutputStream outputStream) throws IOException;
+}
@@ -18,6 +18,7 @@ package com.grookage.leia.http.processor.config;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.grookage.leia.mux.breaker.CircuitBreakerConfig;
 import lombok.Builder;
 import lombok.Data;
 import lombok.ToString;
@@ -51,8 +52,29 @@ public class HttpBackendConfig {
 	String queuePath = "leia-messages";
 	@Builder.Default
 	int queueThreshold = 5;
+	/*
+		See HttpMessageExecutor.QueuedSender, a queueMaxBatchSize at or below queueThreshold keeps the batch size fixed
+	 */
+	@Builder.Default
+	int queueDrainers = 1;
+	@Builder.Default
+	long queueFlushIntervalMs = 1_000;
+	@Builder.Default
+	long queueFlushBytes = 1_048_576;
+	@Builder.Default
+	int queueMaxBatchSize = 0;
+	@Builder.Default
+	long queueTargetLatencyMs = 500;
 	@Builder.Default
 	Map<String, String> headers = new HashMap<>();
+	@Builder.Default
+	ContentEncoding contentEncoding = ContentEncoding.NONE;
+	@Builder.Default
+	RetryConfig retry = RetryConfig.builder().build();
+	/*
+		No circuit breaker when not set
+	 */
+	CircuitBreakerConfig circuitBreaker;
 
 	@JsonIgnore
 	public boolean headersProvided() {
@@ -21,6 +21,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Builder;
 import lombok.Value;
 import lombok.extern.jackson.Jacksonized;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
 
 import javax.validation.constraints.NotEmpty;
 import java.util.List;
@@ -51,6 +52,11 @@ public class HttpClientConfig {
 	@Builder.Default
 	boolean failOnUnavailableBackend = true;
 	long messageProcessingThresholdMs = 10_000L;
+	/*
+		Used by the async client only, FORCE_HTTP_2 multiplexes the sends to a backend over a single connection
+	 */
+	@Builder.Default
+	HttpVersionPolicy versionPolicy = HttpVersionPolicy.FORCE_HTTP_1;
 	@NotEmpty
 	List<HttpBackendConfig> backendConfigs;
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+/*
+	The wait before the nth retry is drawn uniformly from 0 to initialBackoffMs * backoffMultiplier^(n - 1), capped at
+	maxBackoffMs. A Retry-After on a 429 or 503 replaces the drawn wait, up to maxRetryAfterMs.
+
+	Every successful send adds budgetRatio tokens to the backend's retry budget and every retry takes one, so retries
+	are held to budgetRatio of the successful traffic. The budget starts full, at budgetCapacity tokens, and a
+	budgetRatio of 0 turns it off.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RetryConfig {
+	@Builder.Default
+	long initialBackoffMs = 50;
+	@Builder.Default
+	long maxBackoffMs = 2_000;
+	@Builder.Default
+	double backoffMultiplier = 2;
+	@Builder.Default
+	boolean honourRetryAfter = true;
+	@Builder.Default
+	long maxRetryAfterMs = 30_000;
+	@Builder.Default
+	double budgetRatio = 0.2;
+	@Builder.Default
+	int budgetCapacity = 10;
+}
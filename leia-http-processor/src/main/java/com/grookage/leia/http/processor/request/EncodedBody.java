@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.request;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.http.processor.config.ContentEncoding;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/*
+	A serialized, and optionally compressed, request body. It is held in fixed size chunks rather than a single array,
+	so that a body of several MBs doesn't need a humongous allocation, and is encoded once and replayed on every
+	attempt.
+ */
+public class EncodedBody {
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	private final List<byte[]> chunks;
+	private final int lastChunkSize;
+	private final long length;
+	private final ContentEncoding encoding;
+
+	private EncodedBody(List<byte[]> chunks, int lastChunkSize, ContentEncoding encoding) {
+		this.chunks = chunks;
+		this.lastChunkSize = lastChunkSize;
+		this.length = chunks.isEmpty() ? 0 : (long) (chunks.size() - 1) * CHUNK_SIZE + lastChunkSize;
+		this.encoding = encoding;
+	}
+
+	public static EncodedBody encode(ObjectMapper mapper, Object requestData, ContentEncoding encoding) throws IOException {
+		final var outputStream = new ChunkedOutputStream();
+		try (final var encoded = encoding.wrap(outputStream)) {
+			mapper.writer()
+					.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+					.writeValue(encoded, requestData);
+		}
+		return new EncodedBody(outputStream.chunks, outputStream.position, encoding);
+	}
+
+	public long length() {
+		return length;
+	}
+
+	private int chunkSize(int index) {
+		return index == chunks.size() - 1 ? lastChunkSize : CHUNK_SIZE;
+	}
+
+	public void writeTo(OutputStream outputStream) throws IOException {
+		for (int i = 0; i < chunks.size(); i++) {
+			outputStream.write(chunks.get(i), 0, chunkSize(i));
+		}
+	}
+
+	public InputStream getInputStream() {
+		final var streams = new ArrayList<InputStream>(chunks.size());
+		for (int i = 0; i < chunks.size(); i++) {
+			streams.add(new ByteArrayInputStream(chunks.get(i), 0, chunkSize(i)));
+		}
+		return new SequenceInputStream(Collections.enumeration(streams));
+	}
+
+	/*
+		Repeatable, the chunks are written out again on every attempt
+	 */
+	public HttpEntity toEntity() {
+		return new AbstractHttpEntity(ContentType.APPLICATION_JSON, encoding.getHeaderValue()) {
+			@Override
+			public InputStream getContent() {
+				return getInputStream();
+			}
+
+			@Override
+			public void writeTo(OutputStream outputStream) throws IOException {
+				EncodedBody.this.writeTo(outputStream);
+			}
+
+			@Override
+			public long getContentLength() {
+				return length;
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return true;
+			}
+
+			@Override
+			public boolean isStreaming() {
+				return false;
+			}
+
+			@Override
+			public void close() {
+				/*
+					Nothing to release, the chunks are reused across attempts
+				 */
+			}
+		};
+	}
+
+	/*
+		A producer tracks how far it has written, so every attempt needs one of its own
+	 */
+	public AsyncEntityProducer toProducer() {
+		return new ChunkProducer();
+	}
+
+	private static class ChunkedOutputStream extends OutputStream {
+
+		private final List<byte[]> chunks = new ArrayList<>();
+		private byte[] current;
+		private int position;
+
+		private void ensureCapacity() {
+			if (null == current || position == CHUNK_SIZE) {
+				current = new byte[CHUNK_SIZE];
+				chunks.add(current);
+				position = 0;
+			}
+		}
+
+		@Override
+		public void write(int b) {
+			ensureCapacity();
+			current[position++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			var remaining = length;
+			var from = offset;
+			while (remaining > 0) {
+				ensureCapacity();
+				final var count = Math.min(remaining, CHUNK_SIZE - position);
+				System.arraycopy(bytes, from, current, position, count);
+				position += count;
+				from += count;
+				remaining -= count;
+			}
+		}
+	}
+
+	private class ChunkProducer implements AsyncEntityProducer {
+
+		private int index;
+		private ByteBuffer buffer;
+
+		@Override
+		public boolean isRepeatable() {
+			return false;
+		}
+
+		@Override
+		public long getContentLength() {
+			return length;
+		}
+
+		@Override
+		public String getContentType() {
+			return ContentType.APPLICATION_JSON.toString();
+		}
+
+		@Override
+		public String getContentEncoding() {
+			return encoding.getHeaderValue();
+		}
+
+		@Override
+		public boolean isChunked() {
+			return false;
+		}
+
+		@Override
+		public Set<String> getTrailerNames() {
+			return Set.of();
+		}
+
+		/*
+			Every chunk but the last is full, so the chunks before index account for index * CHUNK_SIZE bytes
+		 */
+		@Override
+		public int available() {
+			if (index >= chunks.size()) {
+				return 0;
+			}
+			final var consumed = null == buffer ? 0 : buffer.position();
+			return (int) Math.min(Integer.MAX_VALUE, length - (long) index * CHUNK_SIZE - consumed);
+		}
+
+		@Override
+		public void produce(DataStreamChannel channel) throws IOException {
+			while (index < chunks.size()) {
+				if (null == buffer) {
+					buffer = ByteBuffer.wrap(chunks.get(index), 0, chunkSize(index)).slice();
+				}
+				channel.write(buffer);
+				if (buffer.hasRemaining()) {
+					return;
+				}
+				buffer = null;
+				index++;
+			}
+			channel.endStream();
+		}
+
+		@Override
+		public void failed(Exception cause) {
+			/*
+				Nothing to release, a new producer is created for the next attempt
+			 */
+		}
+
+		@Override
+		public void releaseResources() {
+			buffer = null;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.request;
+
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
+import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.net.URIBuilder;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.function.Supplier;
+
+/*
+	What a request to a backend's end point is made of, other than the body. Built once per end point, the
+	Authorization header is the only part that is resolved per request, through the auth supplier, as tokens rotate.
+	The configured headers, when provided, replace the Authorization header.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class HttpRequestTemplate {
+
+	@Getter
+	private final LeiaHttpEndPoint endPoint;
+	@Getter
+	private final URI uri;
+	private final Header[] configuredHeaders;
+	private final Supplier<String> authSupplier;
+
+	public static HttpRequestTemplate of(HttpBackendConfig backendConfig,
+	                                     LeiaHttpEndPoint endPoint,
+	                                     Supplier<String> authSupplier) throws URISyntaxException {
+		final var uri = new URIBuilder()
+				.setScheme(endPoint.isSecure()
+						? "https"
+						: "http")
+				.setHost(endPoint.getHost())
+				.setPort(endPoint.getPort() == 0
+						? endPoint.defaultPort()
+						: endPoint.getPort())
+				.setPath(endPoint.getUri())
+				.build();
+		final var configuredHeaders = backendConfig.headersProvided()
+				? backendConfig.getHeaders().entrySet().stream()
+				.map(each -> new BasicHeader(each.getKey(), each.getValue()))
+				.toArray(Header[]::new)
+				: null;
+		return new HttpRequestTemplate(endPoint, uri, configuredHeaders, authSupplier);
+	}
+
+	public boolean matches(LeiaHttpEndPoint endPoint) {
+		return this.endPoint == endPoint || this.endPoint.equals(endPoint);
+	}
+
+	/*
+		The configured headers are shared across requests, the request builders copy them
+	 */
+	public Header[] getHeaders() {
+		if (null != configuredHeaders) {
+			return configuredHeaders;
+		}
+		return new Header[]{new BasicHeader("Authorization", authSupplier.get())};
+	}
+}
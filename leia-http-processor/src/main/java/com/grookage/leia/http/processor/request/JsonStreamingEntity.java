@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.request;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.grookage.leia.http.processor.config.ContentEncoding;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/*
+	Serializes the request data straight into the connection's output stream, without an in-heap copy of the body.
+	Repeatable, an attempt serializes it again. The length isn't known upfront, so the body is sent chunked.
+ */
+public class JsonStreamingEntity extends AbstractHttpEntity {
+
+	private final ObjectWriter writer;
+	private final ObjectMapper mapper;
+	private final Object requestData;
+
+	public JsonStreamingEntity(ObjectMapper mapper, Object requestData) {
+		super(ContentType.APPLICATION_JSON, null, true);
+		this.mapper = mapper;
+		this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.requestData = requestData;
+	}
+
+	@Override
+	public void writeTo(OutputStream outputStream) throws IOException {
+		writer.writeValue(outputStream, requestData);
+		outputStream.flush();
+	}
+
+	/*
+		Only used when something reads the body back, such as a logging interceptor
+	 */
+	@Override
+	public InputStream getContent() throws IOException {
+		return EncodedBody.encode(mapper, requestData, ContentEncoding.NONE).getInputStream();
+	}
+
+	@Override
+	public long getContentLength() {
+		return -1;
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	@Override
+	public void close() {
+		/*
+			Nothing to release, the request data is serialized on demand
+		 */
+	}
+}
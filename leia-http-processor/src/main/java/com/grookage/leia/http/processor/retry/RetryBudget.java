@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+	A token bucket shared by all the sends to a backend. Successes deposit ratio tokens, each retry withdraws a whole
+	one, and the balance never grows past the capacity, so a backend that starts failing can only be retried until the
+	credit earned while it was healthy runs out. Tokens are kept in thousandths to stay on a single AtomicLong.
+ */
+public class RetryBudget {
+
+	private static final long SCALE = 1_000;
+
+	private final long deposit;
+	private final long capacity;
+	private final AtomicLong balance;
+
+	public RetryBudget(double ratio, int capacity) {
+		this.deposit = Math.round(ratio * SCALE);
+		this.capacity = capacity * SCALE;
+		this.balance = new AtomicLong(this.capacity);
+	}
+
+	public void onSuccess() {
+		balance.accumulateAndGet(deposit, (current, tokens) -> Math.min(capacity, current + tokens));
+	}
+
+	public boolean tryWithdraw() {
+		while (true) {
+			final var current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (balance.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+
+	public double getBalance() {
+		return (double) balance.get() / SCALE;
+	}
+}
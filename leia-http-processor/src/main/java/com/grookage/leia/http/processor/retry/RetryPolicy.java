@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.retry;
+
+import com.grookage.leia.http.processor.config.RetryConfig;
+import com.grookage.leia.http.processor.exception.RetryAfterException;
+import com.grookage.leia.mux.executor.Deadline;
+import lombok.Getter;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+	Decides whether a failed attempt is retried and how long to wait before it, the same policy backs the retryer of
+	the blocking sends and the retries of the async ones
+ */
+public class RetryPolicy {
+
+	private final RetryConfig config;
+	private final int maxAttempts;
+	@Getter
+	private final RetryBudget budget;
+
+	public RetryPolicy(RetryConfig config, int maxAttempts) {
+		this.config = config;
+		this.maxAttempts = maxAttempts;
+		this.budget = config.getBudgetRatio() > 0 ? new RetryBudget(config.getBudgetRatio(), config.getBudgetCapacity()) : null;
+	}
+
+	/*
+		The wait before the next attempt, empty when the failure isn't retried. Only failed responses are retried, and
+		only when the wait ends before the deadline, as the attempt would fail on the deadline right after it. The
+		budget is only drawn from once the other checks pass, so that a send which wouldn't have been retried anyway
+		doesn't spend a token.
+	 */
+	public OptionalLong nextBackoffMs(int attemptsMade, Throwable cause, Deadline deadline) {
+		if (!(cause instanceof HttpResponseException) || attemptsMade >= maxAttempts) {
+			return OptionalLong.empty();
+		}
+		final var backoffMs = backoffMs(attemptsMade, cause);
+		if (deadline.isBounded() && backoffMs >= deadline.remaining(TimeUnit.MILLISECONDS)) {
+			return OptionalLong.empty();
+		}
+		if (null != budget && !budget.tryWithdraw()) {
+			return OptionalLong.empty();
+		}
+		return OptionalLong.of(backoffMs);
+	}
+
+	public long backoffMs(int attemptsMade, Throwable cause) {
+		if (config.isHonourRetryAfter() && cause instanceof RetryAfterException retryAfter) {
+			return Math.min(retryAfter.getRetryAfterMs(), config.getMaxRetryAfterMs());
+		}
+		final var exponent = Math.max(0, attemptsMade - 1);
+		final var ceiling = Math.min((double) config.getMaxBackoffMs(),
+				config.getInitialBackoffMs() * Math.pow(config.getBackoffMultiplier(), exponent));
+		final var bound = (long) ceiling;
+		return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+	}
+
+	public void onSuccess() {
+		if (null != budget) {
+			budget.onSuccess();
+		}
+	}
+
+	public static HttpResponseException toException(HttpResponse response) {
+		final var code = response.getCode();
+		if (code == HttpStatus.SC_TOO_MANY_REQUESTS || code == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+			final var header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+			final var retryAfterMs = null == header ? Optional.<Long>empty() : retryAfterMs(header.getValue());
+			if (retryAfterMs.isPresent()) {
+				return new RetryAfterException(code, response.getReasonPhrase(), retryAfterMs.get());
+			}
+		}
+		return new HttpResponseException(code, response.getReasonPhrase());
+	}
+
+	/*
+		Retry-After is either a number of seconds or an HTTP date
+	 */
+	public static Optional<Long> retryAfterMs(String value) {
+		if (null == value || value.isBlank()) {
+			return Optional.empty();
+		}
+		try {
+			final var seconds = Long.parseLong(value.trim());
+			return Optional.of(seconds <= 0 ? 0L : seconds >= Long.MAX_VALUE / 1_000 ? Long.MAX_VALUE : seconds * 1_000);
+		} catch (NumberFormatException e) {
+			final var date = DateUtils.parseStandardDate(value.trim());
+			return null == date
+					? Optional.empty()
+					: Optional.of(Math.max(0L, Duration.between(Instant.now(), date).toMillis()));
+		}
+	}
+}
@@ -6,12 +6,19 @@ import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
 import org.apache.hc.client5.http.fluent.Executor;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 
 import java.util.concurrent.TimeUnit;
 
@@ -19,9 +26,37 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class HttpClientUtils {
 	static Executor executor;
+	static int operationTimeoutMs;
+	static HttpClientConfig clientConfig;
+	static CloseableHttpAsyncClient asyncClient;
 
-	public static void initialize(final HttpClientConfig httpClientConfig) {
+	public static synchronized void initialize(final HttpClientConfig httpClientConfig) {
 		executor = Executor.newInstance(getCloseableClient(httpClientConfig));
+		operationTimeoutMs = httpClientConfig.getOperationTimeout();
+		clientConfig = httpClientConfig;
+		if (null != asyncClient) {
+			asyncClient.close(CloseMode.GRACEFUL);
+			asyncClient = null;
+		}
+	}
+
+	/*
+		The async client runs its own io reactor threads, so it is only started once an async executor asks for it
+	 */
+	public synchronized CloseableHttpAsyncClient getAsyncClient() {
+		Preconditions.checkNotNull(clientConfig, "Client config seems to not have been initialized, please call initialize first");
+		if (null == asyncClient) {
+			asyncClient = getCloseableAsyncClient(clientConfig);
+			asyncClient.start();
+		}
+		return asyncClient;
+	}
+
+	/*
+		The response timeout requests get by default, a deadline can only shorten it
+	 */
+	public int getOperationTimeoutMs() {
+		return operationTimeoutMs;
 	}
 
 	public Executor getExecutor() {
@@ -54,4 +89,33 @@ public class HttpClientUtils {
 						.build())
 				.build();
 	}
+
+	public static CloseableHttpAsyncClient getCloseableAsyncClient(final HttpClientConfig clientConfig) {
+		return HttpAsyncClients.custom()
+				.setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+						.useSystemProperties()
+						.setMaxConnPerRoute(clientConfig.getMaxConnPerRoute())
+						.setMaxConnTotal(clientConfig.getMaxConnTotal())
+						.setDefaultConnectionConfig(ConnectionConfig.custom()
+								.setConnectTimeout(clientConfig.getConnectionTimeoutMs(), TimeUnit.MILLISECONDS)
+								.setSocketTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
+								.setValidateAfterInactivity(TimeValue.ofMilliseconds(clientConfig.getValidateAfterInactivityMs()))
+								.setTimeToLive(clientConfig.getTtlMs(), TimeUnit.MILLISECONDS)
+								.build())
+						.setDefaultTlsConfig(TlsConfig.custom()
+								.setVersionPolicy(clientConfig.getVersionPolicy())
+								.build())
+						.build())
+				.setIOReactorConfig(IOReactorConfig.custom()
+						.setTcpNoDelay(true)
+						.setSoTimeout(Timeout.ofMilliseconds(clientConfig.getOperationTimeout()))
+						.build())
+				.useSystemProperties()
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofMilliseconds(clientConfig.getIdleConnEvictMs()))
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setResponseTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
+						.build())
+				.build();
+	}
 }
@@ -17,11 +17,15 @@
 package com.grookage.leia.http.processor.utils;
 
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.Hashing;
 import com.grookage.leia.http.processor.config.HttpBackendConfig;
 import com.grookage.leia.http.processor.request.LeiaHttpEntity;
 import com.grookage.leia.http.processor.request.LeiaMessageEntity;
 import com.grookage.leia.models.mux.LeiaMessage;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.experimental.UtilityClass;
 
 import java.nio.charset.StandardCharsets;
@@ -30,11 +34,25 @@ import java.util.List;
 @UtilityClass
 public class HttpRequestUtils {
 
+	private static final long MAX_CACHED_SIGNATURES = 10_000L;
+
+	/*
+		A signature only depends on the pass key of the backend and the schema of the message, so it is hashed once
+		per pair rather than once per message
+	 */
+	private static final Cache<SignatureKey, String> SIGNATURES = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_SIGNATURES)
+			.build();
+
 	public static String getMessageSignature(LeiaMessage message, String passKey) {
+		final var referenceId = message.getSchemaKey().getReferenceId();
+		return SIGNATURES.asMap().computeIfAbsent(new SignatureKey(passKey, referenceId),
+				key -> computeSignature(passKey, referenceId));
+	}
+
+	private static String computeSignature(String passKey, String referenceId) {
 		return Hashing.murmur3_128()
-				.hashString(Joiner.on(".").join(
-								passKey, message.getSchemaKey().getReferenceId()),
-						StandardCharsets.UTF_8).toString();
+				.hashString(Joiner.on(".").join(passKey, referenceId), StandardCharsets.UTF_8).toString();
 	}
 
 	public static LeiaHttpEntity toHttpEntity(final List<LeiaMessage> messages, final HttpBackendConfig backendConfig) {
@@ -46,4 +64,11 @@ public class HttpRequestUtils {
 										each))
 						.toList());
 	}
+
+	@AllArgsConstructor
+	@EqualsAndHashCode
+	private static class SignatureKey {
+		private final String passKey;
+		private final String referenceId;
+	}
 }
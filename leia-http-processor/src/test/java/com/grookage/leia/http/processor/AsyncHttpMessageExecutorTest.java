@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
+import com.grookage.leia.http.processor.config.HttpClientConfig;
+import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import com.grookage.leia.http.processor.request.LeiaHttpEntity;
+import com.grookage.leia.http.processor.utils.HttpClientUtils;
+import com.grookage.leia.http.processor.utils.HttpRequestUtils;
+import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.ExecutionStatus;
+import lombok.SneakyThrows;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+@WireMockTest
+class AsyncHttpMessageExecutorTest {
+
+	private static AsyncHttpMessageExecutor<Object> getExecutor(HttpBackendConfig backend,
+	                                                            int port,
+	                                                            List<Exception> handledExceptions) {
+		return new AsyncHttpMessageExecutor<>(backend, () -> "Bearer 1234", ResourceHelper.getObjectMapper()) {
+			@Override
+			public void handleException(List<LeiaMessage> messages, Exception exception) {
+				handledExceptions.add(exception);
+			}
+
+			@Override
+			public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+				return leiaHttpEntity;
+			}
+
+			@Override
+			public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+				return Optional.of(LeiaHttpEndPoint.builder()
+						.host("127.0.0.1")
+						.port(port)
+						.secure(backendConfig.isSecure())
+						.uri(backendConfig.getUri())
+						.build());
+			}
+		};
+	}
+
+	@Test
+	@SneakyThrows
+	void testAsyncMessageSending(WireMockRuntimeInfo wireMockRuntimeInfo) {
+		final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+		HttpClientUtils.initialize(clientConfig);
+		final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElse(null);
+		Assertions.assertNotNull(backend);
+		final var port = wireMockRuntimeInfo.getHttpPort();
+		backend.setUri("/ingest");
+		final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		final var entityMessages = HttpRequestUtils.toHttpEntity(messages, backend);
+		stubFor(post(urlEqualTo("/ingest"))
+				.withHeader("Authorization", equalTo("Bearer 1234"))
+				.withRequestBody(binaryEqualTo(ResourceHelper.getObjectMapper().writeValueAsBytes(entityMessages)))
+				.willReturn(aResponse()
+						.withStatus(200)));
+		final var handledExceptions = new ArrayList<Exception>();
+		final var outcome = getExecutor(backend, port, handledExceptions)
+				.sendAsync(messages, ForkJoinPool.commonPool(), Deadline.after(5, TimeUnit.SECONDS))
+				.get(10, TimeUnit.SECONDS);
+		Assertions.assertEquals(ExecutionStatus.SUCCESS, outcome.getStatus());
+		Assertions.assertEquals(messages.size(), outcome.getMessageCount());
+		Assertions.assertTrue(handledExceptions.isEmpty());
+		verify(1, postRequestedFor(urlEqualTo("/ingest")));
+	}
+
+	@Test
+	@SneakyThrows
+	void testAsyncRetriesAndExceptionHandling(WireMockRuntimeInfo wireMockRuntimeInfo) {
+		final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+		HttpClientUtils.initialize(clientConfig);
+		final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElse(null);
+		Assertions.assertNotNull(backend);
+		final var port = wireMockRuntimeInfo.getHttpPort();
+		backend.setUri("/ingest");
+		backend.setRetryCount(2);
+		final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		stubFor(post(urlEqualTo("/ingest"))
+				.willReturn(aResponse()
+						.withStatus(503)
+						.withBody("Service Unavailable")));
+		final var handledExceptions = new ArrayList<Exception>();
+		final var outcome = getExecutor(backend, port, handledExceptions)
+				.sendAsync(messages, ForkJoinPool.commonPool())
+				.get(10, TimeUnit.SECONDS);
+		Assertions.assertEquals(ExecutionStatus.HANDLED, outcome.getStatus());
+		Assertions.assertEquals(1, handledExceptions.size());
+		Assertions.assertInstanceOf(HttpResponseException.class, handledExceptions.get(0));
+		Assertions.assertEquals(503, ((HttpResponseException) handledExceptions.get(0)).getStatusCode());
+		verify(2, postRequestedFor(urlEqualTo("/ingest")));
+	}
+}
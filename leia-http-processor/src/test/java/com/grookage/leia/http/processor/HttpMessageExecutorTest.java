@@ -23,13 +23,20 @@ import com.grookage.leia.http.processor.config.BackendType;
 import com.grookage.leia.http.processor.config.HttpBackendConfig;
 import com.grookage.leia.http.processor.config.HttpClientConfig;
 import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import com.grookage.leia.http.processor.exception.RetryAfterException;
 import com.grookage.leia.http.processor.request.LeiaHttpEntity;
 import com.grookage.leia.http.processor.utils.HttpClientUtils;
 import com.grookage.leia.http.processor.utils.HttpRequestUtils;
 import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.breaker.CircuitBreakerConfig;
+import com.grookage.leia.mux.breaker.CircuitState;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.ExecutionStatus;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpResponseException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -37,6 +44,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -249,6 +257,180 @@ class HttpMessageExecutorTest {
 		Assertions.assertTrue(exceptionHandlerCallCount.get() > 0,
 				"Exception handler should be called in queued mode");
 		log.info("Exception handler was called {} times in queued mode", exceptionHandlerCallCount.get());
+		testableExecutor.stop();
+	}
+
+	@Test
+	@SneakyThrows
+	void testOpenCircuitFailsFast(WireMockRuntimeInfo wireMockRuntimeInfo) {
+		final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+		HttpClientUtils.initialize(clientConfig);
+		final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElse(null);
+		Assertions.assertNotNull(backend);
+		final var port = wireMockRuntimeInfo.getHttpPort();
+		backend.setPort(port);
+		backend.setUri("/ingest");
+		backend.setRetryCount(1);
+		backend.setCircuitBreaker(CircuitBreakerConfig.builder()
+				.slidingWindowSize(2)
+				.minimumCalls(2)
+				.openDurationMs(60_000)
+				.build());
+
+		final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		final var handledExceptions = new ArrayList<Exception>();
+		final var testableExecutor = new HttpMessageExecutor<>(backend, () -> "Bearer 1234", ResourceHelper.getObjectMapper()) {
+			@Override
+			public void handleException(List<LeiaMessage> messages, Exception exception) {
+				handledExceptions.add(exception);
+			}
+
+			@Override
+			public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+				return leiaHttpEntity;
+			}
+
+			@Override
+			public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+				return Optional.of(LeiaHttpEndPoint.builder()
+						.host("127.0.0.1")
+						.port(port)
+						.secure(backendConfig.isSecure())
+						.uri(backendConfig.getUri())
+						.build());
+			}
+		};
+
+		stubFor(post(urlEqualTo("/ingest"))
+				.willReturn(aResponse()
+						.withStatus(503)
+						.withBody("Service Unavailable")));
+		Assertions.assertEquals(ExecutionStatus.HANDLED, testableExecutor.execute(messages).getStatus());
+		Assertions.assertEquals(ExecutionStatus.HANDLED, testableExecutor.execute(messages).getStatus());
+		Assertions.assertEquals(CircuitState.OPEN, testableExecutor.getCircuitBreaker().getState());
+
+		final var outcome = testableExecutor.execute(messages);
+		Assertions.assertEquals(ExecutionStatus.HANDLED, outcome.getStatus());
+		Assertions.assertEquals(LeiaProcessorErrorCode.CIRCUIT_OPEN.name(), ((LeiaException) outcome.getError()).getCode());
+		Assertions.assertEquals(3, handledExceptions.size());
+		Assertions.assertInstanceOf(HttpResponseException.class, handledExceptions.get(0));
+		verify(2, postRequestedFor(urlEqualTo("/ingest")));
+	}
+
+	@Test
+	@SneakyThrows
+	void testRetryAfterIsHonoured(WireMockRuntimeInfo wireMockRuntimeInfo) {
+		final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+		HttpClientUtils.initialize(clientConfig);
+		final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElse(null);
+		Assertions.assertNotNull(backend);
+		final var port = wireMockRuntimeInfo.getHttpPort();
+		backend.setPort(port);
+		backend.setUri("/ingest");
+		backend.setRetryCount(2);
+
+		final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		final var handledExceptions = new ArrayList<Exception>();
+		final var testableExecutor = new HttpMessageExecutor<>(backend, () -> "Bearer 1234", ResourceHelper.getObjectMapper()) {
+			@Override
+			public void handleException(List<LeiaMessage> messages, Exception exception) {
+				handledExceptions.add(exception);
+			}
+
+			@Override
+			public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+				return leiaHttpEntity;
+			}
+
+			@Override
+			public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+				return Optional.of(LeiaHttpEndPoint.builder()
+						.host("127.0.0.1")
+						.port(port)
+						.secure(backendConfig.isSecure())
+						.uri(backendConfig.getUri())
+						.build());
+			}
+		};
+
+		stubFor(post(urlEqualTo("/ingest"))
+				.willReturn(aResponse()
+						.withStatus(429)
+						.withHeader("Retry-After", "1")
+						.withBody("Too Many Requests")));
+		final var startMs = System.currentTimeMillis();
+		Assertions.assertEquals(ExecutionStatus.HANDLED, testableExecutor.execute(messages).getStatus());
+		Assertions.assertTrue(System.currentTimeMillis() - startMs >= 1_000);
+		Assertions.assertEquals(1, handledExceptions.size());
+		Assertions.assertInstanceOf(RetryAfterException.class, handledExceptions.get(0));
+		Assertions.assertEquals(1_000, ((RetryAfterException) handledExceptions.get(0)).getRetryAfterMs());
+		verify(2, postRequestedFor(urlEqualTo("/ingest")));
+		Assertions.assertEquals(9, testableExecutor.getRetryPolicy().getBudget().getBalance());
+	}
+
+	@Test
+	@SneakyThrows
+	void testQueuedBackendFlushesOnThreshold(WireMockRuntimeInfo wireMockRuntimeInfo) {
+		final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+		HttpClientUtils.initialize(clientConfig);
+		final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElse(null);
+		Assertions.assertNotNull(backend);
+		final var port = wireMockRuntimeInfo.getHttpPort();
+		backend.setPort(port);
+		backend.setUri("/ingest");
+		backend.setBackendType(BackendType.QUEUED);
+		backend.setQueuePath(TEST_QUEUE_PATH);
+		backend.setQueueThreshold(1);
+		backend.setQueueDrainers(2);
+		/*
+			Far beyond the test, so only the count threshold can trigger the flushes
+		 */
+		backend.setQueueFlushIntervalMs(60_000);
+
+		final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		final var testableExecutor = new HttpMessageExecutor<>(backend, () -> "Bearer 1234", ResourceHelper.getObjectMapper()) {
+			@Override
+			public void handleException(List<LeiaMessage> messages, Exception exception) {
+				log.error("Message send failed for backend {}", backend.getBackendName(), exception);
+			}
+
+			@Override
+			public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+				return leiaHttpEntity;
+			}
+
+			@Override
+			public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+				return Optional.of(LeiaHttpEndPoint.builder()
+						.host("127.0.0.1")
+						.port(port)
+						.secure(backendConfig.isSecure())
+						.uri(backendConfig.getUri())
+						.build());
+			}
+		};
+
+		stubFor(post(urlEqualTo("/ingest"))
+				.willReturn(aResponse()
+						.withStatus(200)));
+		for (int i = 0; i < 5; i++) {
+			testableExecutor.send(messages);
+		}
+		final var queuedSender = testableExecutor.getQueuedSender();
+		final var expected = 5L * messages.size();
+		final var deadline = System.currentTimeMillis() + 5_000;
+		while (queuedSender.getDrainedMessages() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		Assertions.assertEquals(expected, queuedSender.getDrainedMessages());
+		Assertions.assertEquals(0, queuedSender.getPendingMessages());
+		Assertions.assertEquals(0, queuedSender.getPendingBytes());
+		Assertions.assertEquals(0, queuedSender.getQueueDepth());
+		verify(moreThanOrExactly(1), postRequestedFor(urlEqualTo("/ingest")));
+		testableExecutor.stop();
 	}
 
 	private boolean isRetryableError(Exception exception) {
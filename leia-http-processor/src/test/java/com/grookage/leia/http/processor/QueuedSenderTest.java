@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.grookage.leia.http.processor.config.BackendType;
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
+import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.breaker.CircuitBreaker;
+import com.grookage.leia.mux.breaker.CircuitBreakerConfig;
+import com.grookage.leia.mux.breaker.CircuitState;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
+import com.grookage.leia.mux.executor.ExecutionStatus;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class QueuedSenderTest {
+
+	private static final String TEST_QUEUE_PATH = "test-leia-queued-sender";
+
+	@AfterEach
+	@SneakyThrows
+	void cleanup() {
+		final var queuePath = Path.of(TEST_QUEUE_PATH);
+		if (Files.exists(queuePath)) {
+			try (final var paths = Files.walk(queuePath)) {
+				paths.sorted(Comparator.reverseOrder())
+						.map(Path::toFile)
+						.forEach(File::delete);
+			}
+		}
+	}
+
+	@Test
+	void testAdaptiveBatchSize() {
+		final var backendConfig = HttpBackendConfig.builder()
+				.backendName("backend1")
+				.hasher("hasher")
+				.backendType(BackendType.QUEUED)
+				.queuePath(TEST_QUEUE_PATH)
+				.queueThreshold(2)
+				.queueMaxBatchSize(7)
+				.queueTargetLatencyMs(100)
+				.queueFlushIntervalMs(60_000)
+				.build();
+		final var queuedSender = new HttpMessageExecutor.QueuedSender(backendConfig, ResourceHelper.getObjectMapper(),
+				messages -> ExecutionOutcome.of("backend1", ExecutionStatus.SUCCESS, messages.size()));
+		try {
+			Assertions.assertEquals(2, queuedSender.getBatchSize());
+			/*
+				A partial batch says nothing about the backend's capacity, the size is left as is
+			 */
+			queuedSender.onFlush(1, 2, true, 10);
+			Assertions.assertEquals(2, queuedSender.getBatchSize());
+
+			queuedSender.onFlush(2, 2, true, 10);
+			Assertions.assertEquals(4, queuedSender.getBatchSize());
+			queuedSender.onFlush(4, 4, true, 10);
+			queuedSender.onFlush(6, 6, true, 10);
+			queuedSender.onFlush(7, 7, true, 10);
+			Assertions.assertEquals(7, queuedSender.getBatchSize());
+			Assertions.assertEquals(20, queuedSender.getDrainedMessages());
+
+			queuedSender.onFlush(7, 7, true, 500);
+			Assertions.assertEquals(3, queuedSender.getBatchSize());
+			queuedSender.onFlush(3, 3, false, 10);
+			Assertions.assertEquals(2, queuedSender.getBatchSize());
+			queuedSender.onFlush(2, 2, false, 10);
+			Assertions.assertEquals(2, queuedSender.getBatchSize());
+			Assertions.assertEquals(27, queuedSender.getDrainedMessages());
+		} finally {
+			queuedSender.stop();
+		}
+	}
+
+	@Test
+	void testFixedBatchSize() {
+		final var backendConfig = HttpBackendConfig.builder()
+				.backendName("backend1")
+				.hasher("hasher")
+				.backendType(BackendType.QUEUED)
+				.queuePath(TEST_QUEUE_PATH)
+				.queueThreshold(5)
+				.queueFlushIntervalMs(60_000)
+				.build();
+		final var queuedSender = new HttpMessageExecutor.QueuedSender(backendConfig, ResourceHelper.getObjectMapper(),
+				messages -> ExecutionOutcome.of("backend1", ExecutionStatus.SUCCESS, messages.size()));
+		try {
+			queuedSender.onFlush(5, 5, true, 10);
+			Assertions.assertEquals(5, queuedSender.getBatchSize());
+			queuedSender.onFlush(5, 5, false, 10);
+			Assertions.assertEquals(5, queuedSender.getBatchSize());
+		} finally {
+			queuedSender.stop();
+		}
+	}
+
+	@Test
+	@SneakyThrows
+	void testOpenCircuitKeepsMessagesQueued() {
+		final var backendConfig = HttpBackendConfig.builder()
+				.backendName("backend1")
+				.hasher("hasher")
+				.backendType(BackendType.QUEUED)
+				.queuePath(TEST_QUEUE_PATH)
+				.queueThreshold(1)
+				.queueFlushIntervalMs(10)
+				.build();
+		final var breaker = new CircuitBreaker("backend1", CircuitBreakerConfig.builder()
+				.slidingWindowSize(1)
+				.minimumCalls(1)
+				.openDurationMs(60_000)
+				.build());
+		breaker.onFailure(0);
+		Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+		final var flushes = new AtomicInteger();
+		final var queuedSender = new HttpMessageExecutor.QueuedSender(backendConfig, ResourceHelper.getObjectMapper(),
+				breaker, messages -> {
+			flushes.incrementAndGet();
+			return ExecutionOutcome.of("backend1", ExecutionStatus.SUCCESS, messages.size());
+		});
+		try {
+			final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+			});
+			queuedSender.send(messages);
+			Thread.sleep(200);
+			Assertions.assertEquals(0, flushes.get());
+			Assertions.assertEquals(1, queuedSender.getQueueDepth());
+		} finally {
+			queuedSender.stop();
+		}
+	}
+
+	@Test
+	@SneakyThrows
+	void testStopLeavesTheRestQueued() {
+		final var backendConfig = HttpBackendConfig.builder()
+				.backendName("backend1")
+				.hasher("hasher")
+				.backendType(BackendType.QUEUED)
+				.queuePath(TEST_QUEUE_PATH)
+				.queueThreshold(1)
+				.queueFlushIntervalMs(10)
+				.build();
+		final var flushing = new CountDownLatch(1);
+		final var flushes = new AtomicInteger();
+		final var queuedSender = new HttpMessageExecutor.QueuedSender(backendConfig, ResourceHelper.getObjectMapper(),
+				messages -> {
+			flushes.incrementAndGet();
+			flushing.countDown();
+			/*
+				A send that doesn't give up on being interrupted
+			 */
+			Uninterruptibles.sleepUninterruptibly(300, TimeUnit.MILLISECONDS);
+			return ExecutionOutcome.of("backend1", ExecutionStatus.SUCCESS, messages.size());
+		});
+		final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		queuedSender.send(messages);
+		queuedSender.send(messages);
+		queuedSender.send(messages);
+		Assertions.assertTrue(flushing.await(5, TimeUnit.SECONDS));
+		queuedSender.stop();
+		Assertions.assertEquals(1, flushes.get());
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.http.processor.config.ContentEncoding;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+class EncodedBodyTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static List<String> requestData(int count) {
+		final var data = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			data.add("message-" + i);
+		}
+		return data;
+	}
+
+	@Test
+	@SneakyThrows
+	void testUnencodedBodySpanningChunks() {
+		final var data = requestData(20_000);
+		final var expected = MAPPER.writeValueAsBytes(data);
+		final var body = EncodedBody.encode(MAPPER, data, ContentEncoding.NONE);
+		Assertions.assertTrue(expected.length > 64 * 1024);
+		Assertions.assertEquals(expected.length, body.length());
+
+		final var outputStream = new ByteArrayOutputStream();
+		body.writeTo(outputStream);
+		Assertions.assertArrayEquals(expected, outputStream.toByteArray());
+		Assertions.assertArrayEquals(expected, body.getInputStream().readAllBytes());
+		Assertions.assertNull(body.toEntity().getContentEncoding());
+		Assertions.assertTrue(body.toEntity().isRepeatable());
+	}
+
+	@Test
+	@SneakyThrows
+	void testGzipBody() {
+		final var data = requestData(20_000);
+		final var body = EncodedBody.encode(MAPPER, data, ContentEncoding.GZIP);
+		final var entity = body.toEntity();
+		Assertions.assertEquals("gzip", entity.getContentEncoding());
+		Assertions.assertEquals(body.length(), entity.getContentLength());
+		try (final var inputStream = new GZIPInputStream(entity.getContent())) {
+			Assertions.assertArrayEquals(MAPPER.writeValueAsBytes(data), inputStream.readAllBytes());
+		}
+		/*
+			Replaying the body on a retry yields the same bytes
+		 */
+		try (final var inputStream = new GZIPInputStream(entity.getContent())) {
+			Assertions.assertArrayEquals(MAPPER.writeValueAsBytes(data), inputStream.readAllBytes());
+		}
+	}
+
+	@Test
+	@SneakyThrows
+	void testDeflateBody() {
+		final var data = requestData(10);
+		final var body = EncodedBody.encode(MAPPER, data, ContentEncoding.DEFLATE);
+		Assertions.assertEquals("deflate", body.toProducer().getContentEncoding());
+		Assertions.assertEquals(body.length(), body.toProducer().getContentLength());
+		try (final var inputStream = new InflaterInputStream(body.getInputStream())) {
+			Assertions.assertArrayEquals(MAPPER.writeValueAsBytes(data), inputStream.readAllBytes());
+		}
+	}
+}
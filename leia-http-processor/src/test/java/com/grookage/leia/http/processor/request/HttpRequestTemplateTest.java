@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.request;
+
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
+import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class HttpRequestTemplateTest {
+
+	@Test
+	@SneakyThrows
+	void testTemplateWithAuthorization() {
+		final var backendConfig = HttpBackendConfig.builder()
+				.backendName("backend1")
+				.hasher("hasher")
+				.build();
+		final var endPoint = LeiaHttpEndPoint.builder()
+				.host("127.0.0.1")
+				.secure(true)
+				.uri("/ingest")
+				.build();
+		final var tokens = new AtomicInteger();
+		final var template = HttpRequestTemplate.of(backendConfig, endPoint, () -> "Bearer " + tokens.incrementAndGet());
+		Assertions.assertEquals("https://127.0.0.1:443/ingest", template.getUri().toString());
+		Assertions.assertEquals("Bearer 1", template.getHeaders()[0].getValue());
+		Assertions.assertEquals("Bearer 2", template.getHeaders()[0].getValue());
+
+		Assertions.assertTrue(template.matches(endPoint));
+		Assertions.assertTrue(template.matches(LeiaHttpEndPoint.builder()
+				.host("127.0.0.1")
+				.secure(true)
+				.uri("/ingest")
+				.build()));
+		Assertions.assertFalse(template.matches(LeiaHttpEndPoint.builder()
+				.host("127.0.0.2")
+				.secure(true)
+				.uri("/ingest")
+				.build()));
+	}
+
+	@Test
+	@SneakyThrows
+	void testTemplateWithConfiguredHeaders() {
+		final var backendConfig = HttpBackendConfig.builder()
+				.backendName("backend1")
+				.hasher("hasher")
+				.headers(Map.of("X-Client", "leia"))
+				.build();
+		final var endPoint = LeiaHttpEndPoint.builder()
+				.host("127.0.0.1")
+				.port(8080)
+				.uri("/ingest")
+				.build();
+		final var template = HttpRequestTemplate.of(backendConfig, endPoint, () -> "Bearer 1234");
+		Assertions.assertEquals("http://127.0.0.1:8080/ingest", template.getUri().toString());
+		final var headers = template.getHeaders();
+		Assertions.assertEquals(1, headers.length);
+		Assertions.assertEquals("X-Client", headers[0].getName());
+		Assertions.assertSame(headers, template.getHeaders());
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.retry;
+
+import com.grookage.leia.http.processor.config.RetryConfig;
+import com.grookage.leia.http.processor.exception.RetryAfterException;
+import com.grookage.leia.mux.executor.Deadline;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+class RetryPolicyTest {
+
+	@Test
+	void testBackoffIsJitteredAndCapped() {
+		final var policy = new RetryPolicy(RetryConfig.builder()
+				.initialBackoffMs(100)
+				.backoffMultiplier(2)
+				.maxBackoffMs(300)
+				.build(), 5);
+		final var failure = new HttpResponseException(500, "Internal Server Error");
+		for (int i = 0; i < 100; i++) {
+			final var first = policy.backoffMs(1, failure);
+			Assertions.assertTrue(first >= 0 && first <= 100);
+			final var second = policy.backoffMs(2, failure);
+			Assertions.assertTrue(second >= 0 && second <= 200);
+			final var capped = policy.backoffMs(10, failure);
+			Assertions.assertTrue(capped >= 0 && capped <= 300);
+		}
+		Assertions.assertEquals(0, new RetryPolicy(RetryConfig.builder()
+				.initialBackoffMs(0)
+				.build(), 5).backoffMs(3, failure));
+	}
+
+	@Test
+	void testRetryAfter() {
+		final var policy = new RetryPolicy(RetryConfig.builder()
+				.maxRetryAfterMs(5_000)
+				.build(), 5);
+		Assertions.assertEquals(2_000, policy.backoffMs(1, new RetryAfterException(503, "Service Unavailable", 2_000)));
+		Assertions.assertEquals(5_000, policy.backoffMs(1, new RetryAfterException(429, "Too Many Requests", 60_000)));
+
+		final var ignoring = new RetryPolicy(RetryConfig.builder()
+				.initialBackoffMs(10)
+				.honourRetryAfter(false)
+				.build(), 5);
+		Assertions.assertTrue(ignoring.backoffMs(1, new RetryAfterException(503, "Service Unavailable", 2_000)) <= 10);
+
+		Assertions.assertEquals(3_000, RetryPolicy.retryAfterMs("3").orElseThrow());
+		Assertions.assertEquals(0, RetryPolicy.retryAfterMs("Thu, 01 Jan 1970 00:00:00 GMT").orElseThrow());
+		final var later = RetryPolicy.retryAfterMs(DateUtils.formatStandardDate(Instant.now().plusSeconds(60))).orElseThrow();
+		Assertions.assertTrue(later > 50_000 && later <= 60_000);
+		Assertions.assertEquals(0, RetryPolicy.retryAfterMs("-5").orElseThrow());
+		Assertions.assertEquals(Long.MAX_VALUE, RetryPolicy.retryAfterMs(String.valueOf(Long.MAX_VALUE / 10)).orElseThrow());
+		Assertions.assertTrue(RetryPolicy.retryAfterMs("soon").isEmpty());
+		Assertions.assertTrue(RetryPolicy.retryAfterMs(null).isEmpty());
+	}
+
+	@Test
+	void testRetriesAreBoundByTheDeadline() {
+		final var policy = new RetryPolicy(RetryConfig.builder()
+				.initialBackoffMs(100)
+				.build(), 5);
+		final var retryAfter = new RetryAfterException(503, "Service Unavailable", 2_000);
+		Assertions.assertEquals(2_000, policy.nextBackoffMs(1, retryAfter, Deadline.none()).orElseThrow());
+		Assertions.assertEquals(2_000, policy.nextBackoffMs(1, retryAfter, Deadline.after(5, TimeUnit.SECONDS)).orElseThrow());
+		Assertions.assertTrue(policy.nextBackoffMs(1, retryAfter, Deadline.after(1, TimeUnit.SECONDS)).isEmpty());
+
+		final var failure = new HttpResponseException(500, "Internal Server Error");
+		final var backoffMs = policy.nextBackoffMs(1, failure, Deadline.after(5, TimeUnit.SECONDS)).orElseThrow();
+		Assertions.assertTrue(backoffMs >= 0 && backoffMs <= 100);
+		Assertions.assertTrue(policy.nextBackoffMs(1, failure, Deadline.after(0, TimeUnit.MILLISECONDS)).isEmpty());
+		Assertions.assertEquals(7, policy.getBudget().getBalance());
+	}
+
+	@Test
+	void testResponseExceptions() {
+		final var throttled = new BasicHttpResponse(429, "Too Many Requests");
+		throttled.addHeader("Retry-After", "2");
+		final var exception = RetryPolicy.toException(throttled);
+		Assertions.assertInstanceOf(RetryAfterException.class, exception);
+		Assertions.assertEquals(2_000, ((RetryAfterException) exception).getRetryAfterMs());
+
+		final var unavailable = new BasicHttpResponse(503, "Service Unavailable");
+		Assertions.assertFalse(RetryPolicy.toException(unavailable) instanceof RetryAfterException);
+
+		final var badRequest = new BasicHttpResponse(400, "Bad Request");
+		badRequest.addHeader("Retry-After", "2");
+		Assertions.assertFalse(RetryPolicy.toException(badRequest) instanceof RetryAfterException);
+		Assertions.assertEquals(400, RetryPolicy.toException(badRequest).getStatusCode());
+	}
+
+	@Test
+	void testRetryBudget() {
+		final var policy = new RetryPolicy(RetryConfig.builder()
+				.budgetRatio(0.5)
+				.budgetCapacity(2)
+				.build(), 10);
+		final var failure = new HttpResponseException(503, "Service Unavailable");
+		Assertions.assertFalse(policy.nextBackoffMs(1, new IOException("Connection reset"), Deadline.none()).isPresent());
+		Assertions.assertFalse(policy.nextBackoffMs(10, failure, Deadline.none()).isPresent());
+		Assertions.assertEquals(2, policy.getBudget().getBalance());
+
+		Assertions.assertTrue(policy.nextBackoffMs(1, failure, Deadline.none()).isPresent());
+		Assertions.assertTrue(policy.nextBackoffMs(2, failure, Deadline.none()).isPresent());
+		Assertions.assertFalse(policy.nextBackoffMs(3, failure, Deadline.none()).isPresent());
+
+		policy.onSuccess();
+		Assertions.assertFalse(policy.nextBackoffMs(1, failure, Deadline.none()).isPresent());
+		policy.onSuccess();
+		Assertions.assertTrue(policy.nextBackoffMs(1, failure, Deadline.none()).isPresent());
+
+		for (int i = 0; i < 10; i++) {
+			policy.onSuccess();
+		}
+		Assertions.assertEquals(2, policy.getBudget().getBalance());
+
+		final var unbudgeted = new RetryPolicy(RetryConfig.builder()
+				.budgetRatio(0)
+				.build(), 10);
+		Assertions.assertNull(unbudgeted.getBudget());
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertTrue(unbudgeted.nextBackoffMs(1, failure, Deadline.none()).isPresent());
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/*
+	A read only, hash indexed view over a list of schemas, keyed on the schemaKey, whose hash is cached on the key. A lookup costs a
+	single hash probe instead of a scan over all the schemas. The index is meant to be built once per refresh and
+	shared by all the readers, see SchemaIndexSupplier. When the same schemaKey appears more than once, the first one
+	wins, the same as SchemaUtils.getMatchingSchema.
+ */
+public class SchemaIndex {
+
+	private static final SchemaIndex EMPTY = new SchemaIndex(null, Map.of());
+
+	@Getter
+	private final List<SchemaDetails> schemaDetails;
+	private final Map<SchemaKey, SchemaDetails> schemas;
+
+	private SchemaIndex(List<SchemaDetails> schemaDetails, Map<SchemaKey, SchemaDetails> schemas) {
+		this.schemaDetails = schemaDetails;
+		this.schemas = schemas;
+	}
+
+	public static SchemaIndex of(final List<SchemaDetails> schemaDetails) {
+		if (null == schemaDetails) {
+			return EMPTY;
+		}
+		final var schemas = new HashMap<SchemaKey, SchemaDetails>();
+		schemaDetails.stream()
+				.filter(each -> null != each.getSchemaKey())
+				.forEach(each -> schemas.putIfAbsent(each.getSchemaKey(), each));
+		return new SchemaIndex(schemaDetails, Map.copyOf(schemas));
+	}
+
+	/*
+		The refreshers hand out a new list on every refresh, hence a reference check is all it takes to know if an
+		index has gone stale
+	 */
+	public boolean isBuiltFrom(final List<SchemaDetails> data) {
+		return this.schemaDetails == data;
+	}
+
+	public Optional<SchemaDetails> getSchemaDetails(final SchemaKey schemaKey) {
+		if (null == schemaKey) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(schemas.get(schemaKey));
+	}
+
+	public List<SchemaDetails> getSchemaDetails(final Collection<SchemaKey> schemaKeys) {
+		return schemaKeys.stream()
+				.map(this::getSchemaDetails)
+				.flatMap(Optional::stream)
+				.distinct()
+				.toList();
+	}
+
+	public Collection<SchemaDetails> getAllSchemaDetails() {
+		return schemas.values();
+	}
+
+	public int size() {
+		return schemas.size();
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/*
+	Hands out a SchemaIndex over the data of the underlying supplier. The index is rebuilt only when the supplier
+	returns a different list from the one the current index was built from, so all the lookups between two refreshes
+	share the same index.
+ */
+public class SchemaIndexSupplier implements Supplier<SchemaIndex> {
+
+	private final AtomicReference<SchemaIndex> schemaIndex = new AtomicReference<>();
+	private final Supplier<List<SchemaDetails>> dataSupplier;
+
+	public SchemaIndexSupplier(Supplier<List<SchemaDetails>> dataSupplier) {
+		this.dataSupplier = dataSupplier;
+	}
+
+	@Override
+	public SchemaIndex get() {
+		final var data = dataSupplier.get();
+		final var current = schemaIndex.get();
+		if (null != current && current.isBuiltFrom(data)) {
+			return current;
+		}
+		/*
+			Two threads could race to build the index for the same data, both build an equivalent index, and the later
+			one wins. That is cheaper than blocking the readers on a lock.
+		 */
+		final var latest = SchemaIndex.of(data);
+		schemaIndex.set(latest);
+		return latest;
+	}
+}
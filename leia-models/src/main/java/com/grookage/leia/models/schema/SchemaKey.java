@@ -19,21 +19,38 @@ package com.grookage.leia.models.schema;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.grookage.leia.models.SchemaConstants;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import javax.validation.constraints.NotBlank;
 import java.util.Locale;
 
-@Builder
-@AllArgsConstructor
+/*
+	The referenceId, and the hash derived from it, are computed once and cached on the key, so that probing a map keyed
+	on a SchemaKey doesn't rebuild the referenceId string each time. The setters drop the cached values, which keeps
+	the key correct for the jackson and the mutable usages, though a key shouldn't be mutated once it is used as a map
+	key. An interned key is shared, so its setters fail.
+ */
 @Data
 @NoArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SchemaKey {
+
+	/*
+		Weak values, so that a canonical key lives only as long as somebody holds on to it
+	 */
+	private static final Cache<String, SchemaKey> INTERNED_KEYS = CacheBuilder.newBuilder()
+			.weakValues()
+			.build();
+
 	@NotBlank
 	private String orgId;
 	@NotBlank
@@ -47,19 +64,128 @@ public class SchemaKey {
 	@NotBlank
 	private String type;
 
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@ToString.Exclude
+	private transient String referenceId;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@ToString.Exclude
+	private transient int hash;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@ToString.Exclude
+	private transient boolean interned;
+
+	@Builder
+	public SchemaKey(String orgId,
+	                 String namespace,
+	                 String tenantId,
+	                 String schemaName,
+	                 String version,
+	                 String type) {
+		this.orgId = orgId;
+		this.namespace = namespace;
+		this.tenantId = tenantId;
+		this.schemaName = schemaName;
+		this.version = version;
+		this.type = type;
+	}
+
+	public void setOrgId(String orgId) {
+		checkMutable();
+		this.orgId = orgId;
+		reset();
+	}
+
+	public void setNamespace(String namespace) {
+		checkMutable();
+		this.namespace = namespace;
+		reset();
+	}
+
+	public void setTenantId(String tenantId) {
+		checkMutable();
+		this.tenantId = tenantId;
+		reset();
+	}
+
+	public void setSchemaName(String schemaName) {
+		checkMutable();
+		this.schemaName = schemaName;
+		reset();
+	}
+
+	public void setVersion(String version) {
+		checkMutable();
+		this.version = version;
+		reset();
+	}
+
+	public void setType(String type) {
+		checkMutable();
+		this.type = type;
+		reset();
+	}
+
+	private void checkMutable() {
+		if (interned) {
+			throw new UnsupportedOperationException("An interned SchemaKey is shared and can't be modified, build a new key instead");
+		}
+	}
+
+	private void reset() {
+		this.referenceId = null;
+		this.hash = 0;
+	}
+
 	@JsonIgnore
 	public String getReferenceId() {
-		return Joiner.on(SchemaConstants.KEY_DELIMITER).join(orgId,
-				namespace,
-				tenantId,
-				schemaName,
-				version
-		).toUpperCase(Locale.ROOT);
+		var id = this.referenceId;
+		if (null == id) {
+			id = Joiner.on(SchemaConstants.KEY_DELIMITER).join(orgId,
+					namespace,
+					tenantId,
+					schemaName,
+					version
+			).toUpperCase(Locale.ROOT);
+			this.referenceId = id;
+		}
+		return id;
+	}
+
+	/*
+		Returns the canonical instance for this key, keys that are equal and are of the same type intern to the same
+		instance. The canonical instance is a copy that can't be modified, the key interned is left as is.
+	 */
+	public SchemaKey intern() {
+		if (interned) {
+			return this;
+		}
+		final var internKey = getReferenceId() + SchemaConstants.KEY_DELIMITER + type;
+		final var existing = INTERNED_KEYS.getIfPresent(internKey);
+		if (null != existing) {
+			return existing;
+		}
+		final var copy = new SchemaKey(orgId, namespace, tenantId, schemaName, version, type);
+		copy.interned = true;
+		final var raced = INTERNED_KEYS.asMap().putIfAbsent(internKey, copy);
+		return null != raced ? raced : copy;
+	}
+
+	@JsonIgnore
+	public boolean isInterned() {
+		return interned;
 	}
 
 	@Override
 	public int hashCode() {
-		return this.getReferenceId().hashCode();
+		var h = this.hash;
+		if (0 == h) {
+			h = getReferenceId().hashCode();
+			this.hash = h;
+		}
+		return h;
 	}
 
 	@Override
@@ -71,7 +197,7 @@ public class SchemaKey {
 			return false;
 		}
 		final var thatKey = (SchemaKey) obj;
-		return (thatKey.getReferenceId().equals(this.getReferenceId()));
+		return thatKey.hashCode() == this.hashCode() && (thatKey.getReferenceId().equals(this.getReferenceId()));
 	}
 
 }
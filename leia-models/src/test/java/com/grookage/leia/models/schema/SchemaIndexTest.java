@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.grookage.leia.models.ResourceHelper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+class SchemaIndexTest {
+
+	@Test
+	@SneakyThrows
+	void testSchemaIndex() {
+		final var allSchemas = ResourceHelper.getResource("schema/allSchemas.json",
+				new TypeReference<List<SchemaDetails>>() {
+				});
+		final var schemaIndex = SchemaIndex.of(allSchemas);
+		Assertions.assertTrue(schemaIndex.isBuiltFrom(allSchemas));
+		final var schemaKey = SchemaKey.builder()
+				.namespace("testNamespace")
+				.schemaName("testSchema")
+				.version("v1234")
+				.orgId("testOrg")
+				.tenantId("tenantId")
+				.type("default")
+				.build();
+		final var matchingSchema = schemaIndex.getSchemaDetails(schemaKey).orElse(null);
+		Assertions.assertNotNull(matchingSchema);
+		Assertions.assertEquals("V1234", matchingSchema.getSchemaKey().getVersion());
+		Assertions.assertEquals(1, schemaIndex.getSchemaDetails(Set.of(schemaKey)).size());
+		final var unknownKey = SchemaKey.builder()
+				.namespace("testNamespace")
+				.schemaName("unknown")
+				.version("v1234")
+				.orgId("testOrg")
+				.tenantId("tenantId")
+				.type("default")
+				.build();
+		Assertions.assertTrue(schemaIndex.getSchemaDetails(unknownKey).isEmpty());
+		Assertions.assertTrue(schemaIndex.getSchemaDetails((SchemaKey) null).isEmpty());
+
+		final var emptyIndex = SchemaIndex.of(null);
+		Assertions.assertNull(emptyIndex.getSchemaDetails());
+		Assertions.assertEquals(0, emptyIndex.size());
+		Assertions.assertTrue(emptyIndex.getSchemaDetails(schemaKey).isEmpty());
+	}
+
+	@Test
+	@SneakyThrows
+	void testSchemaIndexSupplier() {
+		final var allSchemas = ResourceHelper.getResource("schema/allSchemas.json",
+				new TypeReference<List<SchemaDetails>>() {
+				});
+		final var data = new AtomicReference<>(allSchemas);
+		final var supplier = new SchemaIndexSupplier(data::get);
+		final var schemaIndex = supplier.get();
+		Assertions.assertSame(schemaIndex, supplier.get());
+		data.set(List.copyOf(allSchemas));
+		final var refreshed = supplier.get();
+		Assertions.assertNotSame(schemaIndex, refreshed);
+		Assertions.assertEquals(schemaIndex.size(), refreshed.size());
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import com.grookage.leia.models.ResourceHelper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SchemaKeyTest {
+
+	@Test
+	@SneakyThrows
+	void testSchemaKeyShape() {
+		final var schemaKey = ResourceHelper.getResource("schema/schemaKey.json", SchemaKey.class);
+		Assertions.assertEquals("TESTORG:TESTNAMESPACE:TENANTID:TESTSCHEMA:V1234", schemaKey.getReferenceId());
+		final var serialized = ResourceHelper.getObjectMapper().readTree(
+				ResourceHelper.getObjectMapper().writeValueAsBytes(schemaKey));
+		Assertions.assertEquals(6, serialized.size());
+		Assertions.assertFalse(serialized.has("referenceId"));
+		Assertions.assertFalse(serialized.has("hash"));
+		Assertions.assertEquals(schemaKey, ResourceHelper.getObjectMapper().treeToValue(serialized, SchemaKey.class));
+	}
+
+	@Test
+	void testCachedReferenceIdIsReset() {
+		final var schemaKey = SchemaKey.builder()
+				.namespace("testNamespace")
+				.schemaName("testSchema")
+				.version("v1")
+				.orgId("testOrg")
+				.tenantId("tenantId")
+				.type("default")
+				.build();
+		final var otherKey = SchemaKey.builder()
+				.namespace("testNamespace")
+				.schemaName("testSchema")
+				.version("V2")
+				.orgId("testOrg")
+				.tenantId("tenantId")
+				.type("default")
+				.build();
+		Assertions.assertSame(schemaKey.getReferenceId(), schemaKey.getReferenceId());
+		Assertions.assertNotEquals(schemaKey, otherKey);
+		schemaKey.setVersion("v2");
+		Assertions.assertEquals("TESTORG:TESTNAMESPACE:TENANTID:TESTSCHEMA:V2", schemaKey.getReferenceId());
+		Assertions.assertEquals(schemaKey, otherKey);
+		Assertions.assertEquals(otherKey.hashCode(), schemaKey.hashCode());
+	}
+
+	@Test
+	void testIntern() {
+		final var schemaKey = SchemaKey.builder()
+				.namespace("testNamespace")
+				.schemaName("internSchema")
+				.version("v1")
+				.orgId("testOrg")
+				.tenantId("tenantId")
+				.type("default")
+				.build()
+				.intern();
+		final var sameKey = SchemaKey.builder()
+				.namespace("TESTNAMESPACE")
+				.schemaName("internSchema")
+				.version("V1")
+				.orgId("testOrg")
+				.tenantId("tenantId")
+				.type("default")
+				.build();
+		Assertions.assertSame(schemaKey, sameKey.intern());
+		final var otherType = SchemaKey.builder()
+				.namespace("testNamespace")
+				.schemaName("internSchema")
+				.version("v1")
+				.orgId("testOrg")
+				.tenantId("tenantId")
+				.type("other")
+				.build();
+		Assertions.assertNotSame(schemaKey, otherType.intern());
+		Assertions.assertEquals(schemaKey, otherType.intern());
+
+		Assertions.assertTrue(schemaKey.isInterned());
+		Assertions.assertSame(schemaKey, schemaKey.intern());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> schemaKey.setVersion("v2"));
+		Assertions.assertEquals("TESTORG:TESTNAMESPACE:TENANTID:INTERNSCHEMA:V1", schemaKey.getReferenceId());
+		/*
+			The key interned stays mutable, it isn't the shared instance
+		 */
+		Assertions.assertFalse(sameKey.isInterned());
+		Assertions.assertNotSame(sameKey, sameKey.intern());
+		sameKey.setVersion("v2");
+		otherType.setType("default");
+		Assertions.assertSame(schemaKey, otherType.intern());
+	}
+}
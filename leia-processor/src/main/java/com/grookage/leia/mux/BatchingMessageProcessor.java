@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.dispatch.DispatchStrategy;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
+import com.grookage.leia.mux.executor.ExecutionStatus;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.MessageExecutorFactory;
+import com.grookage.leia.mux.filter.BackendFilter;
+import com.grookage.leia.mux.limiter.ConcurrencyLimiter;
+import com.grookage.leia.mux.resolver.BackendNameResolver;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/*
+	Coalesces the messages of concurrent callers per executor, modelled on the kafka producer's batch.size and
+	linger.ms. A batch is sent once it holds maxBatchSize messages, or maxBatchBytes as per the sizeEstimator, or
+	lingerMs after its first message, whichever is first. Every caller's future completes with the outcome of the
+	batch its messages went out in.
+ */
+@Slf4j
+@Getter
+public class BatchingMessageProcessor extends DefaultMessageProcessor {
+
+	private static final int DEFAULT_BATCH_SIZE = 100;
+	private static final long DEFAULT_LINGER_MS = 5L;
+
+	private final int maxBatchSize;
+	private final long maxBatchBytes;
+	private final long lingerMs;
+	private final ToLongFunction<LeiaMessage> sizeEstimator;
+	private final Map<MessageExecutor, Accumulator> accumulators = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService lingerScheduler;
+	private volatile boolean stopped;
+
+	/*
+		maxBatchBytes is off unless both it and a sizeEstimator are set
+	 */
+	@Builder(builderMethodName = "batchingBuilder")
+	protected BatchingMessageProcessor(String name,
+	                                   long processingThresholdMs,
+	                                   BackendNameResolver backendNameResolver,
+	                                   MessageExecutorFactory executorFactory,
+	                                   DispatchStrategy dispatchStrategy,
+	                                   Supplier<ConcurrencyLimiter> concurrencyLimiterSupplier,
+	                                   int maxBatchSize,
+	                                   long maxBatchBytes,
+	                                   long lingerMs,
+	                                   ToLongFunction<LeiaMessage> sizeEstimator) {
+		super(name, processingThresholdMs, backendNameResolver, executorFactory, dispatchStrategy,
+				concurrencyLimiterSupplier);
+		this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : DEFAULT_BATCH_SIZE;
+		this.maxBatchBytes = null != sizeEstimator ? maxBatchBytes : 0L;
+		this.lingerMs = lingerMs > 0 ? lingerMs : DEFAULT_LINGER_MS;
+		this.sizeEstimator = sizeEstimator;
+		this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("leia-batching-" + name + "-%d")
+				.setDaemon(true)
+				.build());
+	}
+
+	/*
+		Blocks until the batches carrying these messages are sent. Fails the same way DefaultMessageProcessor does
+		when a send fails or doesn't complete within the processing threshold.
+	 */
+	@Override
+	public void processMessages(List<LeiaMessage> messages,
+	                            BackendFilter backendFilter) {
+		final List<ExecutionOutcome> outcomes;
+		try {
+			outcomes = processMessagesAsync(messages, backendFilter).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the batched messages to be sent", e);
+		} catch (ExecutionException e) {
+			log.error("There is an exception while trying to process messages", e.getCause());
+			throw new IllegalStateException("There is an exception while trying to process messages", e.getCause());
+		}
+		outcomes.stream()
+				.filter(outcome -> outcome.getStatus() == ExecutionStatus.FAILED
+						|| outcome.getStatus() == ExecutionStatus.REJECTED
+						|| outcome.getStatus() == ExecutionStatus.TIMED_OUT)
+				.findFirst()
+				.ifPresent(outcome -> {
+					log.error("Couldn't send the batched messages to executor {}, status {}", outcome.getExecutorName(),
+							outcome.getStatus(), outcome.getError());
+					throw new IllegalStateException("Couldn't send the batched messages to executor "
+							+ outcome.getExecutorName() + ", status " + outcome.getStatus(), outcome.getError());
+				});
+	}
+
+	@Override
+	public CompletableFuture<List<ExecutionOutcome>> processMessagesAsync(List<LeiaMessage> messages,
+	                                                                     BackendFilter backendFilter) {
+		if (stopped) {
+			return CompletableFuture.failedFuture(new IllegalStateException("The message processor " + getName()
+					+ " has been stopped"));
+		}
+		final Map<MessageExecutor, List<LeiaMessage>> executorMapping;
+		try {
+			executorMapping = getExecutorMapping(messages, backendFilter);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		if (executorMapping.isEmpty()) {
+			log.debug("Haven't found any eligible executors with the set of messages {}", messages);
+			return CompletableFuture.completedFuture(List.of());
+		}
+		final var futures = executorMapping.entrySet().stream()
+				.map(each -> accumulators.computeIfAbsent(each.getKey(), Accumulator::new)
+						.append(each.getValue())
+						.completeOnTimeout(ExecutionOutcome.of(each.getKey().getName(), ExecutionStatus.TIMED_OUT,
+								each.getValue().size()), getProcessingThresholdMs(), TimeUnit.MILLISECONDS))
+				.toList();
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+				.thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+	}
+
+	/*
+		The accumulators are keyed by the executor, so they go along with the routes. What they hold is sent right away,
+		through the executor it was accumulated for.
+	 */
+	@Override
+	public void invalidateRoutes() {
+		super.invalidateRoutes();
+		flushAccumulators();
+	}
+
+	/*
+		New work is failed from here on. Whatever is pending is sent, and the scheduler and the dispatch strategy are
+		stopped once the batches are handed over, letting the sends already submitted run to completion.
+	 */
+	public void stop() {
+		stopped = true;
+		flushAccumulators();
+		lingerScheduler.shutdown();
+		getDispatchStrategy().stop();
+	}
+
+	private void flushAccumulators() {
+		List.copyOf(accumulators.keySet()).forEach(executor -> {
+			final var accumulator = accumulators.remove(executor);
+			if (null != accumulator) {
+				accumulator.flush();
+			}
+		});
+	}
+
+	@AllArgsConstructor
+	private static class PendingCall {
+		private final CompletableFuture<ExecutionOutcome> future;
+		private final int messageCount;
+	}
+
+	@AllArgsConstructor
+	private static class Batch {
+		private final List<LeiaMessage> messages;
+		private final List<PendingCall> calls;
+	}
+
+	private class Accumulator {
+		private final MessageExecutor executor;
+		private List<LeiaMessage> messages = new ArrayList<>();
+		private List<PendingCall> calls = new ArrayList<>();
+		private long bytes;
+		private ScheduledFuture<?> lingerTask;
+
+		private Accumulator(MessageExecutor executor) {
+			this.executor = executor;
+		}
+
+		private CompletableFuture<ExecutionOutcome> append(List<LeiaMessage> callMessages) {
+			final var future = new CompletableFuture<ExecutionOutcome>();
+			Batch batch = null;
+			synchronized (this) {
+				if (messages.isEmpty()) {
+					lingerTask = scheduleFlush();
+				}
+				messages.addAll(callMessages);
+				calls.add(new PendingCall(future, callMessages.size()));
+				if (maxBatchBytes > 0) {
+					callMessages.forEach(message -> bytes += sizeEstimator.applyAsLong(message));
+				}
+				if (null == lingerTask || messages.size() >= maxBatchSize
+						|| (maxBatchBytes > 0 && bytes >= maxBatchBytes)) {
+					batch = drain();
+				}
+			}
+			if (null != batch) {
+				send(batch);
+			}
+			return future;
+		}
+
+		/*
+			A call that slipped past the stopped check finds the scheduler shut down, its batch is then cut right away
+		 */
+		private ScheduledFuture<?> scheduleFlush() {
+			try {
+				return lingerScheduler.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				log.debug("The linger scheduler of {} has been stopped, sending the batch to {} right away", getName(),
+						executor.getName());
+				return null;
+			}
+		}
+
+		private void flush() {
+			final Batch batch;
+			synchronized (this) {
+				batch = drain();
+			}
+			if (null != batch) {
+				send(batch);
+			}
+		}
+
+		/*
+			Called with the lock held, so that a batch is cut exactly when a threshold is crossed
+		 */
+		private Batch drain() {
+			if (messages.isEmpty()) {
+				return null;
+			}
+			final var batch = new Batch(messages, calls);
+			messages = new ArrayList<>();
+			calls = new ArrayList<>();
+			bytes = 0;
+			if (null != lingerTask) {
+				lingerTask.cancel(false);
+				lingerTask = null;
+			}
+			return batch;
+		}
+
+		private void send(Batch batch) {
+			sendToExecutor(executor, batch.messages, Deadline.after(getProcessingThresholdMs(), TimeUnit.MILLISECONDS))
+					.whenComplete((outcome, throwable) -> batch.calls.forEach(call -> call.future.complete(
+							null != outcome
+									? ExecutionOutcome.of(executor.getName(), outcome.getStatus(), call.messageCount, outcome.getError())
+									: ExecutionOutcome.of(executor.getName(), ExecutionStatus.FAILED, call.messageCount, throwable))));
+		}
+	}
+}
@@ -18,12 +18,21 @@ package com.grookage.leia.mux;
 
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.dispatch.CommonPoolDispatchStrategy;
+import com.grookage.leia.mux.dispatch.DispatchStrategy;
 import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
+import com.grookage.leia.mux.executor.ExecutionStatus;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.grookage.leia.mux.executor.MessageExecutorFactory;
 import com.grookage.leia.mux.filter.BackendFilter;
+import com.grookage.leia.mux.filter.NoOpBackendFilter;
+import com.grookage.leia.mux.limiter.ConcurrencyLimiter;
 import com.grookage.leia.mux.resolver.BackendNameResolver;
 import lombok.Builder;
 import lombok.Data;
@@ -31,7 +40,11 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
@@ -39,22 +52,51 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DefaultMessageProcessor implements MessageProcessor {
 
+	private static final long MAX_CACHED_ROUTES = 10_000L;
+
 	private final String name;
 	private final long processingThresholdMs;
 	private final BackendNameResolver backendNameResolver;
 	private final MessageExecutorFactory executorFactory;
+	private final DispatchStrategy dispatchStrategy;
+	private final Supplier<ConcurrencyLimiter> concurrencyLimiterSupplier;
+	/*
+		The routing table. Tags come from the schema and the target definitions, so when the resolver is tag based the
+		backends of a tag set are resolved once, and an executor is looked up once per backend. The table lives until
+		invalidateRoutes, which the client calls on every schema refresh.
+	 */
+	private final Cache<Set<String>, Set<String>> backendsByTags = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_ROUTES)
+			.build();
+	private final Map<String, MessageExecutor> executorsByBackend = new ConcurrentHashMap<>();
+	private final Map<String, ConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
 
-	@Builder
 	protected DefaultMessageProcessor(String name,
 	                                  long processingThresholdMs,
 	                                  BackendNameResolver backendNameResolver,
 	                                  MessageExecutorFactory executorFactory) {
+		this(name, processingThresholdMs, backendNameResolver, executorFactory, null, null);
+	}
+
+	/*
+		The dispatchStrategy decides the threads the sends run on, defaults to the common pool. The
+		concurrencyLimiterSupplier, when set, creates a limiter per executor and the sends past its limit are shed.
+	 */
+	@Builder
+	protected DefaultMessageProcessor(String name,
+	                                  long processingThresholdMs,
+	                                  BackendNameResolver backendNameResolver,
+	                                  MessageExecutorFactory executorFactory,
+	                                  DispatchStrategy dispatchStrategy,
+	                                  Supplier<ConcurrencyLimiter> concurrencyLimiterSupplier) {
 		Preconditions.checkNotNull(backendNameResolver, "Backend Resolver can't be null");
 		Preconditions.checkNotNull(executorFactory, "Executor Factory can't be null");
 		this.name = name;
 		this.processingThresholdMs = processingThresholdMs;
 		this.backendNameResolver = backendNameResolver;
 		this.executorFactory = executorFactory;
+		this.dispatchStrategy = null != dispatchStrategy ? dispatchStrategy : new CommonPoolDispatchStrategy();
+		this.concurrencyLimiterSupplier = concurrencyLimiterSupplier;
 	}
 
 	protected boolean validBackends(Set<String> backends) {
@@ -65,31 +107,178 @@ public class DefaultMessageProcessor implements MessageProcessor {
 		return null != executor;
 	}
 
-	private Map<MessageExecutor, List<LeiaMessage>> getExecutorMapping(List<LeiaMessage> messages,
-	                                                                   BackendFilter backendFilter) {
+	private Set<String> getEligibleBackends(LeiaMessage message) {
+		final var tags = message.getTags();
+		if (null == tags || !backendNameResolver.isTagBased()) {
+			return backendNameResolver.getEligibleBackends(message);
+		}
+		final var cached = backendsByTags.getIfPresent(tags);
+		if (null != cached) {
+			return cached;
+		}
+		final var backends = backendNameResolver.getEligibleBackends(message);
+		/*
+			No routes are cached for a tag set that doesn't resolve, so that it is reported as BACKENDS_NOT_FOUND
+		 */
+		if (null != backends) {
+			backendsByTags.put(new HashSet<>(tags), backends);
+		}
+		return backends;
+	}
+
+	private MessageExecutor getExecutor(String backend) {
+		final var memoised = backendNameResolver.isTagBased();
+		final var cached = memoised ? executorsByBackend.get(backend) : null;
+		if (null != cached) {
+			return cached;
+		}
+		final var executor = executorFactory.getExecutor(backend).orElse(null);
+		if (!validExecutor(executor)) {
+			log.error("No executor found for backend name {}", backend);
+			throw LeiaException.error(LeiaProcessorErrorCode.EXECUTOR_NOT_FOUND);
+		}
+		/*
+			The limiters and the bulkheads are kept per executor name, unnamed executors would share them
+		 */
+		if (null == executor.getName() && (null != concurrencyLimiterSupplier || dispatchStrategy.isKeyedByName())) {
+			log.error("The executor of backend name {} has no name", backend);
+			throw LeiaException.error(LeiaProcessorErrorCode.EXECUTOR_NAME_NOT_FOUND);
+		}
+		if (memoised) {
+			executorsByBackend.put(backend, executor);
+		}
+		return executor;
+	}
+
+	/*
+		Clears the routing table, for when the executors of the factory or the resolver rules change
+	 */
+	@Override
+	public void invalidateRoutes() {
+		backendsByTags.invalidateAll();
+		executorsByBackend.clear();
+	}
+
+	protected Map<MessageExecutor, List<LeiaMessage>> getExecutorMapping(List<LeiaMessage> messages,
+	                                                                     BackendFilter backendFilter) {
 		final var executorMapping = new HashMap<MessageExecutor, List<LeiaMessage>>();
+		final var filtered = !(backendFilter instanceof NoOpBackendFilter);
 		messages.forEach(message -> {
-			final var backends = backendNameResolver.getEligibleBackends(message)
-					.stream()
-					.filter(backendFilter::shouldProcess)
-					.collect(Collectors.toSet());
+			final var eligibleBackends = getEligibleBackends(message);
+			final var backends = filtered
+					? eligibleBackends.stream().filter(backendFilter::shouldProcess).collect(Collectors.toSet())
+					: eligibleBackends;
 			if (!validBackends(backends)) {
 				log.error("No backends found for message with schemaKey {} and tags {}", message.getSchemaKey(), message.getTags());
 				throw LeiaException.error(LeiaProcessorErrorCode.BACKENDS_NOT_FOUND);
 			}
-			backends.forEach(backend -> {
-				final var executor = executorFactory.getExecutor(backend).orElse(null);
-				if (!validExecutor(executor)) {
-					log.error("No executor found for backend name {}", backend);
-					throw LeiaException.error(LeiaProcessorErrorCode.EXECUTOR_NOT_FOUND);
-				}
-				executorMapping.computeIfAbsent(executor, k -> new ArrayList<>()).add(message);
-			});
+			backends.forEach(backend -> executorMapping.computeIfAbsent(getExecutor(backend), k -> new ArrayList<>())
+					.add(message));
 		});
 
 		return executorMapping;
 	}
 
+	public Optional<ConcurrencyLimiter> getConcurrencyLimiter(String backend) {
+		return Optional.ofNullable(concurrencyLimiters.get(backend));
+	}
+
+	private ConcurrencyLimiter getLimiter(MessageExecutor executor) {
+		if (null == concurrencyLimiterSupplier) {
+			return null;
+		}
+		return concurrencyLimiters.computeIfAbsent(
+				Preconditions.checkNotNull(executor.getName(), "Message executor name can't be null"),
+				backend -> concurrencyLimiterSupplier.get());
+	}
+
+	private static void release(ConcurrencyLimiter.Permit permit, ExecutionOutcome outcome) {
+		if (null != outcome && outcome.isSuccess()) {
+			permit.onSuccess();
+		} else if (null != outcome && outcome.getStatus() == ExecutionStatus.REJECTED) {
+			permit.onIgnore();
+		} else {
+			permit.onDropped();
+		}
+	}
+
+	private static RejectedExecutionException limitReached(MessageExecutor executor, ConcurrencyLimiter limiter) {
+		log.warn("The concurrency limit {} of executor {} has been reached, shedding the send", limiter.getLimit(),
+				executor.getName());
+		return new RejectedExecutionException("The concurrency limit of executor " + executor.getName() + " has been reached");
+	}
+
+	/*
+		The blocking counterpart of sendToExecutor. A failed send doesn't throw unless handleException does, it comes
+		back as a HANDLED or DROPPED outcome, so the permit is released on the outcome. The release is tied to the
+		task rather than to the future, which processMessages cancels on a timeout while the send carries on. Only a
+		send cancelled before it started hands its permit back untouched.
+	 */
+	private CompletableFuture<ExecutionOutcome> dispatch(MessageExecutor executor, List<LeiaMessage> messages, Deadline deadline) {
+		final var limiter = getLimiter(executor);
+		final var permit = null != limiter ? limiter.tryAcquire().orElse(null) : null;
+		if (null != limiter && null == permit) {
+			return CompletableFuture.failedFuture(limitReached(executor, limiter));
+		}
+		final var started = new AtomicBoolean();
+		try {
+			final var future = CompletableFuture.supplyAsync(() -> {
+				if (!started.compareAndSet(false, true)) {
+					return null;
+				}
+				ExecutionOutcome outcome = null;
+				try {
+					outcome = executor.execute(messages, deadline);
+					return outcome;
+				} finally {
+					if (null != permit) {
+						release(permit, outcome);
+					}
+				}
+			}, dispatchStrategy.getExecutor(executor));
+			if (null != permit) {
+				future.whenComplete((outcome, throwable) -> {
+					if (started.compareAndSet(false, true)) {
+						permit.onIgnore();
+					}
+				});
+			}
+			return future;
+		} catch (RejectedExecutionException e) {
+			log.error("The send to executor {} has been rejected by the dispatcher", executor.getName());
+			if (null != permit) {
+				permit.onIgnore();
+			}
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/*
+		Sends on the dispatch strategy's executor, within the executor's concurrency limit if there is one. A send
+		past the limit is reported as REJECTED. The permit is held until the send completes, not until the
+		processing threshold, so that a backend which is timing out sees fewer sends.
+	 */
+	protected CompletableFuture<ExecutionOutcome> sendToExecutor(MessageExecutor executor,
+	                                                            List<LeiaMessage> messages,
+	                                                            Deadline deadline) {
+		final var limiter = getLimiter(executor);
+		if (null == limiter) {
+			return executor.sendAsync(messages, dispatchStrategy.getExecutor(executor), deadline);
+		}
+		final var permit = limiter.tryAcquire().orElse(null);
+		if (null == permit) {
+			return CompletableFuture.completedFuture(ExecutionOutcome.of(executor.getName(), ExecutionStatus.REJECTED,
+					messages.size(), limitReached(executor, limiter)));
+		}
+		try {
+			return executor.sendAsync(messages, dispatchStrategy.getExecutor(executor), deadline)
+					.whenComplete((outcome, throwable) -> release(permit, outcome));
+		} catch (RuntimeException e) {
+			permit.onIgnore();
+			throw e;
+		}
+	}
+
 	public void processMessages(List<LeiaMessage> messages,
 	                            BackendFilter backendFilter) {
 		final var executorMapping = getExecutorMapping(messages, backendFilter);
@@ -97,24 +286,62 @@ public class DefaultMessageProcessor implements MessageProcessor {
 			log.debug("Haven't found any eligible executors with the set of messages {}", messages);
 			return;
 		}
-		final var futures = CompletableFuture.allOf(
-				executorMapping.entrySet().stream()
-						.map(each -> CompletableFuture.runAsync(
-								() -> each.getKey().send(each.getValue())))
-						.toArray(CompletableFuture[]::new));
+		final var deadline = Deadline.after(getProcessingThresholdMs(), TimeUnit.MILLISECONDS);
+		final var sends = executorMapping.entrySet().stream()
+				.map(each -> dispatch(each.getKey(), each.getValue(), deadline))
+				.toList();
+		final var futures = CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
 		try {
 			futures.get(getProcessingThresholdMs(), TimeUnit.MILLISECONDS);
 		} catch (InterruptedException e) {
+			cancel(sends);
 			log.error("Couldn't perform the message processor execution. It exceeded the process duration specified : {}",
 					getProcessingThresholdMs(), e);
 			Thread.currentThread().interrupt();
 			throw new IllegalStateException("Couldn't perform the message processor execution. It exceeded the process duration set at " + getProcessingThresholdMs());
 		} catch (Exception e) {
+			cancel(sends);
 			log.error("There is an exception while trying to process messages", e);
 			throw new IllegalStateException("There is an exception while trying to process messages", e);
 		}
 	}
 
+	/*
+		Sends that haven't started yet are skipped. The ones in flight see the deadline pass and stop retrying.
+	 */
+	private static void cancel(List<CompletableFuture<ExecutionOutcome>> sends) {
+		sends.forEach(send -> send.cancel(true));
+	}
+
+	/*
+		Sends to every executor without blocking the caller. The processing threshold is applied per executor through
+		completeOnTimeout, which runs off the shared CompletableFuture delayer, so no thread is parked waiting on the
+		sends. An executor that doesn't finish in time is reported as TIMED_OUT. Its send isn't interrupted, but it
+		carries the same deadline, so it isn't started or retried past it.
+	 */
+	@Override
+	public CompletableFuture<List<ExecutionOutcome>> processMessagesAsync(List<LeiaMessage> messages,
+	                                                                     BackendFilter backendFilter) {
+		final Map<MessageExecutor, List<LeiaMessage>> executorMapping;
+		try {
+			executorMapping = getExecutorMapping(messages, backendFilter);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		if (executorMapping.isEmpty()) {
+			log.debug("Haven't found any eligible executors with the set of messages {}", messages);
+			return CompletableFuture.completedFuture(List.of());
+		}
+		final var deadline = Deadline.after(getProcessingThresholdMs(), TimeUnit.MILLISECONDS);
+		final var futures = executorMapping.entrySet().stream()
+				.map(each -> sendToExecutor(each.getKey(), each.getValue(), deadline)
+						.completeOnTimeout(ExecutionOutcome.of(each.getKey().getName(), ExecutionStatus.TIMED_OUT,
+								each.getValue().size()), getProcessingThresholdMs(), TimeUnit.MILLISECONDS))
+				.toList();
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+				.thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+	}
+
 	@Override
 	public int hashCode() {
 		return this.getName().hashCode();
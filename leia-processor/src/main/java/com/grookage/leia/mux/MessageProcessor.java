@@ -17,10 +17,12 @@
 package com.grookage.leia.mux;
 
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
 import com.grookage.leia.mux.filter.BackendFilter;
 import com.grookage.leia.mux.filter.NoOpBackendFilter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface MessageProcessor {
 
@@ -32,4 +34,22 @@ public interface MessageProcessor {
 	}
 
 	void processMessages(List<LeiaMessage> messages, BackendFilter backendFilter);
+
+	/*
+		Non-blocking variant of processMessages, completes with an outcome per executor the messages were sent to.
+		The default runs processMessages on the common pool and doesn't report per executor outcomes.
+	 */
+	default CompletableFuture<List<ExecutionOutcome>> processMessagesAsync(List<LeiaMessage> messages,
+	                                                                      BackendFilter backendFilter) {
+		return CompletableFuture.supplyAsync(() -> {
+			processMessages(messages, backendFilter);
+			return List.of();
+		});
+	}
+
+	/*
+		Drops whatever routing the processor has memoised, called by the client whenever its schemas are refreshed
+	 */
+	default void invalidateRoutes() {
+	}
 }
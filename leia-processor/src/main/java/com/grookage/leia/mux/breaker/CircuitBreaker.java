@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.breaker;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+	A count based circuit breaker. The outcomes of the last slidingWindowSize sends are kept in a ring, and the
+	circuit opens once the failure rate or the slow call rate in it crosses its threshold. An open circuit refuses
+	sends until openDurationMs has passed, then lets halfOpenCalls trial sends through, whose rates decide whether it
+	closes or opens again.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+	@Getter
+	private final String name;
+	private final int windowSize;
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final long slowCallNanos;
+	private final double slowCallRateThreshold;
+	private final long openNanos;
+	private final int halfOpenCalls;
+	private final boolean[] failures;
+	private final boolean[] slowCalls;
+	private final LongAdder notPermittedCalls = new LongAdder();
+	private int index;
+	private int recorded;
+	private int failureCount;
+	private int slowCallCount;
+	private int halfOpenPermits;
+	private long openedAtNanos;
+	private CircuitState state = CircuitState.CLOSED;
+
+	public CircuitBreaker(String name, CircuitBreakerConfig config) {
+		Preconditions.checkNotNull(config, "Circuit breaker config can't be null");
+		this.name = name;
+		this.windowSize = Math.max(1, config.getSlidingWindowSize());
+		this.minimumCalls = Math.min(windowSize, Math.max(1, config.getMinimumCalls()));
+		this.failureRateThreshold = config.getFailureRateThreshold();
+		this.slowCallNanos = config.getSlowCallDurationMs() > 0
+				? TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMs())
+				: Long.MAX_VALUE;
+		this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+		this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getOpenDurationMs()));
+		this.halfOpenCalls = Math.min(windowSize, Math.max(1, config.getHalfOpenCalls()));
+		this.failures = new boolean[windowSize];
+		this.slowCalls = new boolean[windowSize];
+	}
+
+	/*
+		Whether a send may go ahead. Every send that is let through must be followed by onSuccess or onFailure
+	 */
+	public synchronized boolean tryAcquire() {
+		if (state == CircuitState.CLOSED) {
+			return true;
+		}
+		if (state == CircuitState.OPEN) {
+			if (System.nanoTime() - openedAtNanos < openNanos) {
+				notPermittedCalls.increment();
+				return false;
+			}
+			transition(CircuitState.HALF_OPEN);
+		}
+		if (halfOpenPermits < halfOpenCalls) {
+			halfOpenPermits++;
+			return true;
+		}
+		notPermittedCalls.increment();
+		return false;
+	}
+
+	/*
+		Whether tryAcquire would let a send through, without taking a permit. For callers that have work to do before
+		they can send, like taking the messages off a queue.
+	 */
+	public synchronized boolean isCallPermitted() {
+		return switch (state) {
+			case CLOSED -> true;
+			case OPEN -> System.nanoTime() - openedAtNanos >= openNanos;
+			case HALF_OPEN -> halfOpenPermits < halfOpenCalls;
+		};
+	}
+
+	public void onSuccess(long durationNanos) {
+		record(false, durationNanos);
+	}
+
+	public void onFailure(long durationNanos) {
+		record(true, durationNanos);
+	}
+
+	private synchronized void record(boolean failed, long durationNanos) {
+		/*
+			A send that started before the circuit opened, its outcome is of no use anymore
+		 */
+		if (state == CircuitState.OPEN) {
+			return;
+		}
+		final var slow = durationNanos >= slowCallNanos;
+		if (recorded == windowSize) {
+			failureCount -= failures[index] ? 1 : 0;
+			slowCallCount -= slowCalls[index] ? 1 : 0;
+		} else {
+			recorded++;
+		}
+		failures[index] = failed;
+		slowCalls[index] = slow;
+		failureCount += failed ? 1 : 0;
+		slowCallCount += slow ? 1 : 0;
+		index = (index + 1) % windowSize;
+
+		if (state == CircuitState.HALF_OPEN) {
+			if (recorded >= halfOpenCalls) {
+				transition(thresholdsCrossed() ? CircuitState.OPEN : CircuitState.CLOSED);
+			}
+			return;
+		}
+		if (recorded >= minimumCalls && thresholdsCrossed()) {
+			transition(CircuitState.OPEN);
+		}
+	}
+
+	private boolean thresholdsCrossed() {
+		return rate(failureCount) >= failureRateThreshold
+				|| (slowCallNanos != Long.MAX_VALUE && rate(slowCallCount) >= slowCallRateThreshold);
+	}
+
+	private double rate(int count) {
+		return recorded == 0 ? 0 : count * 100.0 / recorded;
+	}
+
+	private void transition(CircuitState target) {
+		log.warn("Circuit breaker {} moving from {} to {}, failure rate {}, slow call rate {}", name, state, target,
+				rate(failureCount), rate(slowCallCount));
+		state = target;
+		index = 0;
+		recorded = 0;
+		failureCount = 0;
+		slowCallCount = 0;
+		halfOpenPermits = 0;
+		Arrays.fill(failures, false);
+		Arrays.fill(slowCalls, false);
+		if (target == CircuitState.OPEN) {
+			openedAtNanos = System.nanoTime();
+		}
+	}
+
+	public synchronized CircuitState getState() {
+		return state;
+	}
+
+	public synchronized double getFailureRate() {
+		return rate(failureCount);
+	}
+
+	public synchronized double getSlowCallRate() {
+		return rate(slowCallCount);
+	}
+
+	public long getNotPermittedCalls() {
+		return notPermittedCalls.sum();
+	}
+}
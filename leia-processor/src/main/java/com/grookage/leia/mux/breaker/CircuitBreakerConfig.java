@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.breaker;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+/*
+	The rates are percentages over the last slidingWindowSize sends, and are only acted upon once minimumCalls sends
+	have been recorded. slowCallDurationMs of 0 turns the slow call rate off.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CircuitBreakerConfig {
+	@Builder.Default
+	int slidingWindowSize = 100;
+	@Builder.Default
+	int minimumCalls = 20;
+	@Builder.Default
+	double failureRateThreshold = 50;
+	@Builder.Default
+	long slowCallDurationMs = 0;
+	@Builder.Default
+	double slowCallRateThreshold = 100;
+	@Builder.Default
+	long openDurationMs = 30_000;
+	@Builder.Default
+	int halfOpenCalls = 5;
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.dispatch;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/*
+	A bounded pool per message executor, so that a slow backend can only exhaust its own threads. Once the threads
+	and the queue of a backend are full its sends are rejected and counted, the other backends are unaffected.
+ */
+@Slf4j
+public class BulkheadDispatchStrategy implements DispatchStrategy {
+
+	private final int threadsPerBackend;
+	private final int queueSizePerBackend;
+	private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+	@Builder
+	public BulkheadDispatchStrategy(int threadsPerBackend, int queueSizePerBackend) {
+		this.threadsPerBackend = Math.max(1, threadsPerBackend);
+		this.queueSizePerBackend = Math.max(1, queueSizePerBackend);
+	}
+
+	@Override
+	public Executor getExecutor(MessageExecutor messageExecutor) {
+		final var backend = Preconditions.checkNotNull(messageExecutor.getName(), "Message executor name can't be null");
+		return executors.computeIfAbsent(backend, this::createExecutor);
+	}
+
+	@Override
+	public boolean isKeyedByName() {
+		return true;
+	}
+
+	private ThreadPoolExecutor createExecutor(String backend) {
+		final var rejected = rejections.computeIfAbsent(backend, key -> new LongAdder());
+		final var executor = new ThreadPoolExecutor(threadsPerBackend, threadsPerBackend, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueSizePerBackend),
+				new ThreadFactoryBuilder()
+						.setNameFormat("leia-bulkhead-" + backend + "-%d")
+						.setDaemon(true)
+						.build(),
+				(task, pool) -> {
+					rejected.increment();
+					log.warn("The bulkhead of backend {} is full, rejecting the send", backend);
+					throw new RejectedExecutionException("The bulkhead of backend " + backend + " is full");
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public long getRejections(String backend) {
+		final var rejected = rejections.get(backend);
+		return null == rejected ? 0 : rejected.sum();
+	}
+
+	public Map<String, Long> getRejections() {
+		return rejections.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+	}
+
+	@Override
+	public void stop() {
+		executors.values().forEach(ThreadPoolExecutor::shutdown);
+		executors.clear();
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.dispatch;
+
+import com.grookage.leia.mux.executor.MessageExecutor;
+
+import java.util.concurrent.Executor;
+
+/*
+	Decides the threads the sends of a message executor run on. An executor handed out may reject a send with a
+	RejectedExecutionException when it has no capacity left, the processor reports such sends as REJECTED.
+ */
+public interface DispatchStrategy {
+
+	Executor getExecutor(MessageExecutor messageExecutor);
+
+	/*
+		True when the executors handed out are keyed by the name of the message executor, which then can't be null
+	 */
+	default boolean isKeyedByName() {
+		return false;
+	}
+
+	default void stop() {
+	}
+}
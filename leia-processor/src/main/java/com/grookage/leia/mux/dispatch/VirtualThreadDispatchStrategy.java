@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.dispatch;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+	Runs every send on a virtual thread of its own, so that a blocking send doesn't hold on to a platform thread.
+	The project targets java 17, hence the virtual thread executor is looked up reflectively, on older runtimes this
+	falls back to an unbounded pool of daemon threads.
+ */
+@Slf4j
+public class VirtualThreadDispatchStrategy implements DispatchStrategy {
+
+	private final ExecutorService executorService;
+
+	public VirtualThreadDispatchStrategy() {
+		this.executorService = createExecutorService();
+	}
+
+	private static ExecutorService createExecutorService() {
+		try {
+			final var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			log.warn("Virtual threads aren't available on this runtime, dispatching the sends on a cached thread pool");
+			return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+					.setNameFormat("leia-dispatch-%d")
+					.setDaemon(true)
+					.build());
+		}
+	}
+
+	@Override
+	public Executor getExecutor(MessageExecutor messageExecutor) {
+		return executorService;
+	}
+
+	@Override
+	public void stop() {
+		executorService.shutdown();
+	}
+}
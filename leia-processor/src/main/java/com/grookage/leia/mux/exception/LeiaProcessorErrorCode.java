@@ -24,7 +24,13 @@ public enum LeiaProcessorErrorCode implements LeiaErrorCode {
 
 	BACKENDS_NOT_FOUND(500),
 
-	EXECUTOR_NOT_FOUND(500);
+	EXECUTOR_NOT_FOUND(500),
+
+	EXECUTOR_NAME_NOT_FOUND(500),
+
+	CIRCUIT_OPEN(503),
+
+	DEADLINE_EXCEEDED(504);
 
 	final int status;
 
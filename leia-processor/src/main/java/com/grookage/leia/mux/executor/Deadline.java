@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.executor;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+	The point in time a caller stops waiting for a send, carried down to the executors so that they can bound their
+	timeouts and retries by it, and skip sends the caller has already given up on
+ */
+public final class Deadline {
+
+	private static final Deadline NONE = new Deadline(false, 0L);
+
+	private final boolean bounded;
+	private final long deadlineNanos;
+
+	private Deadline(boolean bounded, long deadlineNanos) {
+		this.bounded = bounded;
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	public static Deadline none() {
+		return NONE;
+	}
+
+	public static Deadline after(long duration, TimeUnit unit) {
+		return new Deadline(true, System.nanoTime() + unit.toNanos(duration));
+	}
+
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	public boolean isExpired() {
+		return bounded && System.nanoTime() - deadlineNanos >= 0;
+	}
+
+	/*
+		Long.MAX_VALUE when unbounded, never negative
+	 */
+	public long remaining(TimeUnit unit) {
+		if (!bounded) {
+			return Long.MAX_VALUE;
+		}
+		return unit.convert(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public String toString() {
+		return bounded ? "Deadline[" + remaining(TimeUnit.MILLISECONDS) + "ms]" : "Deadline[none]";
+	}
+}
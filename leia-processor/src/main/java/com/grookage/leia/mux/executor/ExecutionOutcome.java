@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.executor;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+	Result of handing a set of messages to a single executor
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExecutionOutcome {
+
+	private String executorName;
+	private ExecutionStatus status;
+	private int messageCount;
+	private Throwable error;
+
+	public static ExecutionOutcome of(String executorName, ExecutionStatus status, int messageCount) {
+		return of(executorName, status, messageCount, null);
+	}
+
+	public static ExecutionOutcome of(String executorName, ExecutionStatus status, int messageCount, Throwable error) {
+		return ExecutionOutcome.builder()
+				.executorName(executorName)
+				.status(status)
+				.messageCount(messageCount)
+				.error(error)
+				.build();
+	}
+
+	public boolean isSuccess() {
+		return ExecutionStatus.SUCCESS == status;
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.executor;
+
+public enum ExecutionStatus {
+
+	/*
+		The messages were sent to the backend
+	 */
+	SUCCESS,
+
+	/*
+		The send failed and the executor's handleException took care of the messages
+	 */
+	HANDLED,
+
+	/*
+		The send failed with an exception the executor marked as droppable
+	 */
+	DROPPED,
+
+	/*
+		The send, or the exception handling, failed
+	 */
+	FAILED,
+
+	/*
+		The send didn't complete within the processing threshold, it may still complete later
+	 */
+	TIMED_OUT,
+
+	/*
+		The send was never attempted, the dispatcher had no capacity left for it
+	 */
+	REJECTED
+}
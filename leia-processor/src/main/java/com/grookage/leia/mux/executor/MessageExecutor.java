@@ -16,17 +16,34 @@
 
 package com.grookage.leia.mux.executor;
 
+import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.breaker.CircuitBreaker;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
 
 @Slf4j
 @NoArgsConstructor
 public abstract class MessageExecutor {
 
+	/*
+		When set, sends are failed fast into handleException while the circuit is open
+	 */
+	@Getter
+	@Setter
+	private CircuitBreaker circuitBreaker;
+
 	public abstract String getName();
 
 	public Set<Class<?>> getDroppableExceptions() {
@@ -35,22 +52,122 @@ public abstract class MessageExecutor {
 
 	public abstract void sendEnvelope(List<LeiaMessage> messages);
 
+	/*
+		Executors that can bound their timeouts and retries by the deadline should override this, the default ignores it
+	 */
+	public void sendEnvelope(List<LeiaMessage> messages, Deadline deadline) {
+		sendEnvelope(messages);
+	}
+
 	public boolean isExceptionIgnorable(Throwable t) {
 		return getDroppableExceptions().stream()
 				.anyMatch(exceptionType -> exceptionType.isAssignableFrom(t.getClass()));
 	}
 
-	public void send(List<LeiaMessage> messages) {
+	/*
+		Final, the processors call execute for the outcome, so an override of send would be bypassed. The send is
+		customised through sendEnvelope, execute and handleException.
+	 */
+	public final void send(List<LeiaMessage> messages) {
+		send(messages, Deadline.none());
+	}
+
+	public final void send(List<LeiaMessage> messages, Deadline deadline) {
+		execute(messages, deadline);
+	}
+
+	/*
+		Same as send, but reports what happened to the messages. An exception thrown by handleException is propagated,
+		the same as send
+	 */
+	public ExecutionOutcome execute(List<LeiaMessage> messages) {
+		return execute(messages, Deadline.none());
+	}
+
+	public ExecutionOutcome execute(List<LeiaMessage> messages, Deadline deadline) {
+		return execute(messages, deadline, this::sendEnvelope, circuitBreaker);
+	}
+
+	/*
+		Runs the sender behind the circuit breaker, if any. An open circuit, or a deadline that has already passed,
+		goes straight to the exception handling with a CIRCUIT_OPEN or DEADLINE_EXCEEDED error, without the sender
+		being called.
+	 */
+	protected ExecutionOutcome execute(List<LeiaMessage> messages,
+	                                   Deadline deadline,
+	                                   BiConsumer<List<LeiaMessage>, Deadline> sender,
+	                                   CircuitBreaker breaker) {
+		if (deadline.isExpired()) {
+			log.debug("The deadline of the send to executor {} has passed, failing the send of {} messages", getName(),
+					messages.size());
+			return onFailure(messages, LeiaException.error(LeiaProcessorErrorCode.DEADLINE_EXCEEDED));
+		}
+		if (null != breaker && !breaker.tryAcquire()) {
+			log.debug("The circuit of executor {} is open, failing the send of {} messages", getName(), messages.size());
+			return onFailure(messages, LeiaException.error(LeiaProcessorErrorCode.CIRCUIT_OPEN));
+		}
+		final var startNanos = System.nanoTime();
 		try {
-			sendEnvelope(messages);
+			sender.accept(messages, deadline);
+			record(breaker, null, System.nanoTime() - startNanos);
+			return ExecutionOutcome.of(getName(), ExecutionStatus.SUCCESS, messages.size());
 		} catch (Exception e) {
+			record(breaker, e, System.nanoTime() - startNanos);
 			log.error("There is an error trying to send the messages to executor name {}. Trying the exception handler", getName());
-			final var exceptionIgnorable = isExceptionIgnorable(e);
-			if (exceptionIgnorable) {
-				log.debug("The exception occurred has been marked as ignorable, ignoring the exception processing", e);
-			} else {
-				handleException(messages, e);
-			}
+			return onFailure(messages, e);
+		}
+	}
+
+	/*
+		A droppable exception is an expected answer of the backend, recorded as a success so that it can't open the
+		circuit
+	 */
+	protected void record(CircuitBreaker breaker, Throwable failure, long durationNanos) {
+		if (null == breaker) {
+			return;
+		}
+		if (null == failure || isExceptionIgnorable(failure)) {
+			breaker.onSuccess(durationNanos);
+		} else {
+			breaker.onFailure(durationNanos);
+		}
+	}
+
+	/*
+		Drops the messages if the exception is droppable, hands them to handleException otherwise
+	 */
+	protected ExecutionOutcome onFailure(List<LeiaMessage> messages, Exception e) {
+		final var exceptionIgnorable = isExceptionIgnorable(e);
+		if (exceptionIgnorable) {
+			log.debug("The exception occurred has been marked as ignorable, ignoring the exception processing", e);
+			return ExecutionOutcome.of(getName(), ExecutionStatus.DROPPED, messages.size(), e);
+		}
+		handleException(messages, e);
+		return ExecutionOutcome.of(getName(), ExecutionStatus.HANDLED, messages.size(), e);
+	}
+
+	/*
+		Non-blocking variant of send. The future never completes exceptionally, a failure is reported as a FAILED
+		outcome. The default runs execute on the common pool.
+	 */
+	public CompletableFuture<ExecutionOutcome> sendAsync(List<LeiaMessage> messages) {
+		return sendAsync(messages, ForkJoinPool.commonPool());
+	}
+
+	/*
+		Runs execute on the given executor, a send the executor rejects is reported as REJECTED. Executors with a
+		natively asynchronous transport should override this.
+	 */
+	public CompletableFuture<ExecutionOutcome> sendAsync(List<LeiaMessage> messages, Executor executor) {
+		return sendAsync(messages, executor, Deadline.none());
+	}
+
+	public CompletableFuture<ExecutionOutcome> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+		try {
+			return CompletableFuture.supplyAsync(() -> execute(messages, deadline), executor)
+					.exceptionally(throwable -> ExecutionOutcome.of(getName(), ExecutionStatus.FAILED, messages.size(), throwable));
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.completedFuture(ExecutionOutcome.of(getName(), ExecutionStatus.REJECTED, messages.size(), e));
 		}
 	}
 
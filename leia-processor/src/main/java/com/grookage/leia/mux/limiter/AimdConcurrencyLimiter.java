@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.limiter;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+	Additive increase, multiplicative decrease. The limit grows by one on every success while at least half of it is
+	in use, and is cut by the backoffRatio on every failure, or on every success slower than the latencyThresholdMs.
+	A backend that slows down thus gets fewer concurrent sends, and more again as it recovers.
+ */
+public class AimdConcurrencyLimiter implements ConcurrencyLimiter {
+
+	private static final int DEFAULT_INITIAL_LIMIT = 20;
+	private static final int DEFAULT_MAX_LIMIT = 200;
+	private static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+	@Getter
+	private final int minLimit;
+	@Getter
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final long latencyThresholdNanos;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder rejections = new LongAdder();
+	private volatile int limit;
+
+	/*
+		latencyThresholdMs is off when not set, only failures reduce the limit then
+	 */
+	@Builder
+	public AimdConcurrencyLimiter(int initialLimit,
+	                              int minLimit,
+	                              int maxLimit,
+	                              double backoffRatio,
+	                              long latencyThresholdMs) {
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit > 0 ? maxLimit : DEFAULT_MAX_LIMIT);
+		this.backoffRatio = backoffRatio > 0 && backoffRatio < 1 ? backoffRatio : DEFAULT_BACKOFF_RATIO;
+		this.latencyThresholdNanos = latencyThresholdMs > 0 ? latencyThresholdMs * 1_000_000L : Long.MAX_VALUE;
+		this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit > 0 ? initialLimit : DEFAULT_INITIAL_LIMIT));
+	}
+
+	@Override
+	public Optional<Permit> tryAcquire() {
+		while (true) {
+			final var current = inFlight.get();
+			if (current >= limit) {
+				rejections.increment();
+				return Optional.empty();
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return Optional.of(new AimdPermit(System.nanoTime(), current + 1));
+			}
+		}
+	}
+
+	@Override
+	public int getLimit() {
+		return limit;
+	}
+
+	@Override
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	@Override
+	public long getRejections() {
+		return rejections.sum();
+	}
+
+	private synchronized void increase(int inFlightAtStart) {
+		/*
+			A send that went out with most of the limit unused says nothing about whether more would be fine
+		 */
+		if (inFlightAtStart * 2 >= limit && limit < maxLimit) {
+			limit = limit + 1;
+		}
+	}
+
+	private synchronized void decrease() {
+		limit = Math.max(minLimit, (int) (limit * backoffRatio));
+	}
+
+	private class AimdPermit implements Permit {
+
+		private final long startNanos;
+		private final int inFlightAtStart;
+		private final AtomicInteger released = new AtomicInteger();
+
+		private AimdPermit(long startNanos, int inFlightAtStart) {
+			this.startNanos = startNanos;
+			this.inFlightAtStart = inFlightAtStart;
+		}
+
+		private boolean release() {
+			if (!released.compareAndSet(0, 1)) {
+				return false;
+			}
+			inFlight.decrementAndGet();
+			return true;
+		}
+
+		@Override
+		public void onSuccess() {
+			if (!release()) {
+				return;
+			}
+			if (System.nanoTime() - startNanos > latencyThresholdNanos) {
+				decrease();
+			} else {
+				increase(inFlightAtStart);
+			}
+		}
+
+		@Override
+		public void onDropped() {
+			if (release()) {
+				decrease();
+			}
+		}
+
+		@Override
+		public void onIgnore() {
+			release();
+		}
+	}
+}
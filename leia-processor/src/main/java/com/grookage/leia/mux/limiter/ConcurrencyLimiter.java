@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.limiter;
+
+import java.util.Optional;
+
+/*
+	Caps the sends in flight to a single executor. A send goes ahead only with a permit, and reports back through it
+	how it went, which is what the limit adapts to.
+ */
+public interface ConcurrencyLimiter {
+
+	/*
+		Empty when the limit has been reached, the send is to be shed
+	 */
+	Optional<Permit> tryAcquire();
+
+	int getLimit();
+
+	int getInFlight();
+
+	long getRejections();
+
+	interface Permit {
+
+		/*
+			The send completed, the time since the permit was acquired is taken as its latency
+		 */
+		void onSuccess();
+
+		/*
+			The send failed or timed out, taken as a sign of overload
+		 */
+		void onDropped();
+
+		/*
+			The send wasn't attempted, the permit is released without touching the limit
+		 */
+		void onIgnore();
+	}
+}
@@ -24,4 +24,12 @@ public interface BackendNameResolver {
 
 	Set<String> getEligibleBackends(LeiaMessage leiaMessage);
 
+	/*
+		True when the eligible backends depend only on the tags of the message, which lets a processor cache them
+		against the tag set
+	 */
+	default boolean isTagBased() {
+		return false;
+	}
+
 }
@@ -23,7 +23,7 @@ import lombok.Data;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 @AllArgsConstructor
 @Data
@@ -31,6 +31,7 @@ public class TagBasedNameResolver implements BackendNameResolver {
 
 	private static final String BACKEND_TAG = "backend";
 	private static final String TAG_SEPARATOR = "-";
+	private static final Pattern BACKEND_SEPARATOR = Pattern.compile("\\s*::\\s*");
 
 	@Override
 	public Set<String> getEligibleBackends(LeiaMessage leiaMessage) {
@@ -38,15 +39,22 @@ public class TagBasedNameResolver implements BackendNameResolver {
 		if (null == tags || tags.isEmpty()) {
 			return Set.of();
 		}
-		final var backendTag = tags.stream()
-				.filter(each -> each.contains(BACKEND_TAG)).findFirst().orElse(null);
+		String backendTag = null;
+		for (final var tag : tags) {
+			if (tag.contains(BACKEND_TAG)) {
+				backendTag = tag;
+				break;
+			}
+		}
 		if (null == backendTag) {
 			return Set.of();
 		}
-		return Arrays.stream(
-						backendTag.toUpperCase(Locale.ROOT)
-								.substring(backendTag.lastIndexOf(TAG_SEPARATOR) + 1)
-								.split("\\s*::\\s*"))
-				.collect(Collectors.toSet());
+		return Set.copyOf(Arrays.asList(BACKEND_SEPARATOR.split(backendTag.toUpperCase(Locale.ROOT)
+				.substring(backendTag.lastIndexOf(TAG_SEPARATOR) + 1))));
+	}
+
+	@Override
+	public boolean isTagBased() {
+		return true;
 	}
 }
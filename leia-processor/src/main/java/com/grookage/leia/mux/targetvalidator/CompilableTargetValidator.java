@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.targetvalidator;
+
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+
+import java.util.List;
+
+/*
+	A TargetValidator which can compile the targets of a source upfront. The compiled matcher should depend only on the
+	targets, so that it can be cached and reused across messages and validator instances of the same type.
+ */
+public interface CompilableTargetValidator extends TargetValidator {
+
+	TargetMatcher compile(List<TransformationTarget> transformationTargets);
+}
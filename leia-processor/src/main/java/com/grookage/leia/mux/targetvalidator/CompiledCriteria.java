@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.targetvalidator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.models.mux.MessageRequest;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import io.appform.jsonrules.Expression;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/*
+	The criteria of all the targets of a source, compiled into a decision structure.
+	a) Targets without a criteria always match.
+	b) Criteria that are a plain string equality on a path are grouped by the path, the path is read once per message
+	and the matching targets are looked up by the value read, instead of evaluating each criteria.
+	c) Everything else is evaluated through the expression itself, identical criteria across targets are evaluated once.
+	Whenever the value read for an equality group isn't a string, the group falls back to evaluating the expressions,
+	so that the outcome stays the same as JsonRuleTargetValidator.
+ */
+@Slf4j
+public class CompiledCriteria implements TargetMatcher {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final Configuration CONFIGURATION = Configuration.builder()
+			.jsonProvider(new JacksonJsonNodeJsonProvider())
+			.mappingProvider(new JacksonMappingProvider())
+			.build();
+	private static final String EQUALS = "equals";
+	private static final Set<String> EQUALITY_FIELDS = Set.of("type", "path", "value");
+
+	private final Expression[] criteria;
+	private final boolean[] unconditional;
+	private final List<EqualityGroup> equalityGroups;
+	private final List<ExpressionGroup> expressionGroups;
+
+	private CompiledCriteria(Expression[] criteria,
+	                         boolean[] unconditional,
+	                         List<EqualityGroup> equalityGroups,
+	                         List<ExpressionGroup> expressionGroups) {
+		this.criteria = criteria;
+		this.unconditional = unconditional;
+		this.equalityGroups = equalityGroups;
+		this.expressionGroups = expressionGroups;
+	}
+
+	public static CompiledCriteria compile(List<TransformationTarget> transformationTargets) {
+		final var size = transformationTargets.size();
+		final var criteria = new Expression[size];
+		final var unconditional = new boolean[size];
+		final var equalities = new LinkedHashMap<String, Map<String, List<Integer>>>();
+		final var expressions = new LinkedHashMap<String, List<Integer>>();
+		for (var i = 0; i < size; i++) {
+			final var expression = transformationTargets.get(i).getCriteria();
+			criteria[i] = expression;
+			if (null == expression) {
+				unconditional[i] = true;
+				continue;
+			}
+			final var node = toNode(expression);
+			if (null != node && isStringEquality(node)) {
+				equalities.computeIfAbsent(node.get("path").textValue(), key -> new HashMap<>())
+						.computeIfAbsent(node.get("value").textValue(), key -> new ArrayList<>())
+						.add(i);
+				continue;
+			}
+			final var expressionKey = null != node ? node.toString() : "target-" + i;
+			expressions.computeIfAbsent(expressionKey, key -> new ArrayList<>()).add(i);
+		}
+
+		final var equalityGroups = new ArrayList<EqualityGroup>();
+		equalities.forEach((path, targetsByValue) -> {
+			final var compiledPath = compilePath(path);
+			if (null == compiledPath) {
+				targetsByValue.values().forEach(targets -> targets.forEach(target ->
+						expressions.computeIfAbsent("target-" + target, key -> new ArrayList<>()).add(target)));
+				return;
+			}
+			final var compiledTargets = new HashMap<String, int[]>();
+			targetsByValue.forEach((value, targets) -> compiledTargets.put(value, toArray(targets)));
+			equalityGroups.add(new EqualityGroup(compiledPath, Map.copyOf(compiledTargets),
+					toArray(targetsByValue.values().stream().flatMap(List::stream).toList())));
+		});
+		final var expressionGroups = expressions.values().stream()
+				.map(targets -> new ExpressionGroup(criteria[targets.get(0)], toArray(targets)))
+				.toList();
+		return new CompiledCriteria(criteria, unconditional, List.copyOf(equalityGroups), expressionGroups);
+	}
+
+	private static JsonNode toNode(Expression expression) {
+		try {
+			return MAPPER.valueToTree(expression);
+		} catch (Exception e) {
+			log.debug("Couldn't convert the criteria {} to its json form, it will be evaluated as is", expression, e);
+			return null;
+		}
+	}
+
+	/*
+		Only an equality with no other switches set (a pre-operation, a default result and so on) is safe to
+		dispatch on the value read
+	 */
+	private static boolean isStringEquality(JsonNode node) {
+		if (!EQUALS.equals(node.path("type").asText()) || !node.path("path").isTextual() || !node.path("value").isTextual()) {
+			return false;
+		}
+		final var fields = node.fields();
+		while (fields.hasNext()) {
+			final var field = fields.next();
+			if (EQUALITY_FIELDS.contains(field.getKey())) {
+				continue;
+			}
+			final var value = field.getValue();
+			if (!value.isNull() && !(value.isBoolean() && !value.booleanValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static JsonPath compilePath(String path) {
+		try {
+			return JsonPath.compile(path);
+		} catch (InvalidPathException e) {
+			log.debug("Couldn't compile the criteria path {}, it will be evaluated as is", path, e);
+			return null;
+		}
+	}
+
+	private static int[] toArray(List<Integer> targets) {
+		return targets.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	@Override
+	public boolean isCompiledFrom(List<TransformationTarget> transformationTargets) {
+		if (transformationTargets.size() != criteria.length) {
+			return false;
+		}
+		for (var i = 0; i < criteria.length; i++) {
+			if (transformationTargets.get(i).getCriteria() != criteria[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean[] matches(MessageRequest messageRequest, SchemaDetails schemaDetails) {
+		final var message = messageRequest.getMessage();
+		final var matches = unconditional.clone();
+		if (!equalityGroups.isEmpty()) {
+			final var context = parse(message);
+			equalityGroups.forEach(group -> group.evaluate(context, message, criteria, matches));
+		}
+		expressionGroups.forEach(group -> group.evaluate(message, matches));
+		return matches;
+	}
+
+	private static DocumentContext parse(JsonNode message) {
+		if (null == message) {
+			return null;
+		}
+		return JsonPath.using(CONFIGURATION).parse(message);
+	}
+
+	@AllArgsConstructor
+	private static class EqualityGroup {
+		private final JsonPath path;
+		private final Map<String, int[]> targetsByValue;
+		private final int[] targets;
+
+		void evaluate(DocumentContext context, JsonNode message, Expression[] criteria, boolean[] matches) {
+			final var node = read(context);
+			if (null != node && node.isTextual()) {
+				final var matchingTargets = targetsByValue.get(node.textValue());
+				if (null != matchingTargets) {
+					for (final var target : matchingTargets) {
+						matches[target] = true;
+					}
+				}
+				return;
+			}
+			for (final var target : targets) {
+				matches[target] = criteria[target].evaluate(message);
+			}
+		}
+
+		private JsonNode read(DocumentContext context) {
+			if (null == context) {
+				return null;
+			}
+			try {
+				return context.read(path);
+			} catch (Exception e) {
+				return null;
+			}
+		}
+	}
+
+	@AllArgsConstructor
+	private static class ExpressionGroup {
+		private final Expression expression;
+		private final int[] targets;
+
+		void evaluate(JsonNode message, boolean[] matches) {
+			if (!expression.evaluate(message)) {
+				return;
+			}
+			for (final var target : targets) {
+				matches[target] = true;
+			}
+		}
+	}
+}
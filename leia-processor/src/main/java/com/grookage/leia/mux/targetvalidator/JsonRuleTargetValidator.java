@@ -21,8 +21,10 @@ import com.grookage.leia.models.schema.SchemaDetails;
 import com.grookage.leia.models.schema.transformer.TransformationTarget;
 import lombok.AllArgsConstructor;
 
+import java.util.List;
+
 @AllArgsConstructor
-public class JsonRuleTargetValidator implements TargetValidator {
+public class JsonRuleTargetValidator implements CompilableTargetValidator {
 
 	@Override
 	public boolean validate(TransformationTarget transformationTarget,
@@ -33,4 +35,9 @@ public class JsonRuleTargetValidator implements TargetValidator {
 		}
 		return transformationTarget.getCriteria().evaluate(messageRequest.getMessage());
 	}
+
+	@Override
+	public TargetMatcher compile(List<TransformationTarget> transformationTargets) {
+		return CompiledCriteria.compile(transformationTargets);
+	}
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.targetvalidator;
+
+import com.grookage.leia.models.mux.MessageRequest;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+
+import java.util.List;
+
+/*
+	Validates all the transformationTargets of a source in a single pass, built by a CompilableTargetValidator
+ */
+public interface TargetMatcher {
+
+	/*
+		Whether this matcher still reflects the given targets, and can be used in place of compiling them again
+	 */
+	boolean isCompiledFrom(List<TransformationTarget> transformationTargets);
+
+	/*
+		Returns, for every target in the compiled order, if the target is valid for the message
+	 */
+	boolean[] matches(MessageRequest messageRequest, SchemaDetails schemaDetails);
+}
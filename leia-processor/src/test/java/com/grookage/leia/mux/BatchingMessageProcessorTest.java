@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.mux.dispatch.DispatchStrategy;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.filter.NoOpBackendFilter;
+import com.grookage.leia.mux.resolver.TagBasedNameResolver;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+class BatchingMessageProcessorTest {
+
+	private static final LeiaMessage MESSAGE = LeiaMessage.builder()
+			.schemaKey(SchemaKey.builder()
+					.namespace("testNamespace")
+					.schemaName("testSchema")
+					.version("v")
+					.orgId("testOrg")
+					.type("default")
+					.tenantId("tenantId")
+					.build())
+			.tags(Set.of("backend-backend1"))
+			.message(JsonNodeFactory.instance.objectNode().put("name", "leia"))
+			.build();
+
+	private static BatchingMessageProcessor processor(RecordingExecutor executor, int maxBatchSize, long lingerMs) {
+		return BatchingMessageProcessor.batchingBuilder()
+				.name("batching")
+				.processingThresholdMs(5_000L)
+				.backendNameResolver(new TagBasedNameResolver())
+				.executorFactory(backendName -> Optional.of(executor))
+				.maxBatchSize(maxBatchSize)
+				.lingerMs(lingerMs)
+				.build();
+	}
+
+	@Test
+	@SneakyThrows
+	void testSizeTriggeredBatches() {
+		final var executor = new RecordingExecutor();
+		final var processor = processor(executor, 5, 60_000L);
+		final var futures = IntStream.range(0, 10)
+				.mapToObj(i -> CompletableFuture.supplyAsync(() -> processor.processMessagesAsync(List.of(MESSAGE),
+						new NoOpBackendFilter())).thenCompose(future -> future))
+				.toList();
+		for (final var future : futures) {
+			final var outcomes = future.get(5, TimeUnit.SECONDS);
+			Assertions.assertEquals(1, outcomes.size());
+			Assertions.assertTrue(outcomes.get(0).isSuccess());
+			Assertions.assertEquals(1, outcomes.get(0).getMessageCount());
+		}
+		Assertions.assertEquals(List.of(5, 5), executor.batchSizes);
+		processor.stop();
+	}
+
+	@Test
+	@SneakyThrows
+	void testLingerTriggeredBatch() {
+		final var executor = new RecordingExecutor();
+		final var processor = processor(executor, 100, 20L);
+		final var outcomes = processor.processMessagesAsync(List.of(MESSAGE, MESSAGE), new NoOpBackendFilter())
+				.get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(2, outcomes.get(0).getMessageCount());
+		Assertions.assertEquals(List.of(2), executor.batchSizes);
+
+		processor.processMessages(List.of(MESSAGE), new NoOpBackendFilter());
+		Assertions.assertEquals(List.of(2, 1), executor.batchSizes);
+		processor.stop();
+	}
+
+	@Test
+	@SneakyThrows
+	void testInvalidateRoutesFlushesTheAccumulators() {
+		final var executor = new RecordingExecutor();
+		final var processor = processor(executor, 100, 60_000L);
+		final var pending = processor.processMessagesAsync(List.of(MESSAGE), new NoOpBackendFilter());
+		Assertions.assertEquals(1, processor.getAccumulators().size());
+
+		processor.invalidateRoutes();
+		Assertions.assertTrue(processor.getAccumulators().isEmpty());
+		Assertions.assertTrue(pending.get(5, TimeUnit.SECONDS).get(0).isSuccess());
+		Assertions.assertEquals(List.of(1), executor.batchSizes);
+		processor.stop();
+	}
+
+	@Test
+	@SneakyThrows
+	void testFailedBatch() {
+		final var executor = new RecordingExecutor() {
+			@Override
+			public void sendEnvelope(List<LeiaMessage> messages) {
+				throw new IllegalStateException("Backend down");
+			}
+		};
+		final var processor = processor(executor, 1, 20L);
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> processor.processMessages(List.of(MESSAGE), new NoOpBackendFilter()));
+		final var outcome = processor.processMessagesAsync(List.of(MESSAGE), new NoOpBackendFilter())
+				.get(5, TimeUnit.SECONDS).get(0);
+		Assertions.assertFalse(outcome.isSuccess());
+		processor.stop();
+	}
+
+	@Test
+	@SneakyThrows
+	void testStoppedProcessorFailsNewWork() {
+		final var executor = new RecordingExecutor();
+		final var strategyStopped = new AtomicBoolean();
+		final var processor = BatchingMessageProcessor.batchingBuilder()
+				.name("batching")
+				.processingThresholdMs(5_000L)
+				.backendNameResolver(new TagBasedNameResolver())
+				.executorFactory(backendName -> Optional.of(executor))
+				.dispatchStrategy(new DispatchStrategy() {
+					@Override
+					public Executor getExecutor(MessageExecutor messageExecutor) {
+						return ForkJoinPool.commonPool();
+					}
+
+					@Override
+					public void stop() {
+						strategyStopped.set(true);
+					}
+				})
+				.maxBatchSize(100)
+				.lingerMs(60_000L)
+				.build();
+		final var pending = processor.processMessagesAsync(List.of(MESSAGE), new NoOpBackendFilter());
+
+		processor.stop();
+		Assertions.assertTrue(processor.isStopped());
+		Assertions.assertTrue(strategyStopped.get());
+		Assertions.assertTrue(processor.getAccumulators().isEmpty());
+		Assertions.assertTrue(pending.get(5, TimeUnit.SECONDS).get(0).isSuccess());
+		Assertions.assertEquals(List.of(1), executor.batchSizes);
+
+		final var rejected = processor.processMessagesAsync(List.of(MESSAGE), new NoOpBackendFilter());
+		final var exception = Assertions.assertThrows(ExecutionException.class, rejected::get);
+		Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> processor.processMessages(List.of(MESSAGE), new NoOpBackendFilter()));
+		Assertions.assertEquals(List.of(1), executor.batchSizes);
+	}
+
+	private static class RecordingExecutor extends MessageExecutor {
+
+		private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String getName() {
+			return "BACKEND1";
+		}
+
+		@Override
+		public void sendEnvelope(List<LeiaMessage> messages) {
+			batchSizes.add(messages.size());
+		}
+
+		@Override
+		public void handleException(List<LeiaMessage> messages, Exception exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+}
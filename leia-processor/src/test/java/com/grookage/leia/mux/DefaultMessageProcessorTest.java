@@ -20,10 +20,19 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.grookage.leia.models.ResourceHelper;
 import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.breaker.CircuitBreaker;
+import com.grookage.leia.mux.breaker.CircuitBreakerConfig;
+import com.grookage.leia.mux.breaker.CircuitState;
+import com.grookage.leia.mux.dispatch.BulkheadDispatchStrategy;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.ExecutionOutcome;
+import com.grookage.leia.mux.executor.ExecutionStatus;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.grookage.leia.mux.executor.MessageExecutorFactory;
 import com.grookage.leia.mux.filter.BackendFilter;
 import com.grookage.leia.mux.filter.NoOpBackendFilter;
+import com.grookage.leia.mux.limiter.AimdConcurrencyLimiter;
 import com.grookage.leia.mux.resolver.TagBasedNameResolver;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
@@ -31,8 +40,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 class DefaultMessageProcessorTest {
 
@@ -75,7 +90,7 @@ class DefaultMessageProcessorTest {
 			}
 		};
 		messageProcessor1.processMessages(leiaMessages, new NoOpBackendFilter());
-		Mockito.verify(httpExecutor, Mockito.times(1)).send(leiaMessages);
+		Mockito.verify(httpExecutor, Mockito.times(1)).execute(Mockito.eq(leiaMessages), Mockito.any(Deadline.class));
 
 		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1::backend2::backend3",
 				"importance-mild::extreme")));
@@ -93,6 +108,394 @@ class DefaultMessageProcessorTest {
 				return WHITELISTED_BACKENDS.contains(backendName);
 			}
 		});
-		Mockito.verify(httpExecutor, Mockito.times(2)).send(leiaMessages);
+		Mockito.verify(httpExecutor, Mockito.times(2)).execute(Mockito.eq(leiaMessages), Mockito.any(Deadline.class));
+	}
+
+	@Test
+	@SneakyThrows
+	void testProcessMessagesAsync() {
+		final var resolver = new TagBasedNameResolver();
+		final var executors = Map.<String, MessageExecutor>of(
+				"BACKEND1", new TestExecutor("BACKEND1", () -> {
+				}),
+				"BACKEND2", new TestExecutor("BACKEND2", () -> {
+					throw new IllegalArgumentException("Droppable");
+				}),
+				"BACKEND3", new TestExecutor("BACKEND3", () -> {
+					try {
+						Thread.sleep(2_000L);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}));
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1::backend2::backend3")));
+		final var messageProcessor = new DefaultMessageProcessor("test", 200L, resolver,
+				backendName -> Optional.ofNullable(executors.get(backendName)));
+		final var outcomes = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter())
+				.get(5, TimeUnit.SECONDS)
+				.stream()
+				.collect(Collectors.toMap(ExecutionOutcome::getExecutorName, ExecutionOutcome::getStatus));
+		Assertions.assertEquals(Map.of("BACKEND1", ExecutionStatus.SUCCESS,
+				"BACKEND2", ExecutionStatus.DROPPED,
+				"BACKEND3", ExecutionStatus.TIMED_OUT), outcomes);
+
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-unknown")));
+		final var failed = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter());
+		final var exception = Assertions.assertThrows(ExecutionException.class, failed::get);
+		Assertions.assertInstanceOf(LeiaException.class, exception.getCause());
+	}
+
+	@Test
+	@SneakyThrows
+	void testBulkheadDispatch() {
+		final var resolver = new TagBasedNameResolver();
+		final var release = new CountDownLatch(1);
+		final var executors = Map.<String, MessageExecutor>of(
+				"BACKEND1", new TestExecutor("BACKEND1", () -> {
+				}),
+				"BACKEND2", new TestExecutor("BACKEND2", () -> {
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}));
+		final var dispatchStrategy = BulkheadDispatchStrategy.builder()
+				.threadsPerBackend(1)
+				.queueSizePerBackend(1)
+				.build();
+		final var messageProcessor = DefaultMessageProcessor.builder()
+				.name("test")
+				.processingThresholdMs(5_000L)
+				.backendNameResolver(resolver)
+				.executorFactory(backendName -> Optional.ofNullable(executors.get(backendName)))
+				.dispatchStrategy(dispatchStrategy)
+				.build();
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend2")));
+		/*
+			The first send holds the only thread of BACKEND2, the second waits in its queue, the third is rejected
+		 */
+		final var running = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter());
+		final var queued = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter());
+		final var rejected = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter())
+				.get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(ExecutionStatus.REJECTED, rejected.get(0).getStatus());
+		Assertions.assertEquals(1, dispatchStrategy.getRejections("BACKEND2"));
+
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+		final var outcomes = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter())
+				.get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(ExecutionStatus.SUCCESS, outcomes.get(0).getStatus());
+
+		release.countDown();
+		Assertions.assertEquals(ExecutionStatus.SUCCESS, running.get(5, TimeUnit.SECONDS).get(0).getStatus());
+		Assertions.assertEquals(ExecutionStatus.SUCCESS, queued.get(5, TimeUnit.SECONDS).get(0).getStatus());
+		dispatchStrategy.stop();
+	}
+
+	@Test
+	@SneakyThrows
+	void testConcurrencyLimit() {
+		final var resolver = new TagBasedNameResolver();
+		final var release = new CountDownLatch(1);
+		final var executor = new TestExecutor("BACKEND1", () -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		final var messageProcessor = DefaultMessageProcessor.builder()
+				.name("test")
+				.processingThresholdMs(5_000L)
+				.backendNameResolver(resolver)
+				.executorFactory(backendName -> Optional.of(executor))
+				.concurrencyLimiterSupplier(() -> AimdConcurrencyLimiter.builder()
+						.initialLimit(1)
+						.build())
+				.build();
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+		final var running = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter());
+		final var shed = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter())
+				.get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(ExecutionStatus.REJECTED, shed.get(0).getStatus());
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter()));
+		final var limiter = messageProcessor.getConcurrencyLimiter("BACKEND1").orElseThrow();
+		Assertions.assertEquals(1, limiter.getInFlight());
+		Assertions.assertEquals(2, limiter.getRejections());
+
+		release.countDown();
+		Assertions.assertEquals(ExecutionStatus.SUCCESS, running.get(5, TimeUnit.SECONDS).get(0).getStatus());
+		Assertions.assertEquals(0, limiter.getInFlight());
+		Assertions.assertTrue(messageProcessor.getConcurrencyLimiter("BACKEND2").isEmpty());
+	}
+
+	@Test
+	@SneakyThrows
+	void testUnnamedExecutorsAreRejected() {
+		final var executor = new TestExecutor(null, () -> {
+		});
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+		final var limited = DefaultMessageProcessor.builder()
+				.name("test")
+				.processingThresholdMs(5_000L)
+				.backendNameResolver(new TagBasedNameResolver())
+				.executorFactory(backendName -> Optional.of(executor))
+				.concurrencyLimiterSupplier(() -> AimdConcurrencyLimiter.builder().build())
+				.build();
+		final var exception = Assertions.assertThrows(LeiaException.class,
+				() -> limited.processMessages(leiaMessages, new NoOpBackendFilter()));
+		Assertions.assertEquals(LeiaProcessorErrorCode.EXECUTOR_NAME_NOT_FOUND.name(), exception.getCode());
+
+		final var dispatchStrategy = BulkheadDispatchStrategy.builder()
+				.threadsPerBackend(1)
+				.queueSizePerBackend(1)
+				.build();
+		final var bulkheaded = DefaultMessageProcessor.builder()
+				.name("test")
+				.processingThresholdMs(5_000L)
+				.backendNameResolver(new TagBasedNameResolver())
+				.executorFactory(backendName -> Optional.of(executor))
+				.dispatchStrategy(dispatchStrategy)
+				.build();
+		final var failed = bulkheaded.processMessagesAsync(leiaMessages, new NoOpBackendFilter());
+		final var cause = Assertions.assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS)).getCause();
+		Assertions.assertEquals(LeiaProcessorErrorCode.EXECUTOR_NAME_NOT_FOUND.name(), ((LeiaException) cause).getCode());
+		Assertions.assertThrows(NullPointerException.class, () -> dispatchStrategy.getExecutor(executor));
+
+		final var unlimited = new DefaultMessageProcessor("test", 5_000L, new TagBasedNameResolver(),
+				backendName -> Optional.of(executor));
+		unlimited.processMessages(leiaMessages, new NoOpBackendFilter());
+	}
+
+	@Test
+	@SneakyThrows
+	void testFailedSendsShrinkTheLimit() {
+		final var resolver = new TagBasedNameResolver();
+		final var executor = new TestExecutor("BACKEND1", () -> {
+			throw new IllegalArgumentException("Backend unavailable");
+		});
+		final var messageProcessor = DefaultMessageProcessor.builder()
+				.name("test")
+				.processingThresholdMs(5_000L)
+				.backendNameResolver(resolver)
+				.executorFactory(backendName -> Optional.of(executor))
+				.concurrencyLimiterSupplier(() -> AimdConcurrencyLimiter.builder()
+						.initialLimit(10)
+						.build())
+				.build();
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+		messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter());
+		final var limiter = messageProcessor.getConcurrencyLimiter("BACKEND1").orElseThrow();
+		final var deadline = System.currentTimeMillis() + 5_000;
+		while (limiter.getInFlight() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Assertions.assertEquals(0, limiter.getInFlight());
+		Assertions.assertTrue(limiter.getLimit() < 10);
+	}
+
+	@Test
+	@SneakyThrows
+	void testTimedOutSendsHoldTheirPermits() {
+		final var resolver = new TagBasedNameResolver();
+		final var started = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		final var executor = new TestExecutor("BACKEND1", () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		final var messageProcessor = DefaultMessageProcessor.builder()
+				.name("test")
+				.processingThresholdMs(100L)
+				.backendNameResolver(resolver)
+				.executorFactory(backendName -> Optional.of(executor))
+				.concurrencyLimiterSupplier(() -> AimdConcurrencyLimiter.builder()
+						.initialLimit(10)
+						.build())
+				.build();
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter()));
+		Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+		final var limiter = messageProcessor.getConcurrencyLimiter("BACKEND1").orElseThrow();
+		/*
+			The timed out send is still running, so is still counted against the limit
+		 */
+		Assertions.assertEquals(1, limiter.getInFlight());
+
+		release.countDown();
+		final var deadline = System.currentTimeMillis() + 5_000;
+		while (limiter.getInFlight() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Assertions.assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	@SneakyThrows
+	void testTimedOutSendsAreCancelled() {
+		final var resolver = new TagBasedNameResolver();
+		final var release = new CountDownLatch(1);
+		final var invocations = new AtomicInteger();
+		final var executor = new TestExecutor("BACKEND1", () -> {
+			invocations.incrementAndGet();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		final var dispatchStrategy = BulkheadDispatchStrategy.builder()
+				.threadsPerBackend(1)
+				.queueSizePerBackend(2)
+				.build();
+		final var messageProcessor = DefaultMessageProcessor.builder()
+				.name("test")
+				.processingThresholdMs(100L)
+				.backendNameResolver(resolver)
+				.executorFactory(backendName -> Optional.of(executor))
+				.dispatchStrategy(dispatchStrategy)
+				.build();
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+		/*
+			The first send holds the only thread, the second times out waiting in the queue and is never run
+		 */
+		final var running = messageProcessor.processMessagesAsync(leiaMessages, new NoOpBackendFilter());
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter()));
+		Assertions.assertEquals(ExecutionStatus.TIMED_OUT, running.get(5, TimeUnit.SECONDS).get(0).getStatus());
+
+		release.countDown();
+		final var drained = new CountDownLatch(1);
+		dispatchStrategy.getExecutor(executor).execute(drained::countDown);
+		Assertions.assertTrue(drained.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, invocations.get());
+		dispatchStrategy.stop();
+	}
+
+	@Test
+	void testExpiredDeadlineSkipsTheSend() {
+		final var invocations = new AtomicInteger();
+		final var executor = new TestExecutor("BACKEND1", invocations::incrementAndGet) {
+			@Override
+			public void handleException(List<LeiaMessage> messages, Exception exception) {
+				Assertions.assertEquals(LeiaProcessorErrorCode.DEADLINE_EXCEEDED.name(), ((LeiaException) exception).getCode());
+			}
+		};
+		final var outcome = executor.execute(List.of(), Deadline.after(0, TimeUnit.MILLISECONDS));
+		Assertions.assertEquals(ExecutionStatus.HANDLED, outcome.getStatus());
+		Assertions.assertEquals(0, invocations.get());
+		Assertions.assertEquals(ExecutionStatus.SUCCESS, executor.execute(List.of(), Deadline.none()).getStatus());
+		Assertions.assertEquals(1, invocations.get());
+	}
+
+	@Test
+	void testDroppableExceptionsKeepTheCircuitClosed() {
+		final var executor = new TestExecutor("BACKEND1", () -> {
+			throw new IllegalArgumentException("Droppable");
+		});
+		executor.setCircuitBreaker(new CircuitBreaker("BACKEND1", CircuitBreakerConfig.builder()
+				.slidingWindowSize(2)
+				.minimumCalls(2)
+				.failureRateThreshold(50)
+				.openDurationMs(60_000)
+				.build()));
+		Assertions.assertEquals(ExecutionStatus.DROPPED, executor.execute(List.of()).getStatus());
+		Assertions.assertEquals(ExecutionStatus.DROPPED, executor.execute(List.of()).getStatus());
+		Assertions.assertEquals(CircuitState.CLOSED, executor.getCircuitBreaker().getState());
+		Assertions.assertEquals(0, executor.getCircuitBreaker().getFailureRate());
+	}
+
+	@Test
+	@SneakyThrows
+	void testRoutingCache() {
+		final var resolver = Mockito.spy(new TagBasedNameResolver());
+		final var executor = new TestExecutor("BACKEND1", () -> {
+		});
+		final var executorFactory = Mockito.mock(MessageExecutorFactory.class);
+		Mockito.when(executorFactory.getExecutor("BACKEND1")).thenReturn(Optional.of(executor));
+		final var messageProcessor = new DefaultMessageProcessor("test", 10_000L, resolver, executorFactory);
+		final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+		});
+		leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+		messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter());
+		messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter());
+		Mockito.verify(resolver, Mockito.times(1)).getEligibleBackends(Mockito.any());
+		Mockito.verify(executorFactory, Mockito.times(1)).getExecutor("BACKEND1");
+
+		messageProcessor.invalidateRoutes();
+		messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter());
+		Mockito.verify(resolver, Mockito.times(2)).getEligibleBackends(Mockito.any());
+		Mockito.verify(executorFactory, Mockito.times(2)).getExecutor("BACKEND1");
+
+		Mockito.doReturn(null).when(resolver).getEligibleBackends(Mockito.any());
+		messageProcessor.invalidateRoutes();
+		final var exception = Assertions.assertThrows(LeiaException.class,
+				() -> messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter()));
+		Assertions.assertEquals(LeiaProcessorErrorCode.BACKENDS_NOT_FOUND.name(), exception.getCode());
+		Assertions.assertThrows(LeiaException.class,
+				() -> messageProcessor.processMessages(leiaMessages, new NoOpBackendFilter()));
+
+		/*
+			Nothing is memoised for a resolver that isn't tag based
+		 */
+		final var untaggedFactory = Mockito.mock(MessageExecutorFactory.class);
+		Mockito.when(untaggedFactory.getExecutor("BACKEND1")).thenReturn(Optional.of(executor));
+		final var untaggedProcessor = new DefaultMessageProcessor("test", 10_000L, message -> Set.of("BACKEND1"),
+				untaggedFactory);
+		untaggedProcessor.processMessages(leiaMessages, new NoOpBackendFilter());
+		untaggedProcessor.processMessages(leiaMessages, new NoOpBackendFilter());
+		Mockito.verify(untaggedFactory, Mockito.times(2)).getExecutor("BACKEND1");
+	}
+
+	private static class TestExecutor extends MessageExecutor {
+
+		private final String name;
+		private final Runnable action;
+
+		TestExecutor(String name, Runnable action) {
+			this.name = name;
+			this.action = action;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public Set<Class<?>> getDroppableExceptions() {
+			return Set.of(IllegalArgumentException.class);
+		}
+
+		@Override
+		public void sendEnvelope(List<LeiaMessage> messages) {
+			action.run();
+		}
+
+		@Override
+		public void handleException(List<LeiaMessage> messages, Exception exception) {
+			throw new IllegalStateException(exception);
+		}
 	}
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.breaker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class CircuitBreakerTest {
+
+	@Test
+	void testOpensOnFailureRate() {
+		final var breaker = new CircuitBreaker("test", CircuitBreakerConfig.builder()
+				.slidingWindowSize(4)
+				.minimumCalls(4)
+				.failureRateThreshold(50)
+				.openDurationMs(60_000)
+				.build());
+		breaker.onSuccess(0);
+		breaker.onSuccess(0);
+		breaker.onFailure(0);
+		Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+		Assertions.assertTrue(breaker.isCallPermitted());
+		breaker.onFailure(0);
+		Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+		Assertions.assertFalse(breaker.isCallPermitted());
+		Assertions.assertEquals(0, breaker.getNotPermittedCalls());
+		Assertions.assertFalse(breaker.tryAcquire());
+		Assertions.assertEquals(1, breaker.getNotPermittedCalls());
+	}
+
+	@Test
+	void testOpensOnSlowCallRate() {
+		final var breaker = new CircuitBreaker("test", CircuitBreakerConfig.builder()
+				.slidingWindowSize(2)
+				.minimumCalls(2)
+				.slowCallDurationMs(100)
+				.slowCallRateThreshold(100)
+				.build());
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(200));
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+		Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(200));
+		Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(200));
+		Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+	}
+
+	@Test
+	void testHalfOpenTrials() {
+		final var breaker = new CircuitBreaker("test", CircuitBreakerConfig.builder()
+				.slidingWindowSize(2)
+				.minimumCalls(2)
+				.openDurationMs(0)
+				.halfOpenCalls(2)
+				.build());
+		breaker.onFailure(0);
+		breaker.onFailure(0);
+		Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+
+		Assertions.assertTrue(breaker.isCallPermitted());
+		Assertions.assertTrue(breaker.tryAcquire());
+		Assertions.assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+		Assertions.assertTrue(breaker.tryAcquire());
+		Assertions.assertFalse(breaker.isCallPermitted());
+		Assertions.assertFalse(breaker.tryAcquire());
+		breaker.onSuccess(0);
+		breaker.onFailure(0);
+		Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+
+		breaker.tryAcquire();
+		breaker.tryAcquire();
+		breaker.onSuccess(0);
+		breaker.onSuccess(0);
+		Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+		Assertions.assertEquals(0, breaker.getFailureRate());
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.limiter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+class AimdConcurrencyLimiterTest {
+
+	@Test
+	void testLimitIsEnforced() {
+		final var limiter = AimdConcurrencyLimiter.builder()
+				.initialLimit(2)
+				.build();
+		final var first = limiter.tryAcquire();
+		final var second = limiter.tryAcquire();
+		Assertions.assertTrue(first.isPresent());
+		Assertions.assertTrue(second.isPresent());
+		Assertions.assertTrue(limiter.tryAcquire().isEmpty());
+		Assertions.assertEquals(2, limiter.getInFlight());
+		Assertions.assertEquals(1, limiter.getRejections());
+
+		first.get().onIgnore();
+		first.get().onIgnore();
+		Assertions.assertEquals(1, limiter.getInFlight());
+		Assertions.assertEquals(2, limiter.getLimit());
+		Assertions.assertTrue(limiter.tryAcquire().isPresent());
+	}
+
+	@Test
+	void testAdditiveIncreaseMultiplicativeDecrease() {
+		final var limiter = AimdConcurrencyLimiter.builder()
+				.initialLimit(10)
+				.minLimit(2)
+				.maxLimit(12)
+				.backoffRatio(0.5)
+				.build();
+		final var permits = new ArrayList<ConcurrencyLimiter.Permit>();
+		for (int i = 0; i < 10; i++) {
+			permits.add(limiter.tryAcquire().orElseThrow());
+		}
+		permits.forEach(ConcurrencyLimiter.Permit::onSuccess);
+		Assertions.assertEquals(12, limiter.getLimit());
+		Assertions.assertEquals(0, limiter.getInFlight());
+
+		/*
+			A single send at a time doesn't use enough of the limit to grow it
+		 */
+		limiter.tryAcquire().orElseThrow().onSuccess();
+		Assertions.assertEquals(12, limiter.getLimit());
+
+		limiter.tryAcquire().orElseThrow().onDropped();
+		Assertions.assertEquals(6, limiter.getLimit());
+		limiter.tryAcquire().orElseThrow().onDropped();
+		limiter.tryAcquire().orElseThrow().onDropped();
+		Assertions.assertEquals(2, limiter.getLimit());
+	}
+
+	@Test
+	void testSlowSendsReduceTheLimit() throws InterruptedException {
+		final var limiter = AimdConcurrencyLimiter.builder()
+				.initialLimit(10)
+				.latencyThresholdMs(1)
+				.build();
+		final var permit = limiter.tryAcquire().orElseThrow();
+		Thread.sleep(10);
+		permit.onSuccess();
+		Assertions.assertEquals(9, limiter.getLimit());
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.targetvalidator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.models.mux.MessageRequest;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import io.appform.jsonrules.Expression;
+import io.appform.jsonrules.expressions.equality.EqualsExpression;
+import io.appform.jsonrules.expressions.equality.NotEqualsExpression;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class CompiledCriteriaTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static TransformationTarget target(Expression criteria) {
+		return TransformationTarget.builder()
+				.schemaKey(SchemaKey.builder().build())
+				.criteria(criteria)
+				.transformers(List.of())
+				.tags(List.of())
+				.build();
+	}
+
+	private static Expression equalsExpression(String path, Object value) {
+		return EqualsExpression.builder()
+				.path(path)
+				.value(value)
+				.build();
+	}
+
+	@Test
+	@SneakyThrows
+	void testCompiledCriteriaMatchesPerTargetEvaluation() {
+		final var targets = new ArrayList<TransformationTarget>();
+		targets.add(target(null));
+		targets.add(target(equalsExpression("$.eventType", "CREATED")));
+		targets.add(target(equalsExpression("$.eventType", "UPDATED")));
+		targets.add(target(equalsExpression("$.eventType", "CREATED")));
+		targets.add(target(equalsExpression("$.count", 5)));
+		targets.add(target(equalsExpression("$.version", "5")));
+		targets.add(target(NotEqualsExpression.builder()
+				.path("$.tenant")
+				.value("tenant1")
+				.build()));
+		final var validator = new JsonRuleTargetValidator();
+		final var matcher = validator.compile(targets);
+		Assertions.assertTrue(matcher.isCompiledFrom(targets));
+
+		final var messages = List.of(
+				"{\"eventType\": \"CREATED\", \"tenant\": \"tenant1\", \"count\": 5}",
+				"{\"eventType\": \"UPDATED\", \"tenant\": \"tenant2\", \"count\": 6, \"version\": \"5\"}",
+				"{\"tenant\": \"tenant1\"}",
+				"{}");
+		for (final var message : messages) {
+			final var messageRequest = MessageRequest.builder()
+					.schemaKey(SchemaKey.builder().build())
+					.message(MAPPER.readTree(message))
+					.build();
+			final var matches = matcher.matches(messageRequest, null);
+			Assertions.assertEquals(targets.size(), matches.length);
+			for (var i = 0; i < targets.size(); i++) {
+				Assertions.assertEquals(validator.validate(targets.get(i), messageRequest, null), matches[i],
+						"Mismatch for target " + i + " on message " + message);
+			}
+		}
+
+		final var createdRequest = MessageRequest.builder()
+				.schemaKey(SchemaKey.builder().build())
+				.message(MAPPER.readTree(messages.get(0)))
+				.build();
+		final var created = matcher.matches(createdRequest, null);
+		Assertions.assertTrue(created[0]);
+		Assertions.assertTrue(created[1]);
+		Assertions.assertFalse(created[2]);
+		Assertions.assertTrue(created[3]);
+
+		/*
+			A string compared against a number fails inside jsonrules, the matcher surfaces the same failure as the
+			validator instead of deciding the outcome on its own
+		 */
+		final var mixedTargets = List.of(target(equalsExpression("$.count", "5")));
+		final var mixedMatcher = validator.compile(mixedTargets);
+		Assertions.assertThrows(ClassCastException.class,
+				() -> validator.validate(mixedTargets.get(0), createdRequest, null));
+		Assertions.assertThrows(ClassCastException.class, () -> mixedMatcher.matches(createdRequest, null));
+
+		targets.get(2).setCriteria(equalsExpression("$.eventType", "CREATED"));
+		Assertions.assertFalse(matcher.isCompiledFrom(targets));
+		Assertions.assertTrue(validator.compile(targets).matches(createdRequest, null)[2]);
+	}
+}
@@ -22,8 +22,8 @@ import com.grookage.leia.common.utils.SchemaValidationUtils;
 import com.grookage.leia.common.violation.LeiaSchemaViolation;
 import com.grookage.leia.models.annotations.SchemaDefinition;
 import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaIndexSupplier;
 import com.grookage.leia.models.schema.SchemaKey;
-import com.grookage.leia.models.utils.SchemaUtils;
 import lombok.Builder;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -39,18 +39,20 @@ public class StaticSchemaValidator implements LeiaSchemaValidator {
 	private final ConcurrentHashMap<SchemaKey, Boolean> validationRegistry = new ConcurrentHashMap<>();
 	private final ConcurrentHashMap<SchemaKey, Class<?>> klassRegistry = new ConcurrentHashMap<>();
 	private final Supplier<List<SchemaDetails>> supplier;
+	private final SchemaIndexSupplier schemaIndex;
 	private final Set<String> packageRoots;
 
 	@Builder
 	public StaticSchemaValidator(Supplier<List<SchemaDetails>> supplier,
 	                             Set<String> packageRoots) {
 		this.supplier = supplier;
+		this.schemaIndex = new SchemaIndexSupplier(supplier);
 		this.packageRoots = packageRoots;
 	}
 
 	@SneakyThrows
 	private List<LeiaSchemaViolation> validate(final SchemaKey schemaKey, Class<?> klass) {
-		final var details = SchemaUtils.getMatchingSchema(supplier.get(), schemaKey).orElse(null);
+		final var details = schemaIndex.get().getSchemaDetails(schemaKey).orElse(null);
 		if (null == details) {
 			throw SchemaValidationException.error(ValidationErrorCode.NO_SCHEMA_FOUND,
 					String.format("No schema found with key: %s", schemaKey.getReferenceId()));
@@ -74,7 +76,8 @@ public class StaticSchemaValidator implements LeiaSchemaValidator {
 						.orgId(annotation.orgId())
 						.tenantId(annotation.tenantId())
 						.type(annotation.type())
-						.build();
+						.build()
+						.intern();
 				klassRegistry.putIfAbsent(schemaKey, annotatedClass);
 				final var schemaViolations = validate(schemaKey, annotatedClass);
 				validationRegistry.putIfAbsent(schemaKey, schemaViolations.isEmpty());